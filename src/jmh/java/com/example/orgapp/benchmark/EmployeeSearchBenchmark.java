@@ -0,0 +1,71 @@
+package com.example.orgapp.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.orgapp.dto.EmployeePageDTO;
+import com.example.orgapp.service.EmployeeSearchIndex;
+import com.example.orgapp.service.OrgService;
+
+/**
+ * Employee search against a seeded org, sampled so JMH reports percentiles.
+ * Seeded names look like "emp-123", so "emp" matches nearly everyone, "emp-47"
+ * is a prefix over ~11k numbers, "emp-4711" is a single employee and "emq-4711"
+ * needs a fuzzy match. Run with e.g.
+ * {@code -Djmh.args="EmployeeSearch -p orgSize=1000000"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeSearchBenchmark {
+
+	@Param({ "1000" })
+	public int orgSize;
+
+	@Param({ "emp", "emp-47", "emp-4711", "emq-4711" })
+	public String query;
+
+	private ConfigurableApplicationContext context;
+	private EmployeeSearchIndex searchIndex;
+	private OrgService orgService;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		context = OrgSeeder.start("search");
+		OrgSeeder.seed(context, orgSize);
+		searchIndex = context.getBean(EmployeeSearchIndex.class);
+		orgService = context.getBean(OrgService.class);
+		searchIndex.rebuild();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Long> indexFirstPage() {
+		return searchIndex.search(query, 0L, 21);
+	}
+
+	@Benchmark
+	public EmployeePageDTO searchFirstPage() {
+		// Index lookup plus loading the page of employees
+		return orgService.searchEmployees(query, null, 20);
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.example.orgapp.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.orgapp.config.CborConfig;
+import com.example.orgapp.dto.EmployeeDTO;
+import com.example.orgapp.enums.OrgDesignations;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Encoding and decoding a department listing of {@code rows} employees as
+ * JSON, plain CBOR and CBOR with string references (what
+ * {@code Accept: application/cbor} gets, see CborConfig). No database is
+ * involved; the payload sizes, raw and gzipped, are printed at setup. Run
+ * with e.g. {@code -Djmh.args="ListingFormat -p rows=10000,100000"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ListingFormatBenchmark {
+
+	private static final String[] DEPARTMENTS = { "Engineering", "Quality Assurance", "Human Resources",
+			"Finance", "Sales", "Customer Support" };
+	private static final TypeReference<List<EmployeeDTO>> LISTING = new TypeReference<>() { };
+
+	@Param({ "10000" })
+	public int rows;
+
+	@Param({ "json", "cbor", "cbor-stringref" })
+	public String format;
+
+	private ObjectMapper mapper;
+	private List<EmployeeDTO> listing;
+	private byte[] encoded;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		mapper = switch (format) {
+			case "json" -> new Jackson2ObjectMapperBuilder().build();
+			case "cbor" -> new Jackson2ObjectMapperBuilder().factory(new CBORFactory()).build();
+			case "cbor-stringref" -> CborConfig.cborMapper(new Jackson2ObjectMapperBuilder());
+			default -> throw new IllegalArgumentException(format);
+		};
+		listing = listing(rows);
+		encoded = mapper.writeValueAsBytes(listing);
+		System.out.printf("%n%s, %d rows: %d bytes, %d gzipped%n", format, rows, encoded.length, gzipped(encoded));
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		return mapper.writeValueAsBytes(listing);
+	}
+
+	@Benchmark
+	public List<EmployeeDTO> deserialize() throws IOException {
+		return mapper.readValue(encoded, LISTING);
+	}
+
+	// Shaped like the seeded org: a manager per ten employees, a handful of departments
+	private static List<EmployeeDTO> listing(int rows) {
+		OrgDesignations[] staff = { OrgDesignations.DEVELOPER, OrgDesignations.TESTER, OrgDesignations.INTERN };
+		List<EmployeeDTO> listing = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			long id = 1_000 + i;
+			OrgDesignations designation = i % 10 == 0 ? OrgDesignations.MANAGER : staff[i % staff.length];
+			listing.add(new EmployeeDTO(id, "emp-" + id, String.valueOf(9_000_000_000L + id),
+					DEPARTMENTS[(i / 10) % DEPARTMENTS.length], designation, 1_000L + (i / 10) * 10));
+		}
+		return listing;
+	}
+
+	private static int gzipped(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+		return out.size();
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.example.orgapp.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.orgapp.dto.EmployeeDTO;
+import com.example.orgapp.dto.EmployeePageDTO;
+import com.example.orgapp.service.OrgGraph;
+import com.example.orgapp.service.OrgService;
+
+/**
+ * Hierarchy reads answered by the in-memory org graph versus the JPA queries,
+ * through OrgService in both cases. mgr-0-0 has about 100 reports, BENCH0
+ * holds a tenth of the org; the page starts after emp-0. The graph's size per
+ * employee is printed at setup, the allocation of each read is reported with
+ * {@code -prof gc}. Run with e.g.
+ * {@code -Djmh.args="OrgGraph -p orgSize=1000000 -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OrgGraphBenchmark {
+
+	@Param({ "1000" })
+	public int orgSize;
+
+	@Param({ "jpa", "graph" })
+	public String source;
+
+	private ConfigurableApplicationContext context;
+	private OrgService orgService;
+	private Map<String, Long> ids;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		context = OrgSeeder.start("orggraph", "--org.graph.enabled=" + source.equals("graph"));
+		ids = OrgSeeder.seed(context, orgSize);
+		orgService = context.getBean(OrgService.class);
+		OrgGraph orgGraph = context.getBean(OrgGraph.class);
+		if (orgGraph.snapshot() != null) {
+			// One compact base, as after a restart
+			orgGraph.rebuild();
+			int employees = orgGraph.snapshot().size();
+			System.out.printf("%n%d employees, org graph %.1f MB, %.1f bytes per employee%n", employees,
+					orgGraph.bytes() / 1e6, (double) orgGraph.bytes() / employees);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<EmployeeDTO> reportsOfManager() {
+		return orgService.getEmployeesReportingToManager(ids.get("mgr-0-0"));
+	}
+
+	@Benchmark
+	public EmployeePageDTO departmentPage() {
+		return orgService.getEmployeePageByDepartment("BENCH0", ids.get("emp-0"), 100);
+	}
+
+	@Benchmark
+	public List<EmployeeDTO> departmentListing() {
+		return orgService.getEmployeesByDepartment("BENCH0");
+	}
+
+}
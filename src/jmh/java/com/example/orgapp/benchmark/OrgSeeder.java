@@ -0,0 +1,117 @@
+package com.example.orgapp.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.orgapp.AssignmentApplication;
+import com.example.orgapp.dto.BulkImportResult;
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.repository.EmployeeRepository;
+import com.example.orgapp.service.EmployeeImportService;
+import com.example.orgapp.service.OrgService;
+
+/**
+ * Starts the application against a private in-memory H2 database and seeds an
+ * org of the requested size through the bulk importer: one CEO, then
+ * {@value #DEPARTMENTS} departments named BENCH0..BENCH9, each with a head,
+ * managers and about {@value #STAFF_PER_MANAGER} staff per manager. An extra
+ * department BENCH_EMPTY has no employees at all.
+ */
+final class OrgSeeder {
+
+	static final int DEPARTMENTS = 10;
+	static final int STAFF_PER_MANAGER = 100;
+	static final String EMPTY_DEPARTMENT = "BENCH_EMPTY";
+
+	private static final String[] STAFF_DESIGNATIONS = { "DEVELOPER", "TESTER", "INTERN" };
+
+	private OrgSeeder() {
+	}
+
+	static ConfigurableApplicationContext start(String databaseName, String... extraArgs) {
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+				"--spring.main.web-application-type=none",
+				"--spring.main.banner-mode=off",
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=warn",
+				"--logging.level.org.hibernate.SQL=warn"));
+		args.addAll(List.of(extraArgs));
+		return SpringApplication.run(AssignmentApplication.class, args.toArray(String[]::new));
+	}
+
+	// Seeds the org and returns the ids of the named employees (ceo, head-N, mgr-N-M, emp-N)
+	static Map<String, Long> seed(ConfigurableApplicationContext context, int orgSize) throws IOException {
+		OrgService orgService = context.getBean(OrgService.class);
+		for (int d = 0; d < DEPARTMENTS; d++) {
+			orgService.addDepartment(department("BENCH" + d));
+		}
+		orgService.addDepartment(department(EMPTY_DEPARTMENT));
+
+		int perDepartment = Math.max(3, (orgSize - 1) / DEPARTMENTS);
+		int managers = Math.max(1, perDepartment / (STAFF_PER_MANAGER + 1));
+		int staff = Math.max(0, perDepartment - 1 - managers);
+
+		Path csv = Files.createTempFile("org-seed", ".csv");
+		try {
+			try (BufferedWriter out = Files.newBufferedWriter(csv)) {
+				out.write("name,mobileNumber,designation,department,reportToMobile\n");
+				out.write("ceo,ceo,CEO,,\n");
+				int n = 0;
+				for (int d = 0; d < DEPARTMENTS; d++) {
+					String dept = "BENCH" + d;
+					row(out, "head-" + d, "DEPT_HEAD", dept, "ceo");
+					for (int m = 0; m < managers; m++) {
+						row(out, "mgr-" + d + "-" + m, "MANAGER", dept, "head-" + d);
+					}
+					for (int s = 0; s < staff; s++, n++) {
+						row(out, "emp-" + n, STAFF_DESIGNATIONS[n % STAFF_DESIGNATIONS.length], dept,
+								"mgr-" + d + "-" + (s % managers));
+					}
+				}
+			}
+			try (InputStream in = Files.newInputStream(csv)) {
+				BulkImportResult result = context.getBean(EmployeeImportService.class).importCsv(in);
+				if (result.getFailed() > 0) {
+					throw new IllegalStateException("Seeding failed: " + result.getErrors().get(0).getMessage());
+				}
+			}
+		} finally {
+			Files.deleteIfExists(csv);
+		}
+
+		Map<String, Long> ids = new HashMap<>();
+		List<String> named = new ArrayList<>(List.of("ceo", "emp-0"));
+		for (int d = 0; d < DEPARTMENTS; d++) {
+			named.add("head-" + d);
+			named.add("mgr-" + d + "-0");
+		}
+		for (Employee e : context.getBean(EmployeeRepository.class).findByMobileNumberIn(named)) {
+			ids.put(e.getMobileNumber(), e.getId());
+		}
+		return ids;
+	}
+
+	private static void row(BufferedWriter out, String mobile, String designation, String dept, String reportTo)
+			throws IOException {
+		out.write(mobile + "," + mobile + "," + designation + "," + dept + "," + reportTo + "\n");
+	}
+
+	private static Department department(String name) {
+		Department dept = new Department();
+		dept.setDepartmentName(name);
+		return dept;
+	}
+
+}
@@ -0,0 +1,176 @@
+package com.example.orgapp.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.orgapp.controller.OrgController;
+import com.example.orgapp.dto.EmployeeDTO;
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.entity.Designation;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.repository.EmployeeRepository;
+import com.example.orgapp.service.OrgService;
+
+/**
+ * OrgService write and read paths against a seeded org. Writes run inside a
+ * transaction that is rolled back, so the org stays at the requested size for
+ * every invocation. Run with e.g. {@code -Djmh.args="-p orgSize=1000,100000,1000000"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OrgServiceBenchmark {
+
+	@Param({ "1000" })
+	public int orgSize;
+
+	private ConfigurableApplicationContext context;
+	private OrgService orgService;
+	private OrgController controller;
+	private TransactionTemplate transactionTemplate;
+
+	private Map<String, Long> ids;
+	private Employee loadedEmployee;
+	private final AtomicLong mobiles = new AtomicLong();
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		context = OrgSeeder.start("orgservice");
+		orgService = context.getBean(OrgService.class);
+		controller = context.getBean(OrgController.class);
+		transactionTemplate = context.getBean(TransactionTemplate.class);
+		ids = OrgSeeder.seed(context, orgSize);
+		loadedEmployee = context.getBean(EmployeeRepository.class).findWithDesignationById(ids.get("emp-0")).get();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	// ---------------- addEmployee, one per designation branch ----------------
+
+	@Benchmark
+	public Object addEmployeeCeoRejected() {
+		// Only one CEO may exist, so this measures the CEO branch up to its rejection
+		return rolledBack(() -> {
+			try {
+				return orgService.addEmployee(employee(OrgDesignations.CEO, null, null));
+			} catch (IllegalArgumentException e) {
+				return e;
+			}
+		});
+	}
+
+	@Benchmark
+	public Employee addEmployeeDeptHead() {
+		return rolledBack(() -> orgService.addEmployee(
+				employee(OrgDesignations.DEPT_HEAD, OrgSeeder.EMPTY_DEPARTMENT, ids.get("ceo"))));
+	}
+
+	@Benchmark
+	public Employee addEmployeeManager() {
+		return rolledBack(() -> orgService.addEmployee(employee(OrgDesignations.MANAGER, "BENCH0", ids.get("head-0"))));
+	}
+
+	@Benchmark
+	public Employee addEmployeeStaff() {
+		return rolledBack(() -> orgService.addEmployee(employee(OrgDesignations.DEVELOPER, "BENCH0", ids.get("mgr-0-0"))));
+	}
+
+	// ---------------- Rejected requests ----------------
+
+	@Benchmark
+	public Object addEmployeeRejectedNoReportTo() {
+		// Structurally invalid: nothing should need the database
+		return rejected(() -> orgService.addEmployee(employee(OrgDesignations.DEVELOPER, "BENCH0", null)));
+	}
+
+	@Benchmark
+	public Object addEmployeeRejectedWrongManager() {
+		// Well formed, but the department head is not a manager
+		return rejected(() -> orgService.addEmployee(employee(OrgDesignations.DEVELOPER, "BENCH0", ids.get("head-0"))));
+	}
+
+	@Benchmark
+	public Object moveEmployeeRejected() {
+		// reportTo is a manager of another department
+		return rejected(() -> orgService.moveEmployeeToDepartment(ids.get("emp-0"), "BENCH1", ids.get("mgr-0-0")));
+	}
+
+	// ---------------- Moves and reads ----------------
+
+	@Benchmark
+	public Employee moveEmployeeToDepartment() {
+		return rolledBack(() -> orgService.moveEmployeeToDepartment(ids.get("emp-0"), "BENCH1", ids.get("mgr-1-0")));
+	}
+
+	@Benchmark
+	public List<EmployeeDTO> getEmployeesByDepartment() {
+		return orgService.getEmployeesByDepartment("BENCH0");
+	}
+
+	@Benchmark
+	public EmployeeDTO convertToDTO() {
+		return controller.convertToDTO(loadedEmployee);
+	}
+
+	// ---------------- Helpers ----------------
+
+	private <T> T rolledBack(Supplier<T> work) {
+		return transactionTemplate.execute(status -> {
+			status.setRollbackOnly();
+			return work.get();
+		});
+	}
+
+	private Object rejected(Supplier<Employee> work) {
+		return rolledBack(() -> {
+			try {
+				return work.get();
+			} catch (IllegalArgumentException e) {
+				return e;
+			}
+		});
+	}
+
+	private Employee employee(OrgDesignations designation, String department, Long reportTo) {
+		Employee emp = new Employee();
+		emp.setName("bench");
+		emp.setMobileNumber("bench-" + mobiles.incrementAndGet());
+		Designation d = new Designation();
+		d.setOrgDesignations(designation);
+		emp.setDesignation(d);
+		if (department != null) {
+			Department dept = new Department();
+			dept.setDepartmentName(department);
+			emp.setDepartment(dept);
+		}
+		if (reportTo != null) {
+			Employee boss = new Employee();
+			boss.setId(reportTo);
+			emp.setReportTo(boss);
+		}
+		return emp;
+	}
+
+}
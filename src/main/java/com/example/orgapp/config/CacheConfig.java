@@ -0,0 +1,48 @@
+package com.example.orgapp.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caffeine caches for the small, read-mostly lookup tables. Hit/miss/size
+ * metrics are bound by Actuator ({@code cache.gets}, {@code cache.size},
+ * {@code cache.evictions} for size and expiry, ...); explicit evictions are
+ * counted separately as {@code cache.removals}.
+ * <p>
+ * Entries also expire after {@code org.cache.departments.ttl}, so a department
+ * looked up from a lagging replica, or across a concurrent eviction, is not
+ * held stale for longer than that.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	public static final String DEPARTMENTS_BY_NAME = "departmentsByName";
+
+	@Bean
+	public CacheManagerCustomizer<CaffeineCacheManager> orgCaches(MeterRegistry meterRegistry,
+			@Value("${org.cache.departments.ttl:PT10M}") Duration departmentsTtl) {
+		return cacheManager -> cacheManager.registerCustomCache(DEPARTMENTS_BY_NAME, Caffeine.newBuilder()
+				.maximumSize(1_000)
+				.expireAfterWrite(departmentsTtl)
+				.recordStats()
+				// Removals are counted on the thread that caused them, not later on the common pool,
+				// so the counter is up to date as soon as the eviction returns
+				.executor(Runnable::run)
+				.removalListener((key, value, cause) -> meterRegistry
+						.counter("cache.removals", "cache", DEPARTMENTS_BY_NAME, "cause", cause.name())
+						.increment())
+				.build());
+	}
+
+}
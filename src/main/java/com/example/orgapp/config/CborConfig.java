@@ -0,0 +1,43 @@
+package com.example.orgapp.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+
+/**
+ * Binary alternative to the JSON listings for bulk consumers: a request with
+ * {@code Accept: application/cbor} gets the same documents encoded as CBOR.
+ * <p>
+ * String references (CBOR tag 256) are enabled, so a string already sent in
+ * a response is written as a small index instead of again. That turns the
+ * field names and the department and designation names repeated on every row
+ * into a dictionary without changing the shape of the document; Jackson's
+ * CBOR parser, and other decoders that implement the extension, resolve them
+ * transparently.
+ * <p>
+ * The gain is size: a listing is less than half its JSON size. Jackson does
+ * not decode it faster than JSON, the reference bookkeeping costs more than
+ * the parsing it saves (see ListingFormatBenchmark).
+ */
+@Configuration
+public class CborConfig {
+
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+	}
+
+	// Same modules and settings as the JSON mapper, only the wire format differs
+	public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+		CBORFactory factory = CBORFactory.builder()
+				.enable(CBORGenerator.Feature.STRINGREF)
+				.build();
+		return builder.createXmlMapper(false).factory(factory).build();
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.example.orgapp.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Connections for read-only transactions: from the replica while it is
+ * reachable and caught up, otherwise from the primary.
+ * <p>
+ * The replica counts as caught up when its change feed ({@code org_change})
+ * has reached the offset the primary had at the previous check, so a read
+ * sent to it is at most one check interval behind. A replica that cannot
+ * hand out a connection is taken out of rotation right away and put back by
+ * the next check that finds it caught up.
+ */
+public class ReplicaDataSource extends DelegatingDataSource {
+
+	static final String CONNECTIONS = "org.datasource.replica.connections";
+	static final String AVAILABLE = "org.datasource.replica.available";
+
+	private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+	private static final String LATEST_OFFSET = "SELECT COALESCE(MAX(change_offset), 0) FROM org_change";
+
+	private final DataSource primary;
+	private final JdbcTemplate primaryJdbc;
+	private final MeterRegistry registry;
+
+	// Reads stay on the primary until the first check has seen the replica caught up
+	private volatile boolean available;
+	private long primaryOffsetAtLastCheck = -1;
+
+	public ReplicaDataSource(DataSource replica, DataSource primary, MeterRegistry registry) {
+		super(replica);
+		this.primary = primary;
+		this.primaryJdbc = new JdbcTemplate(primary);
+		this.registry = registry;
+		Gauge.builder(AVAILABLE, this, r -> r.available ? 1 : 0)
+				.description("1 while read-only transactions are served by the replica").register(registry);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (available) {
+			try {
+				Connection con = super.getConnection();
+				count("replica");
+				return con;
+			} catch (SQLException e) {
+				markDown(e);
+			}
+		}
+		count("primary");
+		return primary.getConnection();
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		if (available) {
+			try {
+				Connection con = super.getConnection(username, password);
+				count("replica");
+				return con;
+			} catch (SQLException e) {
+				markDown(e);
+			}
+		}
+		count("primary");
+		return primary.getConnection(username, password);
+	}
+
+	public boolean isAvailable() {
+		return available;
+	}
+
+	// ---------------- Health check ----------------
+
+	@Scheduled(fixedDelayString = "${org.datasource.replica.check-interval:PT5S}")
+	public synchronized void check() {
+		long primaryOffset;
+		try {
+			primaryOffset = latestOffset(primaryJdbc);
+		} catch (DataAccessException e) {
+			// Nothing to compare against; the primary's own failures surface elsewhere
+			log.debug("Replica check skipped, primary unreachable", e);
+			return;
+		}
+		long required = primaryOffsetAtLastCheck < 0 ? primaryOffset : primaryOffsetAtLastCheck;
+		primaryOffsetAtLastCheck = primaryOffset;
+		try {
+			// Whatever the target is now, so a replaced target is checked before it is used
+			long replicaOffset = latestOffset(new JdbcTemplate(obtainTargetDataSource()));
+			if (replicaOffset >= required) {
+				if (!available) {
+					log.info("Replica caught up at offset {}, read-only transactions use it", replicaOffset);
+				}
+				available = true;
+			} else {
+				if (available) {
+					log.warn("Replica is behind (offset {} < {}), read-only transactions use the primary",
+							replicaOffset, required);
+				}
+				available = false;
+			}
+		} catch (DataAccessException e) {
+			markDown(e);
+		}
+	}
+
+	private static long latestOffset(JdbcTemplate jdbc) {
+		Long offset = jdbc.queryForObject(LATEST_OFFSET, Long.class);
+		return offset == null ? 0 : offset;
+	}
+
+	private void markDown(Exception e) {
+		if (available) {
+			log.warn("Replica unreachable, read-only transactions use the primary", e);
+		}
+		available = false;
+	}
+
+	private void count(String target) {
+		registry.counter(CONNECTIONS, "target", target).increment();
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.example.orgapp.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read replica, enabled by setting {@code org.datasource.replica.jdbc-url}
+ * (the other {@code org.datasource.replica.*} keys are Hikari settings for its
+ * pool). Without it the single auto-configured pool is used as before.
+ * <p>
+ * The application's data source hands out a connection only when the first
+ * statement runs, and picks the pool by the transaction: read-only ones
+ * ({@code @Transactional(readOnly = true)}) go to {@link ReplicaDataSource},
+ * everything else, including Flyway, to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "org.datasource.replica", name = "jdbc-url")
+public class ReplicaDataSourceConfig {
+
+	// Same settings as the auto-configured pool (spring.datasource.*)
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean
+	@ConfigurationProperties("org.datasource.replica")
+	public HikariDataSource replicaPool() {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setPoolName("replica");
+		dataSource.setReadOnly(true);
+		// Start even while the replica is down, reads use the primary until it is back
+		dataSource.setInitializationFailTimeout(-1);
+		return dataSource;
+	}
+
+	@Bean
+	public ReplicaDataSource replicaDataSource(HikariDataSource replicaPool, HikariDataSource primaryDataSource,
+			MeterRegistry registry) {
+		return new ReplicaDataSource(replicaPool, primaryDataSource, registry);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+		dataSource.setReadOnlyDataSource(replicaDataSource);
+		return dataSource;
+	}
+
+}
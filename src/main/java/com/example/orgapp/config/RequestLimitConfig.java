@@ -0,0 +1,64 @@
+package com.example.orgapp.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.orgapp.controller.RequestLimiter;
+import com.example.orgapp.controller.RequestLimiter.EndpointClass;
+import com.example.orgapp.controller.RequestLimiter.Limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Puts {@link RequestLimiter} in front of every endpoint under {@code /api} when
+ * {@code org.limits.enabled} is set. Each endpoint class is configured under
+ * {@code org.limits.<read|write|bulk>.*}; anything not set keeps the
+ * defaults below.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "org.limits", name = "enabled", havingValue = "true")
+public class RequestLimitConfig implements WebMvcConfigurer {
+
+	private static final Map<EndpointClass, Limit> DEFAULTS = Map.of(
+			EndpointClass.READ, new Limit(100, 200, 8, 64),
+			EndpointClass.WRITE, new Limit(50, 100, 16, 64),
+			EndpointClass.BULK, new Limit(1, 5, 1, 2));
+
+	private final Environment env;
+	private final MeterRegistry registry;
+
+	public RequestLimitConfig(Environment env, MeterRegistry registry) {
+		this.env = env;
+		this.registry = registry;
+	}
+
+	@Bean
+	public RequestLimiter requestLimiter() {
+		Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+		for (EndpointClass c : EndpointClass.values()) {
+			Limit d = DEFAULTS.get(c);
+			String prefix = "org.limits." + c.key() + ".";
+			limits.put(c, new Limit(
+					env.getProperty(prefix + "rate", Double.class, d.rate()),
+					env.getProperty(prefix + "burst", Integer.class, d.burst()),
+					env.getProperty(prefix + "client-concurrency", Integer.class, d.clientConcurrency()),
+					env.getProperty(prefix + "concurrency", Integer.class, d.concurrency())));
+		}
+		return new RequestLimiter(limits, registry, env.getProperty("org.limits.max-clients", Long.class, 10_000L),
+				env.getProperty("org.limits.client-idle", Duration.class, Duration.ofMinutes(10)));
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(requestLimiter()).addPathPatterns("/api/**");
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.example.orgapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs, such as the periodic rebuild of the org analytics counters.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,44 @@
+package com.example.orgapp.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.orgapp.dto.HeadcountDTO;
+import com.example.orgapp.dto.SpanOfControlDTO;
+import com.example.orgapp.service.OrgAnalytics;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+	private final OrgAnalytics orgAnalytics;
+
+	public AnalyticsController(OrgAnalytics orgAnalytics) {
+		this.orgAnalytics = orgAnalytics;
+	}
+
+	// Headcount per department and designation, with the deepest level in each department
+	@GetMapping("/headcount")
+	public ResponseEntity<List<HeadcountDTO>> getHeadcount() {
+		return ResponseEntity.ok(orgAnalytics.headcount());
+	}
+
+	// Direct reports of the CEO, heads and managers, summarized per department
+	@GetMapping("/span-of-control")
+	public ResponseEntity<List<SpanOfControlDTO>> getSpanOfControl() {
+		return ResponseEntity.ok(orgAnalytics.spanOfControl());
+	}
+
+	// Recount from the database; reports how many counters were out of step
+	@PostMapping("/rebuild")
+	public ResponseEntity<Map<String, Integer>> rebuild() {
+		return ResponseEntity.ok(Map.of("drift", orgAnalytics.rebuild()));
+	}
+
+}
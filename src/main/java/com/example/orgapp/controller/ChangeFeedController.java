@@ -0,0 +1,36 @@
+package com.example.orgapp.controller;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.orgapp.dto.ChangePageDTO;
+import com.example.orgapp.service.OrgChangeFeed;
+
+@RestController
+@RequestMapping("/api")
+public class ChangeFeedController {
+
+	static final int MAX_WAIT_SECONDS = 30;
+
+	private final OrgChangeFeed changeFeed;
+
+	public ChangeFeedController(OrgChangeFeed changeFeed) {
+		this.changeFeed = changeFeed;
+	}
+
+	// Changes after the given offset in offset order. With "wait" the request is held
+	// (long poll, up to 30s) until a change arrives; an empty page means nothing happened.
+	@GetMapping("/changes")
+	public CompletableFuture<ResponseEntity<ChangePageDTO>> getChanges(@RequestParam(defaultValue = "0") long since,
+			@RequestParam(required = false) Integer limit, @RequestParam(defaultValue = "0") int wait) {
+		Duration timeout = Duration.ofSeconds(Math.min(Math.max(wait, 0), MAX_WAIT_SECONDS));
+		return changeFeed.poll(since, limit, timeout).thenApply(ResponseEntity::ok);
+	}
+
+}
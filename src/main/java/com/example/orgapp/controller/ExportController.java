@@ -0,0 +1,51 @@
+package com.example.orgapp.controller;
+
+import java.nio.file.Path;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.orgapp.dto.ExportDTO;
+import com.example.orgapp.service.OrgExporter;
+
+@RestController
+@RequestMapping("/api")
+public class ExportController {
+
+	static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+	private final OrgExporter orgExporter;
+
+	public ExportController(OrgExporter orgExporter) {
+		this.orgExporter = orgExporter;
+	}
+
+	// Download the newest export of the whole org as a gzipped CSV, streamed from disk
+	// (Range requests resume an interrupted download); 404 until the first export has run
+	@GetMapping("/export")
+	public ResponseEntity<?> getExport() {
+		Path latest = orgExporter.latest();
+		if (latest == null) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No export yet");
+		}
+		return ResponseEntity.ok().contentType(GZIP)
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment().filename(latest.getFileName().toString()).build().toString())
+				.body(new FileSystemResource(latest));
+	}
+
+	// Export now instead of waiting for the nightly run
+	@PostMapping("/export")
+	public ResponseEntity<ExportDTO> export() {
+		return ResponseEntity.status(HttpStatus.CREATED).body(orgExporter.export());
+	}
+
+}
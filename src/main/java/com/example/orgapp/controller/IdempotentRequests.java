@@ -0,0 +1,127 @@
+package com.example.orgapp.controller;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replays the outcome of a POST sent with an {@code Idempotency-Key} header,
+ * so a client that timed out can retry and get the original answer (status,
+ * body and ETag) instead of running validation again and failing on the
+ * employee its first attempt created.
+ * <p>
+ * Outcomes are kept in memory per endpoint and key for
+ * {@code org.idempotency.ttl}. A retry that arrives while the first attempt
+ * is still running gets 409, a key reused for a different request body 422.
+ * Server errors and 429s are not kept, so retrying those runs the request again.
+ */
+@Component
+class IdempotentRequests {
+
+	static final String KEY_HEADER = "Idempotency-Key";
+	static final String REPLAYED_HEADER = "Idempotent-Replayed";
+	static final String REPLAYS = "org.idempotency.replays";
+
+	private static final int MAX_KEY_LENGTH = 255;
+
+	private final ObjectMapper objectMapper;
+	private final MeterRegistry registry;
+	private final Cache<String, Outcome> outcomes;
+
+	IdempotentRequests(ObjectMapper objectMapper, MeterRegistry registry,
+			@Value("${org.idempotency.ttl:PT1H}") Duration ttl,
+			@Value("${org.idempotency.max-keys:100000}") long maxKeys) {
+		this.objectMapper = objectMapper;
+		this.registry = registry;
+		this.outcomes = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxKeys).build();
+	}
+
+	// Runs the action once per key; without a key it simply runs
+	ResponseEntity<?> execute(String key, String endpoint, Object request, Supplier<ResponseEntity<?>> action) {
+		if (key == null) {
+			return action.get();
+		}
+		if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+			return ResponseEntity.badRequest().body("Invalid " + KEY_HEADER + " header");
+		}
+		String cacheKey = endpoint + " " + key;
+		Outcome mine = new Outcome(fingerprint(request));
+		Outcome first = outcomes.asMap().putIfAbsent(cacheKey, mine);
+		if (first != null) {
+			return replay(first, mine.fingerprint);
+		}
+
+		ResponseEntity<?> response;
+		try {
+			response = action.get();
+		} catch (RuntimeException e) {
+			outcomes.invalidate(cacheKey);
+			throw e;
+		}
+		if (response.getStatusCode().is5xxServerError() || response.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+			outcomes.invalidate(cacheKey);
+		} else {
+			mine.response = response;
+		}
+		return response;
+	}
+
+	private ResponseEntity<?> replay(Outcome first, String fingerprint) {
+		if (!first.fingerprint.equals(fingerprint)) {
+			count("mismatch");
+			return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+					.body(KEY_HEADER + " was already used for a different request");
+		}
+		ResponseEntity<?> response = first.response;
+		if (response == null) {
+			count("in_progress");
+			return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1")
+					.body("A request with this " + KEY_HEADER + " is still in progress");
+		}
+		count("replayed");
+		return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders())
+				.header(REPLAYED_HEADER, "true").body(response.getBody());
+	}
+
+	private void count(String outcome) {
+		registry.counter(REPLAYS, "outcome", outcome).increment();
+	}
+
+	// Hash of the bound request, taken before the action runs and mutates it
+	private String fingerprint(Object request) {
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(request);
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+		} catch (JsonProcessingException | NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Cannot fingerprint request", e);
+		}
+	}
+
+	private static final class Outcome {
+
+		private final String fingerprint;
+		// Null while the first attempt is running
+		private volatile ResponseEntity<?> response;
+
+		private Outcome(String fingerprint) {
+			this.fingerprint = fingerprint;
+		}
+
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.example.orgapp.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.orgapp.dto.IngestStatusDTO;
+import com.example.orgapp.service.EmployeeIngestQueue;
+
+@RestController
+@RequestMapping("/api")
+public class IngestController {
+
+	private final EmployeeIngestQueue ingestQueue;
+
+	public IngestController(EmployeeIngestQueue ingestQueue) {
+		this.ingestQueue = ingestQueue;
+	}
+
+	// Outcome of an employee accepted with "Prefer: respond-async": QUEUED, then IMPORTED with
+	// the new employee's id or FAILED with the reason. Outcomes are kept for an hour by default.
+	@GetMapping("/ingest/{id}")
+	public ResponseEntity<?> getIngestStatus(@PathVariable String id) {
+		IngestStatusDTO status = ingestQueue.status(id);
+		if (status == null) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown or expired tracking id");
+		}
+		return ResponseEntity.ok(status);
+	}
+
+}
@@ -1,83 +1,297 @@
 package com.example.orgapp.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.orgapp.dto.EmployeeDTO;
+import com.example.orgapp.dto.IngestStatusDTO;
+import com.example.orgapp.dto.ReorgMove;
+import com.example.orgapp.dto.ReorgResult;
 import com.example.orgapp.entity.Department;
 import com.example.orgapp.entity.Designation;
 import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.service.EmployeeImportService;
+import com.example.orgapp.service.EmployeeIngestQueue;
 import com.example.orgapp.service.OrgService;
+import com.example.orgapp.service.OrgVersions;
+import com.example.orgapp.service.ReorgService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 @RestController
 @RequestMapping("/api")
 public class OrgController {
 
+	static final String NDJSON = "application/x-ndjson";
+	static final String PREFER = "Prefer";
+	static final String PREFERENCE_APPLIED = "Preference-Applied";
+	static final String RESPOND_ASYNC = "respond-async";
+
+	// Listings are revalidated on every use, which costs a 304 while nothing changed;
+	// designations change only through an explicit refresh
+	static final CacheControl LISTING_CACHE = CacheControl.noCache().cachePrivate();
+	static final CacheControl DESIGNATION_CACHE = CacheControl.maxAge(Duration.ofMinutes(1)).mustRevalidate();
+
 	private final OrgService orgService;
+	private final EmployeeImportService importService;
+	private final ReorgService reorgService;
+	private final ObjectMapper objectMapper;
+	private final OrgVersions orgVersions;
+	private final IdempotentRequests idempotentRequests;
+	private final EmployeeIngestQueue ingestQueue;
 
-	public OrgController(OrgService orgService) {
+	public OrgController(OrgService orgService, EmployeeImportService importService, ReorgService reorgService,
+			ObjectMapper objectMapper, OrgVersions orgVersions, IdempotentRequests idempotentRequests,
+			EmployeeIngestQueue ingestQueue) {
 		this.orgService = orgService;
+		this.importService = importService;
+		this.reorgService = reorgService;
+		this.orgVersions = orgVersions;
+		this.objectMapper = objectMapper;
+		this.idempotentRequests = idempotentRequests;
+		this.ingestQueue = ingestQueue;
 	}
 
 	//Add department
 	@PostMapping("/departments")
-	public ResponseEntity<?> addDepartment(@RequestBody Department dept) {
-		Department savedDept = orgService.addDepartment(dept);
-		if (savedDept == null) {
-			return ResponseEntity.status(HttpStatus.CONFLICT).body("Department already exists");
-		}
-		return ResponseEntity.status(HttpStatus.CREATED).body(savedDept);
+	public ResponseEntity<?> addDepartment(@RequestBody Department dept,
+			@RequestHeader(name = IdempotentRequests.KEY_HEADER, required = false) String idempotencyKey) {
+		return idempotentRequests.execute(idempotencyKey, "POST /departments", dept, () -> {
+			Department savedDept = orgService.addDepartment(dept);
+			if (savedDept == null) {
+				return ResponseEntity.status(HttpStatus.CONFLICT).body("Department already exists");
+			}
+			return ResponseEntity.status(HttpStatus.CREATED).body(savedDept);
+		});
 	}
 
-	// Add employee
+	// Add employee; retries that repeat the Idempotency-Key get the first attempt's response.
+	// With "Prefer: respond-async" the employee is queued for a batched import instead: 202 with
+	// a tracking id to poll at /api/ingest/{id}, or 429 while the queue is full
 	@PostMapping("/employee")
-	public ResponseEntity<?> addEmployee(@RequestBody Employee emp) {
+	public ResponseEntity<?> addEmployee(@RequestBody Employee emp,
+			@RequestHeader(name = IdempotentRequests.KEY_HEADER, required = false) String idempotencyKey,
+			@RequestHeader(name = PREFER, required = false) String prefer) {
+		return idempotentRequests.execute(idempotencyKey, "POST /employee", emp, () -> {
+			if (prefer != null && prefer.contains(RESPOND_ASYNC)) {
+				return ingest(emp);
+			}
+			try {
+				Employee savedEmp = orgService.addEmployee(emp);
+				return ResponseEntity.status(HttpStatus.CREATED).eTag(versionTag(savedEmp))
+						.body(convertToDTO(savedEmp));
+			} catch (IllegalArgumentException e) {
+				return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+			} catch (Exception e) {
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+						.body("Unexpected error: " + e.getMessage());
+			}
+		});
+	}
+
+	private ResponseEntity<?> ingest(Employee emp) {
+		try {
+			IngestStatusDTO queued = ingestQueue.submit(emp);
+			if (queued == null) {
+				return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1")
+						.body("Ingestion queue is full");
+			}
+			return ResponseEntity.accepted().location(URI.create("/api/ingest/" + queued.getId()))
+					.header(PREFERENCE_APPLIED, RESPOND_ASYNC).body(queued);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	// View one employee; the ETag is its version, to be sent back as If-Match when moving it
+	@GetMapping("/employee/{empId}")
+	public ResponseEntity<?> getEmployee(@PathVariable Long empId) {
+		try {
+			Employee emp = orgService.getEmployee(empId);
+			return ResponseEntity.ok().eTag(versionTag(emp)).body(convertToDTO(emp));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	// Bulk import employees from a JSON array
+	@PostMapping(value = "/employees/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> bulkImportJson(InputStream body) {
 		try {
-			Employee savedEmp = orgService.addEmployee(emp);
-			return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedEmp));
+			return ResponseEntity.ok(importService.importJson(body));
+		} catch (IOException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Unreadable import: " + e.getMessage());
+		}
+	}
+
+	// Bulk import employees from CSV with a header line
+	@PostMapping(value = "/employees/bulk", consumes = "text/csv")
+	public ResponseEntity<?> bulkImportCsv(InputStream body) {
+		try {
+			return ResponseEntity.ok(importService.importCsv(body));
+		} catch (IOException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Unreadable import: " + e.getMessage());
+		}
+	}
+
+	// Search employees by name (word prefixes, tolerating typos) or by mobile number prefix
+	@GetMapping("/employees/search")
+	public ResponseEntity<?> searchEmployees(@RequestParam(required = false) String q,
+			@RequestParam(required = false) Long after, @RequestParam(required = false) Integer size) {
+		try {
+			return ResponseEntity.ok(orgService.searchEmployees(q, after, size));
 		} catch (IllegalArgumentException e) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-		} catch (Exception e) {
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-					.body("Unexpected error: " + e.getMessage());
 		}
 	}
 
 	//Get all designation
 	@GetMapping("/designation")
-	public ResponseEntity<?> getDesignations() {
+	public ResponseEntity<?> getDesignations(ServletWebRequest request) {
+		String etag = orgVersions.designationsTag();
+		if (notModified(request, etag, DESIGNATION_CACHE)) {
+			return null;
+		}
 		List<Designation> designationList = orgService.getDesignationList();
-		return ResponseEntity.status(HttpStatus.OK).body(designationList);
+		return ResponseEntity.status(HttpStatus.OK).eTag(etag).cacheControl(DESIGNATION_CACHE).body(designationList);
+	}
+
+	// Get designation with its parent chain up to CEO
+	@GetMapping("/designation/{designation}/chain")
+	public ResponseEntity<?> getDesignationChain(@PathVariable String designation, ServletWebRequest request) {
+		if (!OrgDesignations.isValidOrgDesignation(designation)) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid designation: " + designation);
+		}
+		String etag = orgVersions.designationsTag();
+		if (notModified(request, etag, DESIGNATION_CACHE)) {
+			return null;
+		}
+		List<Designation> chain = orgService.getDesignationChain(OrgDesignations.valueOf(designation.toUpperCase()));
+		return ResponseEntity.ok().eTag(etag).cacheControl(DESIGNATION_CACHE).body(chain);
+	}
+
+	// Reload designations after the designation table has been changed
+	@PostMapping("/designation/refresh")
+	public ResponseEntity<?> refreshDesignations() {
+		orgService.refreshDesignations();
+		return ResponseEntity.ok(orgService.getDesignationList());
 	}
 
 	// Move employee to another department
+	// With If-Match the move only happens if the employee still has that version (412 otherwise);
+	// without it a move that loses a race with another write to the employee gets 409
 	@PutMapping("/employee/{empId}/move/{departmentName}/{reportTo}")
-	public ResponseEntity<?> moveEmployee(@PathVariable Long empId, @PathVariable String departmentName,@PathVariable Long reportTo) {
+	public ResponseEntity<?> moveEmployee(@PathVariable Long empId, @PathVariable String departmentName,@PathVariable Long reportTo,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+	    Long expectedVersion = null;
+	    if (ifMatch != null && !ifMatch.trim().equals("*")) {
+	        expectedVersion = parseVersionTag(ifMatch);
+	        if (expectedVersion == null) {
+	            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("If-Match does not match the employee");
+	        }
+	    }
 	    try {
-	        Employee updatedEmp = orgService.moveEmployeeToDepartment(empId, departmentName, reportTo);
-	        return ResponseEntity.ok(convertToDTO(updatedEmp));
+	        Employee updatedEmp = orgService.moveEmployeeToDepartment(empId, departmentName, reportTo, expectedVersion);
+	        return ResponseEntity.ok().eTag(versionTag(updatedEmp)).body(convertToDTO(updatedEmp));
 	    } catch (IllegalArgumentException e) {
 	        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+	    } catch (OptimisticLockingFailureException e) {
+	        if (ifMatch != null) {
+	            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("If-Match does not match the employee");
+	        }
+	        return ResponseEntity.status(HttpStatus.CONFLICT).body("Employee was changed by another request, retry");
 	    }
 	}
 
+	// Apply a batch of moves, optionally with whole subtrees; nothing is changed if any move is invalid
+	@PostMapping("/reorg")
+	public ResponseEntity<ReorgResult> reorg(@RequestBody List<ReorgMove> moves) {
+	    ReorgResult result = reorgService.reorg(moves);
+	    return ResponseEntity.status(result.isApplied() ? HttpStatus.OK : HttpStatus.BAD_REQUEST).body(result);
+	}
+
 	// View employees of a department
+	// Without paging parameters the whole department is returned as before;
+	// with "after" and/or "size" a keyset page and its next cursor are returned
 	@GetMapping("/department/{departmentName}/employees")
-	public ResponseEntity<?> getEmployeesOfDepartment(@PathVariable String departmentName) {
+	public ResponseEntity<?> getEmployeesOfDepartment(@PathVariable String departmentName,
+			@RequestParam(required = false) Long after, @RequestParam(required = false) Integer size,
+			ServletWebRequest request) {
+	    String etag = orgVersions.departmentTag(departmentName);
+	    if (notModified(request, etag, LISTING_CACHE)) {
+	        return null;
+	    }
+	    try {
+	        if (after != null || size != null) {
+	            return cachedListing(etag, orgService.getEmployeePageByDepartment(departmentName, after, size));
+	        }
+	        return cachedListing(etag, orgService.getEmployeesByDepartment(departmentName));
+	    } catch (IllegalArgumentException e) {
+	        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+	    }
+	}
+
+	// Stream employees of a department as newline-delimited JSON
+	@GetMapping(value = "/department/{departmentName}/employees", produces = NDJSON)
+	public ResponseEntity<StreamingResponseBody> streamEmployeesOfDepartment(@PathVariable String departmentName) {
+	    if (!orgService.departmentExists(departmentName)) {
+	        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.TEXT_PLAIN)
+	                .body(out -> out.write("Department not found".getBytes(StandardCharsets.UTF_8)));
+	    }
+	    StreamingResponseBody body = out -> {
+	        ObjectWriter writer = objectMapper.writerFor(EmployeeDTO.class);
+	        orgService.forEachEmployeeInDepartment(departmentName, dto -> {
+	            try {
+	                out.write(writer.writeValueAsBytes(dto));
+	                out.write('\n');
+	            } catch (IOException e) {
+	                throw new UncheckedIOException(e);
+	            }
+	        });
+	        out.flush();
+	    };
+	    return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+	}
+
+	// View everyone under an employee, optionally limited to a number of levels
+	@GetMapping("/employee/{empId}/subtree")
+	public ResponseEntity<?> getSubtree(@PathVariable Long empId, @RequestParam(required = false) Integer depth) {
+	    try {
+	        return ResponseEntity.ok(orgService.getSubtree(empId, depth));
+	    } catch (IllegalArgumentException e) {
+	        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+	    }
+	}
+
+	// View the reporting line from an employee up to the CEO
+	@GetMapping("/employee/{empId}/chain")
+	public ResponseEntity<?> getReportingChain(@PathVariable Long empId) {
 	    try {
-	        List<Employee> employees = orgService.getEmployeesByDepartment(departmentName);
-	        return ResponseEntity.ok(employees.stream()
-	                .map(this::convertToDTO)
-	                .toList());
+	        return ResponseEntity.ok(orgService.getReportingChain(empId));
 	    } catch (IllegalArgumentException e) {
 	        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
 	    }
@@ -85,16 +299,56 @@ public class OrgController {
 
 	// View employees reporting to a manager
 	@GetMapping("/manager/{managerId}/employees")
-	public ResponseEntity<?> getEmployeesReportingToManager(@PathVariable Long managerId) {
+	public ResponseEntity<?> getEmployeesReportingToManager(@PathVariable Long managerId, ServletWebRequest request) {
+	    // Tagged with the org-wide version: which department the manager is in is not known without a query
+	    String etag = orgVersions.orgTag();
+	    if (notModified(request, etag, LISTING_CACHE)) {
+	        return null;
+	    }
 	    try {
-	        List<Employee> employees = orgService.getEmployeesReportingToManager(managerId);
-	        return ResponseEntity.ok(employees.stream()
-	                .map(this::convertToDTO)
-	                .toList());
+	        return cachedListing(etag, orgService.getEmployeesReportingToManager(managerId));
 	    } catch (IllegalArgumentException e) {
 	        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
 	    }
 	}
+
+	// ---------------- Conditional GET ----------------
+
+	// True (with a 304 already set) when the client's copy matches the tag, so neither the database nor
+	// Jackson is touched. The tag must be taken before the data is read, see OrgVersions.
+	private static boolean notModified(ServletWebRequest request, String etag, CacheControl cacheControl) {
+	    if (etag == null || !request.checkNotModified(etag)) {
+	        return false;
+	    }
+	    request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+	    return true;
+	}
+
+	// The listings are also served as CBOR (see CborConfig) and share their URL with the NDJSON stream,
+	// so caches must key on Accept too
+	private static ResponseEntity<?> cachedListing(String etag, Object body) {
+	    return ResponseEntity.ok().eTag(etag).cacheControl(LISTING_CACHE).varyBy(HttpHeaders.ACCEPT).body(body);
+	}
+
+	// ---------------- Employee versions ----------------
+
+	private static String versionTag(Employee emp) {
+	    return "\"" + emp.getVersion() + "\"";
+	}
+
+	// The version in a strong "<version>" tag; null for anything else, which can never match
+	private static Long parseVersionTag(String ifMatch) {
+	    String tag = ifMatch.trim();
+	    if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+	        return null;
+	    }
+	    try {
+	        return Long.valueOf(tag.substring(1, tag.length() - 1));
+	    } catch (NumberFormatException e) {
+	        return null;
+	    }
+	}
+
 	public EmployeeDTO convertToDTO(Employee emp) {
 	    EmployeeDTO dto = new EmployeeDTO();
 	    dto.setId(emp.getId());
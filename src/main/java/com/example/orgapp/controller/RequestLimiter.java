@@ -0,0 +1,261 @@
+package com.example.orgapp.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rate limits and concurrency bulkheads in front of every controller under
+ * {@code /api}, so one client flooding the listings cannot take the request
+ * threads and connections that writes need. Requests are split into reads,
+ * writes and bulk operations (imports, reorgs, exports and analytics
+ * rebuilds), each with its own {@link Limit}:
+ * <ul>
+ * <li>a token bucket per client, refilled at {@code rate} per second up to
+ * {@code burst} requests;</li>
+ * <li>at most {@code client-concurrency} requests of the class in progress
+ * per client;</li>
+ * <li>at most {@code concurrency} in progress over all clients.</li>
+ * </ul>
+ * The bulkheads are checked first and the bucket last, so a request turned
+ * away by a bulkhead does not use up the client's rate. The bucket answers
+ * 429, as does the client bulkhead, the shared one 503, all with Retry-After.
+ * A client is the {@value #CLIENT_HEADER} header, or the remote address
+ * without one.
+ * <p>
+ * Everything is kept in memory: a bucket is a single CAS on the time it will
+ * be full again (GCRA), the shared bulkheads are atomic counters, and the
+ * per-client state lives in a bounded cache. A permit is held until the
+ * response is complete, streamed, async and long-polled responses included;
+ * while a client holds one its state is neither expired nor evicted, so the
+ * count its bulkhead checks is never lost.
+ */
+public class RequestLimiter implements AsyncHandlerInterceptor {
+
+	static final String CLIENT_HEADER = "X-Client-Id";
+	static final String REJECTIONS = "org.limits.rejections";
+	static final String IN_FLIGHT = "org.limits.in.flight";
+
+	// Method and mapping pattern, so path variables do not matter
+	private static final Set<String> BULK_PATTERNS = Set.of("POST /api/employees/bulk", "POST /api/reorg",
+			"POST /api/export", "POST /api/analytics/rebuild");
+	private static final String PERMIT = RequestLimiter.class.getName() + ".permit";
+
+	public enum EndpointClass {
+		READ, WRITE, BULK;
+
+		public String key() {
+			return name().toLowerCase();
+		}
+	}
+
+	// rate and burst are per client; clientConcurrency per client, concurrency over all clients
+	public record Limit(double rate, int burst, int clientConcurrency, int concurrency) {
+	}
+
+	private final Map<EndpointClass, Limit> limits;
+	private final MeterRegistry registry;
+	private final Cache<String, ClientState> clients;
+	private final Map<EndpointClass, AtomicInteger> inFlight = new EnumMap<>(EndpointClass.class);
+
+	public RequestLimiter(Map<EndpointClass, Limit> limits, MeterRegistry registry, long maxClients,
+			Duration clientIdle) {
+		this.limits = new EnumMap<>(limits);
+		this.registry = registry;
+		// Idle clients expire and the least used are evicted beyond maxClients, but only without
+		// requests in progress: those weigh nothing and do not expire until the last permit is back
+		long idleNanos = clientIdle.toNanos();
+		this.clients = Caffeine.newBuilder()
+				.maximumWeight(maxClients)
+				.<String, ClientState>weigher((key, client) -> client.inFlight > 0 ? 0 : 1)
+				.expireAfter(new Expiry<String, ClientState>() {
+					@Override
+					public long expireAfterCreate(String key, ClientState client, long currentTime) {
+						return client.inFlight > 0 ? Long.MAX_VALUE : idleNanos;
+					}
+
+					@Override
+					public long expireAfterUpdate(String key, ClientState client, long currentTime,
+							long currentDuration) {
+						return client.inFlight > 0 ? Long.MAX_VALUE : idleNanos;
+					}
+
+					@Override
+					public long expireAfterRead(String key, ClientState client, long currentTime,
+							long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.build();
+		for (EndpointClass c : EndpointClass.values()) {
+			AtomicInteger count = new AtomicInteger();
+			inFlight.put(c, count);
+			Gauge.builder(IN_FLIGHT, count, AtomicInteger::get).tag("class", c.key())
+					.description("API requests in progress").register(registry);
+		}
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+			throws IOException {
+		// The async dispatch of a request that already holds its permit
+		if (request.getAttribute(PERMIT) != null) {
+			return true;
+		}
+		// Controllers only; the interceptor is mapped to /api/**, see RequestLimitConfig
+		if (!(handler instanceof HandlerMethod)) {
+			return true;
+		}
+		EndpointClass endpointClass = classify(request);
+		Limit limit = limits.get(endpointClass);
+		String key = endpointClass.key() + " " + clientOf(request);
+
+		ClientState client = acquireClient(key, limit.clientConcurrency());
+		if (client == null) {
+			return reject(response, endpointClass, "client-concurrency", HttpStatus.TOO_MANY_REQUESTS, 0,
+					"Too many requests in progress, retry later");
+		}
+		Permit permit = new Permit(endpointClass, key, client);
+		if (!tryAcquire(inFlight.get(endpointClass), limit.concurrency())) {
+			releaseClient(permit);
+			return reject(response, endpointClass, "concurrency", HttpStatus.SERVICE_UNAVAILABLE, 0,
+					"Server busy, retry later");
+		}
+		long wait = client.take(limit, System.nanoTime());
+		if (wait > 0) {
+			release(permit);
+			return reject(response, endpointClass, "rate", HttpStatus.TOO_MANY_REQUESTS, wait,
+					"Too many requests, retry later");
+		}
+		request.setAttribute(PERMIT, permit);
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		if (request.getAttribute(PERMIT) instanceof Permit permit) {
+			request.removeAttribute(PERMIT);
+			release(permit);
+		}
+	}
+
+	// The client's state with one more request in progress, or null when it is at its limit.
+	// The count only changes inside compute, so the cache weighs and expires it by the new value
+	private ClientState acquireClient(String key, int max) {
+		ClientState[] acquired = new ClientState[1];
+		clients.asMap().compute(key, (k, client) -> {
+			ClientState state = client == null ? new ClientState(System.nanoTime()) : client;
+			if (state.inFlight < max) {
+				state.inFlight++;
+				acquired[0] = state;
+			}
+			return state;
+		});
+		return acquired[0];
+	}
+
+	// Through the state the permit was taken from, which stays cached while it is held
+	private void releaseClient(Permit permit) {
+		clients.asMap().compute(permit.key, (k, client) -> {
+			permit.client.inFlight--;
+			return client;
+		});
+	}
+
+	private void release(Permit permit) {
+		releaseClient(permit);
+		inFlight.get(permit.endpointClass).decrementAndGet();
+	}
+
+	private static EndpointClass classify(HttpServletRequest request) {
+		String method = request.getMethod();
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		if (pattern != null && BULK_PATTERNS.contains(method + " " + pattern)) {
+			return EndpointClass.BULK;
+		}
+		return method.equals("GET") || method.equals("HEAD") ? EndpointClass.READ : EndpointClass.WRITE;
+	}
+
+	private static String clientOf(HttpServletRequest request) {
+		String id = request.getHeader(CLIENT_HEADER);
+		return id == null || id.isBlank() ? request.getRemoteAddr() : id.trim();
+	}
+
+	private static boolean tryAcquire(AtomicInteger count, int max) {
+		int current;
+		do {
+			current = count.get();
+			if (current >= max) {
+				return false;
+			}
+		} while (!count.compareAndSet(current, current + 1));
+		return true;
+	}
+
+	private boolean reject(HttpServletResponse response, EndpointClass endpointClass, String reason,
+			HttpStatus status, long waitNanos, String message) throws IOException {
+		registry.counter(REJECTIONS, "class", endpointClass.key(), "reason", reason).increment();
+		// Whole seconds, rounded up; a freed bulkhead slot is worth retrying after one
+		long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+		response.setStatus(status.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+		response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+		response.getOutputStream().write(message.getBytes(StandardCharsets.UTF_8));
+		return false;
+	}
+
+	private record Permit(EndpointClass endpointClass, String key, ClientState client) {
+	}
+
+	private static final class ClientState {
+
+		// When the bucket will be full again, in System.nanoTime(); a full bucket has it in the past
+		private final AtomicLong fullAt;
+		// Requests in progress; only read and written inside compute on the clients cache
+		private int inFlight;
+
+		ClientState(long now) {
+			this.fullAt = new AtomicLong(now);
+		}
+
+		// 0 when a token was taken, otherwise the nanoseconds until one is available
+		long take(Limit limit, long now) {
+			long interval = (long) (TimeUnit.SECONDS.toNanos(1) / limit.rate());
+			long capacity = interval * limit.burst();
+			while (true) {
+				long full = fullAt.get();
+				long next = Math.max(full - now, 0) + interval;
+				if (next > capacity) {
+					return next - capacity;
+				}
+				if (fullAt.compareAndSet(full, now + next)) {
+					return 0;
+				}
+			}
+		}
+	}
+
+}
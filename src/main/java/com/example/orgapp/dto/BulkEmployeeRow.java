@@ -0,0 +1,29 @@
+package com.example.orgapp.dto;
+
+public class BulkEmployeeRow {
+    private String name;
+    private String mobileNumber;
+    private String designation;     // designation name
+    private String department;      // department name
+    private Long reportTo;          // id of an existing employee
+    private String reportToMobile;  // mobile number of an employee earlier in the batch or in DB
+
+    // ===== Getters & Setters =====
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getMobileNumber() { return mobileNumber; }
+    public void setMobileNumber(String mobileNumber) { this.mobileNumber = mobileNumber; }
+
+    public String getDesignation() { return designation; }
+    public void setDesignation(String designation) { this.designation = designation; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public Long getReportTo() { return reportTo; }
+    public void setReportTo(Long reportTo) { this.reportTo = reportTo; }
+
+    public String getReportToMobile() { return reportToMobile; }
+    public void setReportToMobile(String reportToMobile) { this.reportToMobile = reportToMobile; }
+}
@@ -0,0 +1,53 @@
+package com.example.orgapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkImportResult {
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addError(int row, String mobileNumber, String message) {
+        errors.add(new RowError(row, mobileNumber, message));
+        failed++;
+    }
+
+    // ===== Getters & Setters =====
+    public int getTotalRows() { return totalRows; }
+    public void setTotalRows(int totalRows) { this.totalRows = totalRows; }
+
+    public int getImported() { return imported; }
+    public void setImported(int imported) { this.imported = imported; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+
+    public static class RowError {
+        private int row;             // 1-based position in the uploaded batch
+        private String mobileNumber;
+        private String message;
+
+        public RowError(int row, String mobileNumber, String message) {
+            this.row = row;
+            this.mobileNumber = mobileNumber;
+            this.message = message;
+        }
+
+        public int getRow() { return row; }
+        public String getMobileNumber() { return mobileNumber; }
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.orgapp.dto;
+
+import java.time.Instant;
+
+import com.example.orgapp.enums.ChangeType;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+public class ChangeDTO {
+    private long offset;
+    private ChangeType type;
+    @JsonRawValue
+    private String payload;         // state after the change: an EmployeeDTO or {id, departmentName}
+    private Instant createdAt;
+
+    public ChangeDTO(long offset, ChangeType type, String payload, Instant createdAt) {
+        this.offset = offset;
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    // ===== Getters & Setters =====
+    public long getOffset() { return offset; }
+    public void setOffset(long offset) { this.offset = offset; }
+
+    public ChangeType getType() { return type; }
+    public void setType(ChangeType type) { this.type = type; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
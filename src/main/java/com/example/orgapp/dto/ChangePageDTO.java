@@ -0,0 +1,20 @@
+package com.example.orgapp.dto;
+
+import java.util.List;
+
+public class ChangePageDTO {
+    private List<ChangeDTO> changes;
+    private long nextOffset;        // pass as "since" for the next poll
+
+    public ChangePageDTO(List<ChangeDTO> changes, long nextOffset) {
+        this.changes = changes;
+        this.nextOffset = nextOffset;
+    }
+
+    // ===== Getters & Setters =====
+    public List<ChangeDTO> getChanges() { return changes; }
+    public void setChanges(List<ChangeDTO> changes) { this.changes = changes; }
+
+    public long getNextOffset() { return nextOffset; }
+    public void setNextOffset(long nextOffset) { this.nextOffset = nextOffset; }
+}
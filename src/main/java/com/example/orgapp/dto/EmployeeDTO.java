@@ -1,5 +1,7 @@
 package com.example.orgapp.dto;
 
+import com.example.orgapp.enums.OrgDesignations;
+
 public class EmployeeDTO {
     private Long id;
     private String name;
@@ -8,6 +10,20 @@ public class EmployeeDTO {
     private String designation;  // designation name
     private Long reportTo;       // only manager ID
 
+    public EmployeeDTO() {
+    }
+
+    // Used by JPQL constructor projections in EmployeeRepository
+    public EmployeeDTO(Long id, String name, String mobileNumber, String department,
+            OrgDesignations designation, Long reportTo) {
+        this.id = id;
+        this.name = name;
+        this.mobileNumber = mobileNumber;
+        this.department = department;
+        this.designation = designation == null ? null : designation.toString();
+        this.reportTo = reportTo;
+    }
+
     // ===== Getters & Setters =====
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
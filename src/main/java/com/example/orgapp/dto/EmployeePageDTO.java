@@ -0,0 +1,20 @@
+package com.example.orgapp.dto;
+
+import java.util.List;
+
+public class EmployeePageDTO {
+    private List<EmployeeDTO> employees;
+    private Long nextCursor;     // pass as "after" to fetch the next page, null on the last page
+
+    public EmployeePageDTO(List<EmployeeDTO> employees, Long nextCursor) {
+        this.employees = employees;
+        this.nextCursor = nextCursor;
+    }
+
+    // ===== Getters & Setters =====
+    public List<EmployeeDTO> getEmployees() { return employees; }
+    public void setEmployees(List<EmployeeDTO> employees) { this.employees = employees; }
+
+    public Long getNextCursor() { return nextCursor; }
+    public void setNextCursor(Long nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,35 @@
+package com.example.orgapp.dto;
+
+import java.time.Instant;
+
+public class ExportDTO {
+    private String file;            // name of the gzipped CSV in the export directory
+    private long employees;
+    private long bytes;             // compressed size on disk
+    private Instant createdAt;
+    private long durationMs;
+
+    public ExportDTO(String file, long employees, long bytes, Instant createdAt, long durationMs) {
+        this.file = file;
+        this.employees = employees;
+        this.bytes = bytes;
+        this.createdAt = createdAt;
+        this.durationMs = durationMs;
+    }
+
+    // ===== Getters & Setters =====
+    public String getFile() { return file; }
+    public void setFile(String file) { this.file = file; }
+
+    public long getEmployees() { return employees; }
+    public void setEmployees(long employees) { this.employees = employees; }
+
+    public long getBytes() { return bytes; }
+    public void setBytes(long bytes) { this.bytes = bytes; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+}
@@ -0,0 +1,32 @@
+package com.example.orgapp.dto;
+
+import java.util.Map;
+
+import com.example.orgapp.enums.OrgDesignations;
+
+public class HeadcountDTO {
+    private String department;                        // null for the CEO, who has no department
+    private long total;
+    private int maxDepth;                             // deepest level below the CEO, which is level 0
+    private Map<OrgDesignations, Long> byDesignation;
+
+    public HeadcountDTO(String department, long total, int maxDepth, Map<OrgDesignations, Long> byDesignation) {
+        this.department = department;
+        this.total = total;
+        this.maxDepth = maxDepth;
+        this.byDesignation = byDesignation;
+    }
+
+    // ===== Getters & Setters =====
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public int getMaxDepth() { return maxDepth; }
+    public void setMaxDepth(int maxDepth) { this.maxDepth = maxDepth; }
+
+    public Map<OrgDesignations, Long> getByDesignation() { return byDesignation; }
+    public void setByDesignation(Map<OrgDesignations, Long> byDesignation) { this.byDesignation = byDesignation; }
+}
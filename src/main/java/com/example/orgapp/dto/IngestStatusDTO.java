@@ -0,0 +1,43 @@
+package com.example.orgapp.dto;
+
+import java.time.Instant;
+
+import com.example.orgapp.enums.IngestState;
+
+public class IngestStatusDTO {
+    private String id;              // tracking id returned when the request was accepted
+    private IngestState state;
+    private Long employeeId;        // set once imported
+    private String error;           // set when the import rejected the employee
+    private Instant acceptedAt;
+    private Instant completedAt;
+
+    public IngestStatusDTO(String id, IngestState state, Long employeeId, String error, Instant acceptedAt,
+            Instant completedAt) {
+        this.id = id;
+        this.state = state;
+        this.employeeId = employeeId;
+        this.error = error;
+        this.acceptedAt = acceptedAt;
+        this.completedAt = completedAt;
+    }
+
+    // ===== Getters & Setters =====
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public IngestState getState() { return state; }
+    public void setState(IngestState state) { this.state = state; }
+
+    public Long getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Long employeeId) { this.employeeId = employeeId; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public Instant getAcceptedAt() { return acceptedAt; }
+    public void setAcceptedAt(Instant acceptedAt) { this.acceptedAt = acceptedAt; }
+
+    public Instant getCompletedAt() { return completedAt; }
+    public void setCompletedAt(Instant completedAt) { this.completedAt = completedAt; }
+}
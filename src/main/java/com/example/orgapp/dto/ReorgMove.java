@@ -0,0 +1,21 @@
+package com.example.orgapp.dto;
+
+public class ReorgMove {
+    private Long employeeId;
+    private String department;      // target department name
+    private Long reportTo;          // id of the new manager
+    private boolean withSubtree;    // carry everyone below the employee into the department as well
+
+    // ===== Getters & Setters =====
+    public Long getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Long employeeId) { this.employeeId = employeeId; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public Long getReportTo() { return reportTo; }
+    public void setReportTo(Long reportTo) { this.reportTo = reportTo; }
+
+    public boolean isWithSubtree() { return withSubtree; }
+    public void setWithSubtree(boolean withSubtree) { this.withSubtree = withSubtree; }
+}
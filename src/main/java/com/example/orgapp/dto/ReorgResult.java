@@ -0,0 +1,52 @@
+package com.example.orgapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReorgResult {
+    private int moves;
+    private boolean applied;        // false when any move was rejected; nothing is changed then
+    private int rowsTouched;
+    private int statements;         // UPDATE statements issued
+    private long elapsedMillis;
+    private List<MoveError> errors = new ArrayList<>();
+
+    public void addError(int move, Long employeeId, String message) {
+        errors.add(new MoveError(move, employeeId, message));
+    }
+
+    // ===== Getters & Setters =====
+    public int getMoves() { return moves; }
+    public void setMoves(int moves) { this.moves = moves; }
+
+    public boolean isApplied() { return applied; }
+    public void setApplied(boolean applied) { this.applied = applied; }
+
+    public int getRowsTouched() { return rowsTouched; }
+    public void setRowsTouched(int rowsTouched) { this.rowsTouched = rowsTouched; }
+
+    public int getStatements() { return statements; }
+    public void setStatements(int statements) { this.statements = statements; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public List<MoveError> getErrors() { return errors; }
+    public void setErrors(List<MoveError> errors) { this.errors = errors; }
+
+    public static class MoveError {
+        private int move;            // 1-based position in the submitted moves, 0 for the batch as a whole
+        private Long employeeId;
+        private String message;
+
+        public MoveError(int move, Long employeeId, String message) {
+            this.move = move;
+            this.employeeId = employeeId;
+            this.message = message;
+        }
+
+        public int getMove() { return move; }
+        public Long getEmployeeId() { return employeeId; }
+        public String getMessage() { return message; }
+    }
+}
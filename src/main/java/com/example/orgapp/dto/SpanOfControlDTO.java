@@ -0,0 +1,33 @@
+package com.example.orgapp.dto;
+
+public class SpanOfControlDTO {
+    private String department;      // department of the managers; null for the CEO
+    private int managers;           // CEO, department heads and managers, including those without reports
+    private long directReports;
+    private double averageSpan;
+    private int maxSpan;
+
+    public SpanOfControlDTO(String department, int managers, long directReports, double averageSpan, int maxSpan) {
+        this.department = department;
+        this.managers = managers;
+        this.directReports = directReports;
+        this.averageSpan = averageSpan;
+        this.maxSpan = maxSpan;
+    }
+
+    // ===== Getters & Setters =====
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public int getManagers() { return managers; }
+    public void setManagers(int managers) { this.managers = managers; }
+
+    public long getDirectReports() { return directReports; }
+    public void setDirectReports(long directReports) { this.directReports = directReports; }
+
+    public double getAverageSpan() { return averageSpan; }
+    public void setAverageSpan(double averageSpan) { this.averageSpan = averageSpan; }
+
+    public int getMaxSpan() { return maxSpan; }
+    public void setMaxSpan(int maxSpan) { this.maxSpan = maxSpan; }
+}
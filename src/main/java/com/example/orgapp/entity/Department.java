@@ -1,6 +1,7 @@
 package com.example.orgapp.entity;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 
 import jakarta.persistence.Column;
@@ -8,18 +9,29 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 @Entity
+@Table(name = "department", uniqueConstraints = @UniqueConstraint(name = Department.NAME_CONSTRAINT, columnNames = "name"))
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class Department {
 
+	public static final String NAME_CONSTRAINT = "uk_department_name";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 
-	@Column(name = "name")
+	@Column(name = "name", nullable = false)
 	private String departmentName;
 
+	@JsonIgnore
+	@Version
+	@Column(name = "version")
+	private Long version;
+
 	public Long getId() {
 		return id;
 	}
@@ -36,4 +48,12 @@ public class Department {
 		this.departmentName = departmentName;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 }
@@ -1,35 +1,80 @@
 package com.example.orgapp.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 @Entity
+@Table(name = "employee",
+		uniqueConstraints = {
+				@UniqueConstraint(name = Employee.MOBILE_NUMBER_CONSTRAINT, columnNames = "mobile_number"),
+				@UniqueConstraint(name = Employee.UNIQUE_ROLE_CONSTRAINT, columnNames = "unique_role") },
+		indexes = {
+				@Index(name = "idx_employee_designation_department", columnList = "designation_id, department_id"),
+				@Index(name = "idx_employee_department", columnList = "department_id, id"),
+				@Index(name = "idx_employee_report_to", columnList = "report_to, department_id"),
+				@Index(name = "idx_employee_manager_path", columnList = "manager_path") })
 public class Employee {
 
+	public static final String MOBILE_NUMBER_CONSTRAINT = "uk_employee_mobile_number";
+	public static final String UNIQUE_ROLE_CONSTRAINT = "uk_employee_unique_role";
+
+	// Pooled sequence ids keep JDBC insert batching enabled (IDENTITY disables it)
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+	@SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
 	private Long id;
 
 	private String name;
 
+	@Column(name = "mobile_number", nullable = false)
 	private String mobileNumber;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "department_id")
 	private Department department;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "designation_id")
 	private Designation designation;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "report_to")
 	private Employee reportTo;
 
+	// Ids of all managers from CEO down to reportTo, e.g. "/1/4/9/" (maintained by OrgService)
+	@JsonIgnore
+	@Column(name = "manager_path")
+	private String managerPath;
+
+	// Number of managers above this employee, 0 for the CEO
+	@JsonIgnore
+	@Column(name = "depth")
+	private Integer depth;
+
+	// Set only for roles with a single holder ("CEO", "DEPT_HEAD:<departmentId>"), see OrgService
+	@JsonIgnore
+	@Column(name = "unique_role")
+	private String uniqueRole;
+
+	// Optimistic lock; sent to clients as the ETag of a single employee, see OrgController
+	@JsonIgnore
+	@Version
+	@Column(name = "version")
+	private Long version;
+
 	public Long getId() {
 		return id;
 	}
@@ -77,5 +122,37 @@ public class Employee {
 	public void setReportTo(Employee reportTo) {
 		this.reportTo = reportTo;
 	}
+
+	public String getManagerPath() {
+		return managerPath;
+	}
+
+	public void setManagerPath(String managerPath) {
+		this.managerPath = managerPath;
+	}
+
+	public Integer getDepth() {
+		return depth;
+	}
+
+	public void setDepth(Integer depth) {
+		this.depth = depth;
+	}
+
+	public String getUniqueRole() {
+		return uniqueRole;
+	}
+
+	public void setUniqueRole(String uniqueRole) {
+		this.uniqueRole = uniqueRole;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 }
 
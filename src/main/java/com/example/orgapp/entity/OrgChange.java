@@ -0,0 +1,80 @@
+package com.example.orgapp.entity;
+
+import java.time.Instant;
+
+import com.example.orgapp.enums.ChangeType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Outbox row; the offset is taken by OrgChangeFeed from org_change_offset_seq before the insert
+@Entity
+@Table(name = "org_change", indexes = {
+		@Index(name = "idx_org_change_entity_key", columnList = "entity_key, change_offset"),
+		@Index(name = "idx_org_change_created_at", columnList = "created_at") })
+public class OrgChange {
+
+	@Id
+	@Column(name = "change_offset")
+	private Long offset;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "change_type", nullable = false)
+	private ChangeType changeType;
+
+	@Column(name = "entity_key", nullable = false)
+	private String entityKey;
+
+	// JSON state of the entity after the change
+	@Column(name = "payload", nullable = false, length = 4000)
+	private String payload;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+
+	public Long getOffset() {
+		return offset;
+	}
+
+	public void setOffset(Long offset) {
+		this.offset = offset;
+	}
+
+	public ChangeType getChangeType() {
+		return changeType;
+	}
+
+	public void setChangeType(ChangeType changeType) {
+		this.changeType = changeType;
+	}
+
+	public String getEntityKey() {
+		return entityKey;
+	}
+
+	public void setEntityKey(String entityKey) {
+		this.entityKey = entityKey;
+	}
+
+	public String getPayload() {
+		return payload;
+	}
+
+	public void setPayload(String payload) {
+		this.payload = payload;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Instant createdAt) {
+		this.createdAt = createdAt;
+	}
+
+}
@@ -0,0 +1,7 @@
+package com.example.orgapp.enums;
+
+public enum ChangeType {
+	EMPLOYEE_ADDED,
+	EMPLOYEE_MOVED,
+	DEPARTMENT_ADDED
+}
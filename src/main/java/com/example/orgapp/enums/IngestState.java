@@ -0,0 +1,7 @@
+package com.example.orgapp.enums;
+
+public enum IngestState {
+	QUEUED,
+	IMPORTED,
+	FAILED
+}
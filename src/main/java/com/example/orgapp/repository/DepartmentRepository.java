@@ -2,11 +2,16 @@ package com.example.orgapp.repository;
 
 import java.util.Optional;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import com.example.orgapp.config.CacheConfig;
 import com.example.orgapp.entity.Department;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
 
+	// Cached when found (a miss is not: the department may be added or replicated any moment);
+	// evicted by OrgService.addDepartment and expired after org.cache.departments.ttl
+	@Cacheable(cacheNames = CacheConfig.DEPARTMENTS_BY_NAME, unless = "#result == null")
 	Optional<Department> findByDepartmentName(String name);
 }
@@ -1,17 +1,51 @@
 package com.example.orgapp.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.example.orgapp.dto.EmployeeDTO;
+import com.example.orgapp.entity.Department;
 import com.example.orgapp.entity.Employee;
 import com.example.orgapp.enums.OrgDesignations;
 
+import jakarta.persistence.QueryHint;
+
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
+	String EMPLOYEE_DTO_SELECT = "select new com.example.orgapp.dto.EmployeeDTO(e.id, e.name, e.mobileNumber, "
+			+ "d.departmentName, g.orgDesignations, r.id) from Employee e left join e.department d "
+			+ "left join e.designation g left join e.reportTo r ";
+
 	boolean existsByMobileNumber(String mobileNumber);
 
+	@Query("select e.mobileNumber from Employee e where e.mobileNumber in :mobileNumbers")
+	Set<String> findExistingMobileNumbers(@Param("mobileNumbers") Collection<String> mobileNumbers);
+
+	@Query("select e.uniqueRole from Employee e where e.uniqueRole in :uniqueRoles")
+	Set<String> findTakenUniqueRoles(@Param("uniqueRoles") Collection<String> uniqueRoles);
+
+	@EntityGraph(attributePaths = "designation")
+	List<Employee> findByMobileNumberIn(Collection<String> mobileNumbers);
+
+	@EntityGraph(attributePaths = "designation")
+	List<Employee> findByIdIn(Collection<Long> ids);
+
+	// Write paths inspect the designation and department of the loaded employee
+	@EntityGraph(attributePaths = { "designation", "department" })
+	Optional<Employee> findWithDesignationById(Long id);
+
 	boolean existsByDesignation_OrgDesignations(OrgDesignations designation);
 
 	boolean existsByDesignation_OrgDesignationsAndDepartment_Id(OrgDesignations designation, Long deptId);
@@ -22,6 +56,7 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
 	List<Employee> findByReportTo_Id(Long managerId);
 
+	@EntityGraph(attributePaths = "designation")
 	Optional<Employee> findByIdAndDepartment_DepartmentName(Long id, String departmentName);
 
 	List<Employee> findByReportTo_IdAndDepartment_Id(Long reportToId, Long departmentId);
@@ -30,4 +65,164 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
 	List<Employee> findByDepartment_DepartmentNameAndDesignation_OrgDesignations(String departmentName, OrgDesignations designation);
 
+	List<Employee> findByDesignation_OrgDesignationsAndDepartment_IdIn(OrgDesignations designation,
+			Collection<Long> deptIds);
+
+	// Managers among the given ids that still have a direct report outside the given set
+	@Query("select distinct e.reportTo.id from Employee e where e.reportTo.id in :managerIds and e.id not in :employeeIds")
+	List<Long> findManagersWithReportsOutside(@Param("managerIds") Collection<Long> managerIds,
+			@Param("employeeIds") Collection<Long> employeeIds);
+
+	@Query(EMPLOYEE_DTO_SELECT + "where d.departmentName = :departmentName order by e.id")
+	List<EmployeeDTO> findDtoByDepartmentName(@Param("departmentName") String departmentName);
+
+	@Query(EMPLOYEE_DTO_SELECT + "where r.id = :reportToId and d.id = :departmentId order by e.id")
+	List<EmployeeDTO> findDtoByReportToIdAndDepartmentId(@Param("reportToId") Long reportToId,
+			@Param("departmentId") Long departmentId);
+
+	// Everyone whose manager path lies under the given prefix, nearest levels first
+	@Query(EMPLOYEE_DTO_SELECT + "where e.managerPath like concat(:pathPrefix, '%') and e.depth <= :maxDepth "
+			+ "order by e.depth, e.id")
+	List<EmployeeDTO> findDtoSubtree(@Param("pathPrefix") String pathPrefix, @Param("maxDepth") int maxDepth);
+
+	@Query(EMPLOYEE_DTO_SELECT + "where e.id in :ids")
+	List<EmployeeDTO> findDtoByIdIn(@Param("ids") Collection<Long> ids);
+
+	// Bulk updates below are "versioned" so they bump the optimistic lock version of every row they touch,
+	// which makes a concurrent single-employee write based on the old row fail instead of overwriting them
+
+	// Re-root a whole subtree after its top employee got a new manager
+	@Modifying
+	@Query("update versioned Employee e set e.managerPath = concat(:newPrefix, substring(e.managerPath, length(:oldPrefix) + 1)), "
+			+ "e.depth = e.depth + :depthDelta where e.managerPath like concat(:oldPrefix, '%')")
+	int rebaseSubtree(@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix,
+			@Param("depthDelta") int depthDelta);
+
+	// Re-root a whole subtree and carry it into the department of its top employee
+	@Modifying
+	@Query("update versioned Employee e set e.department = :department, "
+			+ "e.managerPath = concat(:newPrefix, substring(e.managerPath, length(:oldPrefix) + 1)), "
+			+ "e.depth = e.depth + :depthDelta where e.managerPath like concat(:oldPrefix, '%')")
+	int rebaseSubtreeIntoDepartment(@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix,
+			@Param("depthDelta") int depthDelta, @Param("department") Department department);
+
+	// Place employees that share a new manager, department and role key in one statement
+	@Modifying
+	@Query("update versioned Employee e set e.reportTo = :manager, e.department = :department, e.managerPath = :managerPath, "
+			+ "e.depth = :depth, e.uniqueRole = :uniqueRole where e.id in :ids")
+	int reparent(@Param("ids") Collection<Long> ids, @Param("manager") Employee manager,
+			@Param("department") Department department, @Param("managerPath") String managerPath,
+			@Param("depth") int depth, @Param("uniqueRole") String uniqueRole);
+
+	// Always followed by reparent() of the same ids, which bumps their versions
+	@Modifying
+	@Query("update Employee e set e.uniqueRole = null where e.id in :ids")
+	int clearUniqueRoles(@Param("ids") Collection<Long> ids);
+
+	// Keyset page of a department ordered by id, starting after the given id
+	@Query(EMPLOYEE_DTO_SELECT + "where d.departmentName = :departmentName and e.id > :afterId order by e.id")
+	List<EmployeeDTO> findDtoPageByDepartmentName(@Param("departmentName") String departmentName,
+			@Param("afterId") Long afterId, Limit limit);
+
+	// Must be consumed inside a transaction and closed afterwards
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query(EMPLOYEE_DTO_SELECT + "where d.departmentName = :departmentName order by e.id")
+	Stream<EmployeeDTO> streamDtoByDepartmentName(@Param("departmentName") String departmentName);
+
+	// ---------------- Analytics rebuild ----------------
+
+	interface HeadcountRow {
+		Long getDepartmentId();
+		OrgDesignations getDesignation();
+		Integer getDepth();
+		long getEmployees();
+	}
+
+	interface SpanRow {
+		Long getManagerId();
+		Long getDepartmentId();
+		long getReports();
+	}
+
+	@Query("select d.id as departmentId, g.orgDesignations as designation, e.depth as depth, count(e) as employees "
+			+ "from Employee e left join e.department d left join e.designation g group by d.id, g.orgDesignations, e.depth")
+	List<HeadcountRow> countByDepartmentDesignationAndDepth();
+
+	@Query("select m.id as managerId, d.id as departmentId, count(e) as reports from Employee m "
+			+ "left join m.department d left join Employee e on e.reportTo = m "
+			+ "where m.designation.orgDesignations in :designations group by m.id, d.id")
+	List<SpanRow> countDirectReports(@Param("designations") Collection<OrgDesignations> designations);
+
+	// ---------------- Search index rebuild ----------------
+
+	interface SearchRow {
+		Long getId();
+		String getName();
+		String getMobileNumber();
+	}
+
+	// Must be consumed inside a transaction and closed afterwards
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select e.id as id, e.name as name, e.mobileNumber as mobileNumber from Employee e order by e.id")
+	Stream<SearchRow> streamSearchRows();
+
+	// ---------------- Org graph rebuild ----------------
+
+	interface GraphRow {
+		Long getId();
+		String getName();
+		String getMobileNumber();
+		Long getManagerId();
+		Long getDepartmentId();
+		OrgDesignations getDesignation();
+	}
+
+	// Must be consumed inside a transaction and closed afterwards
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select e.id as id, e.name as name, e.mobileNumber as mobileNumber, r.id as managerId, "
+			+ "d.id as departmentId, g.orgDesignations as designation from Employee e left join e.reportTo r "
+			+ "left join e.department d left join e.designation g order by e.id")
+	Stream<GraphRow> streamGraphRows();
+
+	// ---------------- Export ----------------
+
+	// Everyone, the CEO included; must be consumed inside a transaction and closed afterwards
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query(EMPLOYEE_DTO_SELECT + "order by e.id")
+	Stream<EmployeeDTO> streamExportRows();
+
+	// ---------------- Validation ----------------
+
+	interface NewEmployeeCheck {
+		Long getManagerId();
+		OrgDesignations getManagerDesignation();
+		Long getManagerDepartmentId();
+		String getManagerPath();
+		Integer getManagerDepth();
+		long getMobileHolders();
+		long getRoleHolders();
+		long getPrerequisites();
+	}
+
+	// Everything addEmployee checks in the database in one round trip: the reportTo employee, whether the
+	// mobile number and unique role are taken, and how many employees hold the role the new one depends on.
+	// Rooted on the designation row so a result comes back even when reportTo does not exist.
+	@Query("select m.id as managerId, mg.orgDesignations as managerDesignation, md.id as managerDepartmentId, "
+			+ "m.managerPath as managerPath, m.depth as managerDepth, "
+			+ "(select count(x) from Employee x where x.mobileNumber = :mobileNumber) as mobileHolders, "
+			+ "(select count(x) from Employee x where x.uniqueRole = :uniqueRole) as roleHolders, "
+			+ "(select count(x) from Employee x where x.designation.orgDesignations = :required "
+			+ "and (:requiredDepartmentId is null or x.department.id = :requiredDepartmentId)) as prerequisites "
+			+ "from Designation g left join Employee m on m.id = :managerId "
+			+ "left join m.designation mg left join m.department md where g.orgDesignations = :designation")
+	Optional<NewEmployeeCheck> checkNewEmployee(@Param("designation") OrgDesignations designation,
+			@Param("mobileNumber") String mobileNumber, @Param("uniqueRole") String uniqueRole,
+			@Param("managerId") Long managerId, @Param("required") OrgDesignations required,
+			@Param("requiredDepartmentId") Long requiredDepartmentId);
+
+	// The employee to move, the new manager and the current holder of a unique role, in one query
+	@Query("select e from Employee e join fetch e.designation left join fetch e.department "
+			+ "where e.id in :ids or e.uniqueRole = :uniqueRole")
+	List<Employee> findForMove(@Param("ids") Collection<Long> ids, @Param("uniqueRole") String uniqueRole);
+
 }
@@ -0,0 +1,34 @@
+package com.example.orgapp.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.orgapp.entity.OrgChange;
+
+public interface OrgChangeRepository extends JpaRepository<OrgChange, Long> {
+
+	@Query("select coalesce(max(c.offset), 0) from OrgChange c")
+	long findMaxOffset();
+
+	@Query("select c.offset from OrgChange c where c.offset > :offset")
+	Set<Long> findOffsetsAfter(@Param("offset") long offset);
+
+	// The next offsets from the sequence, one per change about to be written
+	@Query(value = "SELECT NEXT VALUE FOR org_change_offset_seq FROM SYSTEM_RANGE(1, :count)", nativeQuery = true)
+	List<Long> nextOffsets(@Param("count") int count);
+
+	List<OrgChange> findByOffsetGreaterThanAndOffsetLessThanEqualOrderByOffset(Long after, Long upTo, Limit limit);
+
+	// Drop changes older than the cutoff that a later change to the same entity supersedes
+	@Modifying
+	@Query("delete from OrgChange c where c.createdAt < :cutoff and exists "
+			+ "(select 1 from OrgChange n where n.entityKey = c.entityKey and n.offset > c.offset)")
+	int deleteSupersededBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,81 @@
+package com.example.orgapp.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.orgapp.entity.Designation;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.repository.DesignationRepository;
+
+/**
+ * In-memory lookup of the designation table keyed by {@link OrgDesignations}.
+ * The table is tiny and effectively static, so it is loaded once at startup and
+ * only reloaded through {@link #refresh()} when the designation rows change.
+ */
+@Component
+public class DesignationRegistry {
+
+	private final DesignationRepository desgRepo;
+
+	// Replaced as a whole on refresh, never mutated after publication
+	private volatile Map<OrgDesignations, Designation> designations;
+
+	public DesignationRegistry(DesignationRepository desgRepo) {
+		this.desgRepo = desgRepo;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void refresh() {
+		Map<OrgDesignations, Designation> loaded = new EnumMap<>(OrgDesignations.class);
+		for (Designation d : desgRepo.findAll()) {
+			if (d.getOrgDesignations() != null) {
+				loaded.put(d.getOrgDesignations(), d);
+			}
+		}
+		designations = Collections.unmodifiableMap(loaded);
+	}
+
+	public Designation get(OrgDesignations designation) {
+		Designation d = snapshot().get(designation);
+		if (d == null) {
+			throw new IllegalArgumentException("Designation not found in DB");
+		}
+		return d;
+	}
+
+	public List<Designation> getAll() {
+		return new ArrayList<>(snapshot().values());
+	}
+
+	// Designations from the given one up to the top of the hierarchy (CEO)
+	public List<Designation> getParentChain(OrgDesignations designation) {
+		Map<OrgDesignations, Designation> current = snapshot();
+		List<Designation> chain = new ArrayList<>();
+		Designation d = current.get(designation);
+		while (d != null && chain.size() <= current.size()) {
+			chain.add(d);
+			Designation parent = d.getParentDesignation();
+			d = parent == null ? null : current.get(parent.getOrgDesignations());
+		}
+		return chain;
+	}
+
+	private Map<OrgDesignations, Designation> snapshot() {
+		Map<OrgDesignations, Designation> current = designations;
+		if (current == null) {
+			refresh();
+			current = designations;
+		}
+		return current;
+	}
+
+}
@@ -0,0 +1,477 @@
+package com.example.orgapp.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.orgapp.dto.BulkEmployeeRow;
+import com.example.orgapp.dto.BulkImportResult;
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.repository.DepartmentRepository;
+import com.example.orgapp.repository.EmployeeRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Imports employees in chunks. Each chunk is validated in memory against the
+ * rows already accepted in the batch, with one set-based query per lookup kind,
+ * and then inserted in a single transaction using JDBC batching.
+ */
+@Service
+public class EmployeeImportService {
+
+	static final int CHUNK_SIZE = 500;
+	// Prefix of the row errors reported when a chunk was rolled back as a whole
+	static final String INSERT_FAILED = "Insert failed: ";
+	private static final BiConsumer<Integer, Long> NO_LISTENER = (row, id) -> { };
+
+	private final EmployeeRepository employeeRepo;
+	private final DepartmentRepository departmentRepo;
+	private final DesignationRegistry designationRegistry;
+	private final TransactionTemplate transactionTemplate;
+	private final EntityManager entityManager;
+	private final ObjectMapper objectMapper;
+	private final ApplicationEventPublisher eventPublisher;
+
+	public EmployeeImportService(EmployeeRepository employeeRepo, DepartmentRepository departmentRepo,
+			DesignationRegistry designationRegistry, TransactionTemplate transactionTemplate,
+			EntityManager entityManager, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
+		this.employeeRepo = employeeRepo;
+		this.departmentRepo = departmentRepo;
+		this.designationRegistry = designationRegistry;
+		this.transactionTemplate = transactionTemplate;
+		this.entityManager = entityManager;
+		this.objectMapper = objectMapper;
+		this.eventPublisher = eventPublisher;
+	}
+
+	public BulkImportResult importJson(InputStream in) throws IOException {
+		try (MappingIterator<BulkEmployeeRow> rows = objectMapper.readerFor(BulkEmployeeRow.class).readValues(in)) {
+			return importRows(rows, NO_LISTENER);
+		}
+	}
+
+	public BulkImportResult importCsv(InputStream in) throws IOException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			return importRows(new CsvRowIterator(reader), NO_LISTENER);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	// Rows queued by EmployeeIngestQueue; onImported gets the 1-based row and the employee id once stored
+	BulkImportResult importRows(List<BulkEmployeeRow> rows, BiConsumer<Integer, Long> onImported) {
+		return importRows(rows.iterator(), onImported);
+	}
+
+	private BulkImportResult importRows(Iterator<BulkEmployeeRow> rows, BiConsumer<Integer, Long> onImported) {
+		long start = System.nanoTime();
+		BulkImportResult result = new BulkImportResult();
+
+		ImportState state = new ImportState();
+		for (Department d : departmentRepo.findAll()) {
+			state.departments.put(d.getDepartmentName().toUpperCase(), d);
+		}
+		state.ceoExists = employeeRepo.existsByDesignation_OrgDesignations(OrgDesignations.CEO);
+
+		List<BulkEmployeeRow> chunk = new ArrayList<>(CHUNK_SIZE);
+		int rowNumber = 0;
+		while (rows.hasNext()) {
+			chunk.add(rows.next());
+			rowNumber++;
+			if (chunk.size() == CHUNK_SIZE) {
+				importChunk(chunk, rowNumber - chunk.size() + 1, state, result, onImported);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			importChunk(chunk, rowNumber - chunk.size() + 1, state, result, onImported);
+		}
+
+		long elapsedNanos = System.nanoTime() - start;
+		result.setTotalRows(rowNumber);
+		result.setElapsedMillis(elapsedNanos / 1_000_000);
+		result.setRowsPerSecond(elapsedNanos == 0 ? 0 : result.getImported() * 1_000_000_000d / elapsedNanos);
+		return result;
+	}
+
+	private void importChunk(List<BulkEmployeeRow> chunk, int firstRow, ImportState state, BulkImportResult result,
+			BiConsumer<Integer, Long> onImported) {
+		ChunkState pending = new ChunkState(state.ceoExists);
+		List<Integer> acceptedRows = new ArrayList<>();
+		List<Long> acceptedIds = new ArrayList<>();
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				ChunkLookups lookups = loadLookups(chunk, state);
+				for (int i = 0; i < chunk.size(); i++) {
+					BulkEmployeeRow row = chunk.get(i);
+					try {
+						Employee emp = toEmployee(row, state, pending, lookups);
+						employeeRepo.save(emp);
+						eventPublisher.publishEvent(OrgEvents.EmployeeAdded.of(emp));
+						pending.accepted.put(emp.getMobileNumber(), EmployeeRef.of(emp));
+						acceptedRows.add(firstRow + i);
+						acceptedIds.add(emp.getId());
+					} catch (IllegalArgumentException e) {
+						result.addError(firstRow + i, row.getMobileNumber(), e.getMessage());
+					}
+				}
+				employeeRepo.flush();
+				entityManager.clear();
+			});
+		} catch (DataAccessException e) {
+			// The whole chunk was rolled back, so none of its accepted rows were stored
+			for (int row : acceptedRows) {
+				result.addError(row, chunk.get(row - firstRow).getMobileNumber(),
+						INSERT_FAILED + e.getMostSpecificCause().getMessage());
+			}
+			return;
+		}
+		state.imported.putAll(pending.accepted);
+		state.ceoExists = pending.ceoExists;
+		result.setImported(result.getImported() + pending.accepted.size());
+		for (int i = 0; i < acceptedRows.size(); i++) {
+			onImported.accept(acceptedRows.get(i), acceptedIds.get(i));
+		}
+	}
+
+	// One query per lookup kind for the whole chunk
+	private ChunkLookups loadLookups(List<BulkEmployeeRow> chunk, ImportState state) {
+		Set<String> mobiles = new HashSet<>();
+		Set<Long> reportToIds = new HashSet<>();
+		Set<String> reportToMobiles = new HashSet<>();
+		Set<String> headRoles = new HashSet<>();
+		for (BulkEmployeeRow row : chunk) {
+			if (row.getMobileNumber() != null && !row.getMobileNumber().isEmpty()) {
+				mobiles.add(row.getMobileNumber());
+			}
+			if (OrgDesignations.DEPT_HEAD.name().equalsIgnoreCase(row.getDesignation()) && row.getDepartment() != null) {
+				Department dept = state.departments.get(row.getDepartment().toUpperCase());
+				if (dept != null) {
+					headRoles.add(OrgService.uniqueRoleOf(OrgDesignations.DEPT_HEAD, dept.getId()));
+				}
+			}
+			if (row.getReportTo() != null) {
+				reportToIds.add(row.getReportTo());
+			} else if (row.getReportToMobile() != null && !state.imported.containsKey(row.getReportToMobile())) {
+				reportToMobiles.add(row.getReportToMobile());
+			}
+		}
+
+		ChunkLookups lookups = new ChunkLookups();
+		if (!mobiles.isEmpty()) {
+			lookups.existingMobiles.addAll(employeeRepo.findExistingMobileNumbers(mobiles));
+		}
+		if (!headRoles.isEmpty()) {
+			lookups.takenRoles.addAll(employeeRepo.findTakenUniqueRoles(headRoles));
+		}
+		if (!reportToIds.isEmpty()) {
+			for (Employee e : employeeRepo.findByIdIn(reportToIds)) {
+				lookups.byId.put(e.getId(), EmployeeRef.of(e));
+			}
+		}
+		if (!reportToMobiles.isEmpty()) {
+			for (Employee e : employeeRepo.findByMobileNumberIn(reportToMobiles)) {
+				lookups.byMobile.put(e.getMobileNumber(), EmployeeRef.of(e));
+			}
+		}
+		return lookups;
+	}
+
+	private Employee toEmployee(BulkEmployeeRow row, ImportState state, ChunkState pending, ChunkLookups lookups) {
+		if (row instanceof CsvRow csvRow && csvRow.error != null) {
+			throw new IllegalArgumentException(csvRow.error);
+		}
+		String mobile = row.getMobileNumber();
+		if (mobile == null || mobile.isEmpty()) {
+			throw new IllegalArgumentException("Mobile number is required");
+		}
+		if (row.getDesignation() == null || row.getDesignation().isEmpty()) {
+			throw new IllegalArgumentException("Designation is required");
+		}
+		if (!OrgDesignations.isValidOrgDesignation(row.getDesignation())) {
+			throw new IllegalArgumentException("Invalid designation: " + row.getDesignation());
+		}
+		if (lookups.existingMobiles.contains(mobile) || state.imported.containsKey(mobile)
+				|| pending.accepted.containsKey(mobile)) {
+			throw new IllegalArgumentException("Employee with this mobile number already exists");
+		}
+
+		OrgDesignations designation = OrgDesignations.valueOf(row.getDesignation().toUpperCase());
+		Employee emp = new Employee();
+		emp.setName(row.getName());
+		emp.setMobileNumber(mobile);
+		emp.setDesignation(designationRegistry.get(designation));
+
+		if (designation == OrgDesignations.CEO) {
+			if (row.getReportTo() != null || row.getReportToMobile() != null) {
+				throw new IllegalArgumentException("CEO should not have a reportTo");
+			}
+			if (row.getDepartment() != null) {
+				throw new IllegalArgumentException("CEO should not belong to any department");
+			}
+			if (pending.ceoExists) {
+				throw new IllegalArgumentException("CEO already exists");
+			}
+			pending.ceoExists = true;
+			emp.setManagerPath(OrgChartPaths.ROOT);
+			emp.setDepth(0);
+			emp.setUniqueRole(OrgService.uniqueRoleOf(designation, null));
+			return emp;
+		}
+
+		Department dept = row.getDepartment() == null ? null
+				: state.departments.get(row.getDepartment().toUpperCase());
+		if (dept == null) {
+			throw new IllegalArgumentException("Please provide a valid department");
+		}
+
+		OrgDesignations expectedManager;
+		String reportToMessage;
+		switch (designation) {
+		case DEPT_HEAD:
+			expectedManager = OrgDesignations.CEO;
+			reportToMessage = "Department head must report to CEO";
+			break;
+		case MANAGER:
+			expectedManager = OrgDesignations.DEPT_HEAD;
+			reportToMessage = "Manager must report to department head from same department";
+			break;
+		default:
+			expectedManager = OrgDesignations.MANAGER;
+			reportToMessage = "Employee must report to manager";
+		}
+
+		if (row.getReportTo() == null && row.getReportToMobile() == null) {
+			throw new IllegalArgumentException(reportToMessage);
+		}
+		EmployeeRef boss = resolveReportTo(row, state, pending, lookups);
+		if (boss == null) {
+			throw new IllegalArgumentException("reportTo employee not found");
+		}
+		// Everyone below the department head reports within their own department
+		if (expectedManager != OrgDesignations.CEO && !dept.getId().equals(boss.departmentId())) {
+			throw new IllegalArgumentException("reportTo employee not found");
+		}
+		if (boss.designation() != expectedManager) {
+			throw new IllegalArgumentException(reportToMessage);
+		}
+		// Checked here rather than left to the unique role key, which would roll back the whole chunk
+		if (designation == OrgDesignations.DEPT_HEAD) {
+			if (lookups.takenRoles.contains(OrgService.uniqueRoleOf(designation, dept.getId()))
+					|| !pending.headedDepartments.add(dept.getId())) {
+				throw new IllegalArgumentException("Department head already exists for this department");
+			}
+		}
+
+		emp.setDepartment(dept);
+		emp.setReportTo(employeeRepo.getReferenceById(boss.id()));
+		emp.setManagerPath(OrgChartPaths.childPath(boss.managerPath(), boss.id()));
+		emp.setDepth(boss.depth() + 1);
+		emp.setUniqueRole(OrgService.uniqueRoleOf(designation, dept.getId()));
+		return emp;
+	}
+
+	private EmployeeRef resolveReportTo(BulkEmployeeRow row, ImportState state, ChunkState pending,
+			ChunkLookups lookups) {
+		if (row.getReportTo() != null) {
+			return lookups.byId.get(row.getReportTo());
+		}
+		String mobile = row.getReportToMobile();
+		EmployeeRef ref = pending.accepted.get(mobile);
+		if (ref == null) {
+			ref = state.imported.get(mobile);
+		}
+		if (ref == null) {
+			ref = lookups.byMobile.get(mobile);
+		}
+		return ref;
+	}
+
+	// ---------------- Import bookkeeping ----------------
+
+	private record EmployeeRef(Long id, OrgDesignations designation, Long departmentId, String managerPath,
+			int depth) {
+		static EmployeeRef of(Employee e) {
+			return new EmployeeRef(e.getId(), e.getDesignation().getOrgDesignations(),
+					e.getDepartment() == null ? null : e.getDepartment().getId(), e.getManagerPath(), e.getDepth());
+		}
+	}
+
+	// State carried across chunks; only updated once a chunk has committed
+	private static class ImportState {
+		final Map<String, Department> departments = new HashMap<>();
+		final Map<String, EmployeeRef> imported = new HashMap<>();
+		boolean ceoExists;
+	}
+
+	private static class ChunkState {
+		final Map<String, EmployeeRef> accepted = new HashMap<>();
+		// Departments given a head by an earlier row of the chunk; heads of committed chunks are in takenRoles
+		final Set<Long> headedDepartments = new HashSet<>();
+		boolean ceoExists;
+
+		ChunkState(boolean ceoExists) {
+			this.ceoExists = ceoExists;
+		}
+	}
+
+	private static class ChunkLookups {
+		final Set<String> existingMobiles = new HashSet<>();
+		final Set<String> takenRoles = new HashSet<>();
+		final Map<Long, EmployeeRef> byId = new HashMap<>();
+		final Map<String, EmployeeRef> byMobile = new HashMap<>();
+	}
+
+	// A CSV row that could not be read as a whole, rejected with the reader's message
+	private static class CsvRow extends BulkEmployeeRow {
+		String error;
+	}
+
+	/**
+	 * Reads rows from a CSV with a header line naming the {@link BulkEmployeeRow}
+	 * fields, e.g. {@code name,mobileNumber,designation,department,reportTo,reportToMobile}.
+	 * Fields may be quoted as in RFC 4180 (and as {@link OrgExporter} writes them):
+	 * a quoted field can hold commas, line breaks and quotes doubled as {@code ""}.
+	 */
+	private static class CsvRowIterator implements Iterator<BulkEmployeeRow> {
+
+		private final BufferedReader reader;
+		private final Map<String, Integer> columns = new HashMap<>();
+		private List<String> nextRecord;
+
+		CsvRowIterator(BufferedReader reader) throws IOException {
+			this.reader = reader;
+			List<String> header = readRecord();
+			if (header != null) {
+				for (int i = 0; i < header.size(); i++) {
+					columns.put(header.get(i).trim(), i);
+				}
+			}
+			nextRecord = readDataRecord();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextRecord != null;
+		}
+
+		@Override
+		public BulkEmployeeRow next() {
+			if (nextRecord == null) {
+				throw new NoSuchElementException();
+			}
+			List<String> values = nextRecord;
+			CsvRow row = new CsvRow();
+			row.setName(value(values, "name"));
+			row.setMobileNumber(value(values, "mobileNumber"));
+			row.setDesignation(value(values, "designation"));
+			row.setDepartment(value(values, "department"));
+			String reportTo = value(values, "reportTo");
+			if (reportTo != null) {
+				try {
+					row.setReportTo(Long.valueOf(reportTo));
+				} catch (NumberFormatException e) {
+					row.error = "Invalid reportTo: " + reportTo;
+				}
+			}
+			row.setReportToMobile(value(values, "reportToMobile"));
+			try {
+				nextRecord = readDataRecord();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return row;
+		}
+
+		private String value(List<String> values, String column) {
+			Integer index = columns.get(column);
+			if (index == null || index >= values.size()) {
+				return null;
+			}
+			String v = values.get(index).trim();
+			return v.isEmpty() ? null : v;
+		}
+
+		// Skips blank lines
+		private List<String> readDataRecord() throws IOException {
+			List<String> record;
+			while ((record = readRecord()) != null) {
+				if (record.size() > 1 || !record.get(0).isBlank()) {
+					return record;
+				}
+			}
+			return null;
+		}
+
+		// The fields of the next record, which may span lines inside quotes; null at the end of the input
+		private List<String> readRecord() throws IOException {
+			int c = reader.read();
+			if (c == -1) {
+				return null;
+			}
+			List<String> fields = new ArrayList<>();
+			StringBuilder field = new StringBuilder();
+			boolean quoted = false;
+			while (true) {
+				if (quoted) {
+					if (c == -1) {
+						break;
+					}
+					if (c == '"') {
+						reader.mark(1);
+						if (reader.read() == '"') {
+							field.append('"');
+						} else {
+							reader.reset();
+							quoted = false;
+						}
+					} else {
+						field.append((char) c);
+					}
+				} else if (c == -1 || c == '\n') {
+					break;
+				} else if (c == '\r') {
+					reader.mark(1);
+					if (reader.read() != '\n') {
+						reader.reset();
+					}
+					break;
+				} else if (c == ',') {
+					fields.add(field.toString());
+					field.setLength(0);
+				} else if (c == '"' && field.toString().isBlank()) {
+					field.setLength(0);
+					quoted = true;
+				} else {
+					field.append((char) c);
+				}
+				c = reader.read();
+			}
+			fields.add(field.toString());
+			return fields;
+		}
+	}
+
+}
@@ -0,0 +1,229 @@
+package com.example.orgapp.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.example.orgapp.dto.BulkEmployeeRow;
+import com.example.orgapp.dto.BulkImportResult;
+import com.example.orgapp.dto.IngestStatusDTO;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.IngestState;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Write-behind ingestion of new employees for hiring bursts. A request is
+ * checked without a query (the department comes from the cache), put on a
+ * bounded queue and acknowledged with a tracking id; a full queue refuses it
+ * so the client backs off instead of piling onto the connection pool.
+ * <p>
+ * Worker threads drain the queue in batches and import each batch through
+ * {@link EmployeeImportService}: one transaction and a few set-based lookups
+ * per batch instead of a connection held through the validation chain of
+ * every request. The import re-validates everything, so the outcome is the
+ * same as for a synchronous insert. Outcomes are kept for
+ * {@code org.ingest.status-retention} and served by {@code GET /api/ingest/{id}}.
+ */
+@Component
+public class EmployeeIngestQueue implements SmartLifecycle {
+
+	static final String REQUESTS = "org.ingest.requests";
+	static final String DEPTH = "org.ingest.queue.depth";
+	static final String OLDEST = "org.ingest.queue.oldest";
+	static final String LAG = "org.ingest.lag";
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeIngestQueue.class);
+
+	private final EmployeeValidator employeeValidator;
+	private final EmployeeImportService importService;
+	private final MeterRegistry registry;
+	private final int workers;
+	private final int batchSize;
+
+	private final BlockingQueue<Pending> queue;
+	private final Cache<String, IngestStatusDTO> statuses;
+	private final Timer lag;
+
+	private volatile boolean running;
+	private ExecutorService pool;
+
+	public EmployeeIngestQueue(EmployeeValidator employeeValidator, EmployeeImportService importService,
+			MeterRegistry registry, @Value("${org.ingest.queue-capacity:10000}") int capacity,
+			@Value("${org.ingest.workers:2}") int workers, @Value("${org.ingest.batch-size:200}") int batchSize,
+			@Value("${org.ingest.status-retention:PT1H}") Duration statusRetention) {
+		this.employeeValidator = employeeValidator;
+		this.importService = importService;
+		this.registry = registry;
+		this.workers = workers;
+		// A batch is imported as one chunk, so one rollback never spans two batches
+		this.batchSize = Math.min(batchSize, EmployeeImportService.CHUNK_SIZE);
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.statuses = Caffeine.newBuilder().expireAfterWrite(statusRetention).build();
+		this.lag = Timer.builder(LAG).description("Time from acceptance to the committed import")
+				.publishPercentileHistogram().register(registry);
+		Gauge.builder(DEPTH, queue, BlockingQueue::size).register(registry);
+		Gauge.builder(OLDEST, this, EmployeeIngestQueue::oldestWaitSeconds)
+				.description("Seconds the oldest queued request has been waiting").baseUnit("seconds")
+				.register(registry);
+	}
+
+	// ---------------- Requests ----------------
+
+	// The queued status, or null when the request was refused because the queue is full (or stopping);
+	// a malformed request is rejected right away with a ValidationException
+	public IngestStatusDTO submit(Employee emp) {
+		employeeValidator.precheckNew(emp);
+		String id = UUID.randomUUID().toString();
+		IngestStatusDTO queued = new IngestStatusDTO(id, IngestState.QUEUED, null, null, Instant.now(), null);
+		// Recorded before the offer, so a fast worker's outcome is never overwritten by it
+		statuses.put(id, queued);
+		if (!running || !queue.offer(new Pending(id, toRow(emp), queued.getAcceptedAt(), System.nanoTime()))) {
+			statuses.invalidate(id);
+			count("rejected");
+			return null;
+		}
+		count("accepted");
+		return queued;
+	}
+
+	// Null for an unknown or expired tracking id
+	public IngestStatusDTO status(String id) {
+		return statuses.getIfPresent(id);
+	}
+
+	private static BulkEmployeeRow toRow(Employee emp) {
+		BulkEmployeeRow row = new BulkEmployeeRow();
+		row.setName(emp.getName());
+		row.setMobileNumber(emp.getMobileNumber());
+		row.setDesignation(emp.getDesignation().getOrgDesignations().name());
+		row.setDepartment(emp.getDepartment() == null ? null : emp.getDepartment().getDepartmentName());
+		row.setReportTo(emp.getReportTo() == null ? null : emp.getReportTo().getId());
+		return row;
+	}
+
+	// ---------------- Workers ----------------
+
+	private void drain() {
+		List<Pending> batch = new ArrayList<>(batchSize);
+		// Keeps going after stop() until the queue is empty
+		while (running || !queue.isEmpty()) {
+			try {
+				Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				importBatch(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				// E.g. the database is unreachable; the batch fails, the worker carries on
+				log.warn("Ingestion of {} employees failed", batch.size(), e);
+				for (Pending p : batch) {
+					complete(p, null, "Ingestion failed: " + e.getMessage());
+				}
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void importBatch(List<Pending> batch) {
+		List<BulkEmployeeRow> rows = new ArrayList<>(batch.size());
+		for (Pending p : batch) {
+			rows.add(p.row());
+		}
+		Map<Integer, Long> imported = new HashMap<>();
+		BulkImportResult result = importService.importRows(rows, imported::put);
+		imported.forEach((row, employeeId) -> complete(batch.get(row - 1), employeeId, null));
+
+		List<Pending> retry = new ArrayList<>();
+		for (BulkImportResult.RowError error : result.getErrors()) {
+			Pending p = batch.get(error.getRow() - 1);
+			if (batch.size() > 1 && error.getMessage().startsWith(EmployeeImportService.INSERT_FAILED)) {
+				retry.add(p);
+			} else {
+				complete(p, null, error.getMessage());
+			}
+		}
+		// A race on a unique key rolls back the whole batch; its other rows deserve another try on their own
+		for (Pending p : retry) {
+			importBatch(List.of(p));
+		}
+	}
+
+	private void complete(Pending p, Long employeeId, String error) {
+		IngestState state = employeeId != null ? IngestState.IMPORTED : IngestState.FAILED;
+		statuses.put(p.id(), new IngestStatusDTO(p.id(), state, employeeId, error, p.acceptedAt(), Instant.now()));
+		lag.record(System.nanoTime() - p.acceptedNanos(), TimeUnit.NANOSECONDS);
+		count(state == IngestState.IMPORTED ? "imported" : "failed");
+	}
+
+	private double oldestWaitSeconds() {
+		Pending head = queue.peek();
+		return head == null ? 0 : (System.nanoTime() - head.acceptedNanos()) / 1e9;
+	}
+
+	private void count(String outcome) {
+		registry.counter(REQUESTS, "outcome", outcome).increment();
+	}
+
+	// ---------------- Lifecycle ----------------
+
+	@Override
+	public void start() {
+		AtomicInteger threads = new AtomicInteger();
+		pool = Executors.newFixedThreadPool(workers, r -> new Thread(r, "ingest-" + threads.incrementAndGet()));
+		running = true;
+		for (int i = 0; i < workers; i++) {
+			pool.execute(this::drain);
+		}
+	}
+
+	// Refuses new requests at once and lets the workers finish what is queued
+	@Override
+	public void stop() {
+		running = false;
+		pool.shutdown();
+		try {
+			if (!pool.awaitTermination(30, TimeUnit.SECONDS)) {
+				log.warn("{} queued employees were not ingested before shutdown", queue.size());
+				pool.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	private record Pending(String id, BulkEmployeeRow row, Instant acceptedAt, long acceptedNanos) {
+	}
+
+}
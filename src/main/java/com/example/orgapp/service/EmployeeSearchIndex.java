@@ -0,0 +1,618 @@
+package com.example.orgapp.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.orgapp.repository.EmployeeRepository;
+
+/**
+ * In-memory search over employee names and mobile numbers.
+ * <p>
+ * A query made of digits (and "+", "-", spaces, parentheses) matches mobile
+ * numbers by prefix. Any other query is split into words, and an employee
+ * matches when every word matches a word of their name, either as a prefix or
+ * within a small edit distance (none below 3 letters, 1 up to 5, 2 beyond;
+ * the first letter must match). Results are in id order for keyset paging.
+ * <p>
+ * The main segment is an immutable sorted term dictionary with postings,
+ * rebuilt from the database at startup and on a schedule. Employees committed
+ * since then sit in a small delta that is scanned per query and merged into a
+ * new main segment in the background once it grows.
+ */
+@Component
+public class EmployeeSearchIndex {
+
+	// Up to this many candidates are collected from the postings; beyond it documents are scanned in id order,
+	// where matches are dense enough that a page fills quickly
+	static final int COLLECT_LIMIT = 20_000;
+	static final int DELTA_LIMIT = 4_096;
+	static final int MAX_QUERY_WORDS = 4;
+
+	private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+	private static final Pattern MOBILE_QUERY = Pattern.compile("[+0-9][0-9 ()+-]*");
+
+	private final EmployeeRepository employeeRepo;
+	// Not read-only, so the rebuild reads the primary: a replica may lack employees already merged out of the delta
+	private final TransactionTemplate loadTransaction;
+	private final Executor executor;
+
+	// Replaced as a whole; appends to its delta are guarded by this
+	private volatile Snapshot snapshot = new Snapshot(Segment.EMPTY, new Delta());
+	// Serializes merges and rebuilds
+	private final ReentrantLock maintenance = new ReentrantLock();
+	private final AtomicBoolean mergeScheduled = new AtomicBoolean();
+
+	public EmployeeSearchIndex(EmployeeRepository employeeRepo, PlatformTransactionManager transactionManager,
+			@Qualifier("applicationTaskExecutor") Executor executor) {
+		this.employeeRepo = employeeRepo;
+		this.loadTransaction = new TransactionTemplate(transactionManager);
+		this.executor = executor;
+	}
+
+	// ---------------- Search ----------------
+
+	// Ids of matching employees above afterId in ascending order, at most limit of them
+	public List<Long> search(String text, long afterId, int limit) {
+		Query query = Query.parse(text);
+		if (query == null || limit <= 0) {
+			return List.of();
+		}
+		Snapshot s = snapshot;
+		long[] main = s.main.search(query, afterId, limit);
+		long[] recent = s.delta.search(query, afterId, limit);
+
+		// Merge both id-ordered lists; an id may briefly be in both after a rebuild
+		List<Long> ids = new ArrayList<>(Math.min(limit, main.length + recent.length));
+		int i = 0;
+		int j = 0;
+		while (ids.size() < limit && (i < main.length || j < recent.length)) {
+			long next;
+			if (j >= recent.length || (i < main.length && main[i] <= recent[j])) {
+				next = main[i++];
+				if (j < recent.length && recent[j] == next) {
+					j++;
+				}
+			} else {
+				next = recent[j++];
+			}
+			ids.add(next);
+		}
+		return ids;
+	}
+
+	public int size() {
+		Snapshot s = snapshot;
+		return s.main.ids.length + s.delta.size;
+	}
+
+	// ---------------- Updates ----------------
+
+	@TransactionalEventListener
+	public void onEmployeeAdded(OrgEvents.EmployeeAdded e) {
+		int pending;
+		synchronized (this) {
+			Delta delta = snapshot.delta;
+			delta.add(e.employeeId(), e.name(), e.mobileNumber());
+			pending = delta.size;
+		}
+		if (pending >= DELTA_LIMIT && mergeScheduled.compareAndSet(false, true)) {
+			executor.execute(this::mergeDelta);
+		}
+	}
+
+	public void mergeDelta() {
+		maintenance.lock();
+		try {
+			Snapshot current = snapshot;
+			int merged = current.delta.size;
+			Segment main = current.main.merge(current.delta, merged);
+			synchronized (this) {
+				snapshot = new Snapshot(main, current.delta.from(merged, main));
+			}
+		} finally {
+			mergeScheduled.set(false);
+			maintenance.unlock();
+		}
+	}
+
+	// ---------------- Rebuild ----------------
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildAtStartup() {
+		rebuild();
+	}
+
+	@Scheduled(fixedDelayString = "${org.search.rebuild-interval:PT1H}",
+			initialDelayString = "${org.search.rebuild-interval:PT1H}")
+	public void scheduledRebuild() {
+		rebuild();
+	}
+
+	// Reload everything from the database; employees committed meanwhile stay in the delta
+	public void rebuild() {
+		maintenance.lock();
+		try {
+			Documents docs = loadTransaction.execute(status -> {
+				Documents loaded = new Documents();
+				try (Stream<EmployeeRepository.SearchRow> rows = employeeRepo.streamSearchRows()) {
+					rows.forEach(row -> loaded.add(row.getId(), normalize(row.getName()), row.getMobileNumber()));
+				}
+				return loaded;
+			});
+			Segment main = Segment.build(docs);
+			synchronized (this) {
+				snapshot = new Snapshot(main, snapshot.delta.from(0, main));
+			}
+		} finally {
+			maintenance.unlock();
+		}
+	}
+
+	// ---------------- Query ----------------
+
+	private record Query(String[] words, String mobilePrefix) {
+
+		static Query parse(String text) {
+			String trimmed = text == null ? "" : text.trim();
+			if (trimmed.isEmpty()) {
+				return null;
+			}
+			if (MOBILE_QUERY.matcher(trimmed).matches()) {
+				return new Query(null, trimmed);
+			}
+			String[] words = tokenize(normalize(trimmed));
+			if (words.length == 0) {
+				return null;
+			}
+			return new Query(words.length > MAX_QUERY_WORDS ? Arrays.copyOf(words, MAX_QUERY_WORDS) : words, null);
+		}
+
+		boolean matches(String name, String mobile) {
+			if (mobilePrefix != null) {
+				return mobile != null && mobile.startsWith(mobilePrefix);
+			}
+			String[] nameWords = tokenize(name);
+			for (String word : words) {
+				if (!anyMatches(nameWords, word)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean anyMatches(String[] nameWords, String word) {
+			int maxEdits = maxEdits(word);
+			for (String nameWord : nameWords) {
+				if (nameWord.startsWith(word) || (maxEdits > 0 && nameWord.charAt(0) == word.charAt(0)
+						&& withinEdits(nameWord, word, maxEdits))) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	static String normalize(String name) {
+		return name == null ? "" : name.toLowerCase(Locale.ROOT);
+	}
+
+	static String[] tokenize(String normalized) {
+		if (normalized.isEmpty()) {
+			return new String[0];
+		}
+		String[] words = NON_WORD.split(normalized);
+		// A leading separator yields one empty word
+		return words.length > 0 && words[0].isEmpty() ? Arrays.copyOfRange(words, 1, words.length) : words;
+	}
+
+	static int maxEdits(String word) {
+		return word.length() < 3 ? 0 : word.length() <= 5 ? 1 : 2;
+	}
+
+	// Levenshtein distance of a and b is at most maxEdits, giving up as soon as it cannot be
+	static boolean withinEdits(String a, String b, int maxEdits) {
+		if (Math.abs(a.length() - b.length()) > maxEdits) {
+			return false;
+		}
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			int best = i;
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+				best = Math.min(best, current[j]);
+			}
+			if (best > maxEdits) {
+				return false;
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[b.length()] <= maxEdits;
+	}
+
+	// ---------------- Segments ----------------
+
+	private record Snapshot(Segment main, Delta delta) {
+	}
+
+	// Documents in ascending id order, used to build a segment
+	private static final class Documents {
+		long[] ids = new long[1024];
+		String[] names = new String[1024];
+		String[] mobiles = new String[1024];
+		int size;
+
+		void add(long id, String name, String mobile) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				names = Arrays.copyOf(names, size * 2);
+				mobiles = Arrays.copyOf(mobiles, size * 2);
+			}
+			ids[size] = id;
+			names[size] = name;
+			mobiles[size] = mobile;
+			size++;
+		}
+	}
+
+	private static final class Segment {
+
+		static final Segment EMPTY = build(new Documents());
+
+		final long[] ids;
+		final String[] names;
+		final String[] mobiles;
+		// Sorted distinct name words; postings[postingStart[t]..postingStart[t + 1]) are the documents of term t
+		final String[] terms;
+		final int[] postingStart;
+		final int[] postings;
+		// Mobile numbers in sorted order and the document of each
+		final String[] sortedMobiles;
+		final int[] mobileDocs;
+
+		private Segment(Documents docs, String[] terms, int[] postingStart, int[] postings, String[] sortedMobiles,
+				int[] mobileDocs) {
+			this.ids = Arrays.copyOf(docs.ids, docs.size);
+			this.names = Arrays.copyOf(docs.names, docs.size);
+			this.mobiles = Arrays.copyOf(docs.mobiles, docs.size);
+			this.terms = terms;
+			this.postingStart = postingStart;
+			this.postings = postings;
+			this.sortedMobiles = sortedMobiles;
+			this.mobileDocs = mobileDocs;
+		}
+
+		static Segment build(Documents docs) {
+			Map<String, IntList> byTerm = new HashMap<>();
+			for (int doc = 0; doc < docs.size; doc++) {
+				for (String word : tokenize(docs.names[doc])) {
+					IntList list = byTerm.computeIfAbsent(word, k -> new IntList());
+					// A word repeated in one name is posted once
+					if (list.size == 0 || list.values[list.size - 1] != doc) {
+						list.add(doc);
+					}
+				}
+			}
+			String[] terms = byTerm.keySet().toArray(String[]::new);
+			Arrays.sort(terms);
+			int[] postingStart = new int[terms.length + 1];
+			for (int t = 0; t < terms.length; t++) {
+				postingStart[t + 1] = postingStart[t] + byTerm.get(terms[t]).size;
+			}
+			int[] postings = new int[postingStart[terms.length]];
+			for (int t = 0; t < terms.length; t++) {
+				IntList list = byTerm.get(terms[t]);
+				System.arraycopy(list.values, 0, postings, postingStart[t], list.size);
+			}
+
+			Integer[] order = new Integer[docs.size];
+			for (int doc = 0; doc < docs.size; doc++) {
+				order[doc] = doc;
+			}
+			String[] mobiles = docs.mobiles;
+			Arrays.sort(order, (a, b) -> mobiles[a].compareTo(mobiles[b]));
+			String[] sortedMobiles = new String[docs.size];
+			int[] mobileDocs = new int[docs.size];
+			for (int i = 0; i < docs.size; i++) {
+				sortedMobiles[i] = mobiles[order[i]];
+				mobileDocs[i] = order[i];
+			}
+			return new Segment(docs, terms, postingStart, postings, sortedMobiles, mobileDocs);
+		}
+
+		// A new segment with the first count delta entries folded in; ids already present are skipped
+		Segment merge(Delta delta, int count) {
+			long[] recent = new long[count];
+			Map<Long, Integer> entry = new HashMap<>();
+			int n = 0;
+			for (int i = 0; i < count; i++) {
+				if (!contains(delta.ids[i]) && !entry.containsKey(delta.ids[i])) {
+					entry.put(delta.ids[i], i);
+					recent[n++] = delta.ids[i];
+				}
+			}
+			recent = Arrays.copyOf(recent, n);
+			Arrays.sort(recent);
+
+			Documents docs = new Documents();
+			int i = 0;
+			int j = 0;
+			while (i < ids.length || j < recent.length) {
+				if (j >= recent.length || (i < ids.length && ids[i] < recent[j])) {
+					docs.add(ids[i], names[i], mobiles[i]);
+					i++;
+				} else {
+					int e = entry.get(recent[j++]);
+					docs.add(delta.ids[e], delta.names[e], delta.mobiles[e]);
+				}
+			}
+			return build(docs);
+		}
+
+		boolean contains(long id) {
+			return Arrays.binarySearch(ids, id) >= 0;
+		}
+
+		long[] search(Query query, long afterId, int limit) {
+			int[] candidates = query.mobilePrefix() != null ? mobileCandidates(query.mobilePrefix())
+					: nameCandidates(query.words());
+			int from = firstDocAfter(afterId);
+			long[] found = new long[Math.min(limit, ids.length)];
+			int n = 0;
+			if (candidates == null) {
+				for (int doc = from; doc < ids.length && n < limit; doc++) {
+					if (query.matches(names[doc], mobiles[doc])) {
+						found[n++] = ids[doc];
+					}
+				}
+			} else {
+				int start = Arrays.binarySearch(candidates, from);
+				for (int i = start < 0 ? -start - 1 : start; i < candidates.length && n < limit; i++) {
+					int doc = candidates[i];
+					if (query.matches(names[doc], mobiles[doc])) {
+						found[n++] = ids[doc];
+					}
+				}
+			}
+			return Arrays.copyOf(found, n);
+		}
+
+		private int firstDocAfter(long afterId) {
+			int i = Arrays.binarySearch(ids, afterId);
+			return i < 0 ? -i - 1 : i + 1;
+		}
+
+		// Sorted distinct documents whose mobile number starts with the prefix, or null if there are too many
+		private int[] mobileCandidates(String prefix) {
+			int lo = lowerBound(sortedMobiles, prefix);
+			int hi = lowerBound(sortedMobiles, prefix + Character.MAX_VALUE);
+			if (hi - lo > COLLECT_LIMIT) {
+				return null;
+			}
+			int[] docs = Arrays.copyOfRange(mobileDocs, lo, hi);
+			Arrays.sort(docs);
+			return docs;
+		}
+
+		// Candidates of the most selective word, or null if even that one matches too many documents
+		private int[] nameCandidates(String[] words) {
+			TermMatch best = null;
+			for (String word : words) {
+				TermMatch match = match(word);
+				if (best == null || match.postings < best.postings) {
+					best = match;
+				}
+			}
+			if (best.postings > COLLECT_LIMIT) {
+				return null;
+			}
+			int[] docs = new int[(int) best.postings];
+			int n = 0;
+			for (int t = best.prefixFrom; t < best.prefixTo; t++) {
+				n = copyPostings(t, docs, n);
+			}
+			for (int t : best.fuzzyTerms) {
+				if (t < best.prefixFrom || t >= best.prefixTo) {
+					n = copyPostings(t, docs, n);
+				}
+			}
+			Arrays.sort(docs, 0, n);
+			int distinct = 0;
+			for (int i = 0; i < n; i++) {
+				if (distinct == 0 || docs[distinct - 1] != docs[i]) {
+					docs[distinct++] = docs[i];
+				}
+			}
+			return Arrays.copyOf(docs, distinct);
+		}
+
+		private int copyPostings(int term, int[] docs, int n) {
+			int length = postingStart[term + 1] - postingStart[term];
+			System.arraycopy(postings, postingStart[term], docs, n, length);
+			return n + length;
+		}
+
+		private record TermMatch(int prefixFrom, int prefixTo, int[] fuzzyTerms, long postings) {
+		}
+
+		// Terms starting with the word plus terms within its edit distance; postings is an upper bound of documents
+		private TermMatch match(String word) {
+			int from = lowerBound(terms, word);
+			int to = lowerBound(terms, word + Character.MAX_VALUE);
+			long postingCount = postingStart[to] - postingStart[from];
+			int maxEdits = maxEdits(word);
+			int[] fuzzy = maxEdits == 0 ? new int[0] : fuzzyTerms(word, maxEdits);
+			for (int t : fuzzy) {
+				if (t < from || t >= to) {
+					postingCount += postingStart[t + 1] - postingStart[t];
+				}
+			}
+			return new TermMatch(from, to, fuzzy, postingCount);
+		}
+
+		// Terms within maxEdits of the word that share its first letter. The sorted terms are walked as an implicit
+		// trie: the Levenshtein row of each prefix is computed once, and a prefix whose best row value already
+		// exceeds maxEdits is skipped with all its terms.
+		private int[] fuzzyTerms(String word, int maxEdits) {
+			String first = word.substring(0, 1);
+			int end = lowerBound(terms, first + Character.MAX_VALUE);
+			int m = word.length();
+			List<int[]> rows = new ArrayList<>();
+			int[] root = new int[m + 1];
+			for (int j = 0; j <= m; j++) {
+				root[j] = j;
+			}
+			rows.add(root);
+
+			IntList found = new IntList();
+			String previous = "";
+			int valid = 0;
+			int t = lowerBound(terms, first);
+			while (t < end) {
+				String term = terms[t];
+				int depth = Math.min(commonPrefix(previous, term), valid);
+				boolean pruned = false;
+				while (depth < term.length()) {
+					if (rows.size() <= depth + 1) {
+						rows.add(new int[m + 1]);
+					}
+					int[] above = rows.get(depth);
+					int[] row = rows.get(depth + 1);
+					char c = term.charAt(depth);
+					row[0] = depth + 1;
+					int best = row[0];
+					for (int j = 1; j <= m; j++) {
+						int cost = word.charAt(j - 1) == c ? 0 : 1;
+						row[j] = Math.min(Math.min(above[j] + 1, row[j - 1] + 1), above[j - 1] + cost);
+						best = Math.min(best, row[j]);
+					}
+					depth++;
+					if (best > maxEdits) {
+						pruned = true;
+						break;
+					}
+				}
+				previous = term;
+				valid = depth;
+				if (pruned) {
+					t = lowerBound(terms, term.substring(0, depth) + Character.MAX_VALUE);
+				} else {
+					if (rows.get(depth)[m] <= maxEdits) {
+						found.add(t);
+					}
+					t++;
+				}
+			}
+			return Arrays.copyOf(found.values, found.size);
+		}
+
+		private static int commonPrefix(String a, String b) {
+			int n = Math.min(a.length(), b.length());
+			int i = 0;
+			while (i < n && a.charAt(i) == b.charAt(i)) {
+				i++;
+			}
+			return i;
+		}
+
+		private static int lowerBound(String[] sorted, String key) {
+			int i = Arrays.binarySearch(sorted, key);
+			return i < 0 ? -i - 1 : i;
+		}
+	}
+
+	// Employees added since the main segment was built, in commit order. Appended under the index lock and
+	// read without it: entries below the volatile size are complete.
+	private static final class Delta {
+		long[] ids = new long[64];
+		String[] names = new String[64];
+		String[] mobiles = new String[64];
+		volatile int size;
+
+		void add(long id, String name, String mobile) {
+			int n = size;
+			if (n == ids.length) {
+				// Readers may still hold the old arrays; they only look below the size they read
+				long[] grownIds = Arrays.copyOf(ids, n * 2);
+				String[] grownNames = Arrays.copyOf(names, n * 2);
+				String[] grownMobiles = Arrays.copyOf(mobiles, n * 2);
+				grownIds[n] = id;
+				grownNames[n] = normalize(name);
+				grownMobiles[n] = mobile;
+				ids = grownIds;
+				names = grownNames;
+				mobiles = grownMobiles;
+			} else {
+				ids[n] = id;
+				names[n] = normalize(name);
+				mobiles[n] = mobile;
+			}
+			size = n + 1;
+		}
+
+		// The entries from index start on that the given segment does not contain
+		Delta from(int start, Segment main) {
+			Delta rest = new Delta();
+			for (int i = start; i < size; i++) {
+				if (!main.contains(ids[i])) {
+					rest.add(ids[i], names[i], mobiles[i]);
+				}
+			}
+			return rest;
+		}
+
+		long[] search(Query query, long afterId, int limit) {
+			int n = size;
+			long[] ids = this.ids;
+			String[] names = this.names;
+			String[] mobiles = this.mobiles;
+			long[] found = new long[n];
+			int count = 0;
+			for (int i = 0; i < n; i++) {
+				if (ids[i] > afterId && query.matches(names[i], mobiles[i])) {
+					found[count++] = ids[i];
+				}
+			}
+			Arrays.sort(found, 0, count);
+			return Arrays.copyOf(found, Math.min(count, limit));
+		}
+	}
+
+	private static final class IntList {
+		int[] values = new int[4];
+		int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+	}
+
+}
@@ -0,0 +1,261 @@
+package com.example.orgapp.service;
+
+import static com.example.orgapp.service.ValidationPipeline.problem;
+import static com.example.orgapp.service.ValidationPipeline.require;
+import static com.example.orgapp.service.ValidationPipeline.when;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.stereotype.Component;
+
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.repository.DepartmentRepository;
+import com.example.orgapp.repository.EmployeeRepository;
+
+/**
+ * Validation of new employees and moves, cheapest checks first: the request
+ * itself, then the department (served from the cache), then one combined query
+ * for everything else. All errors of the first failing stage are reported.
+ * The unique constraints remain the final word on concurrent duplicates.
+ */
+@Component
+public class EmployeeValidator {
+
+	private final EmployeeRepository employeeRepo;
+	private final DepartmentRepository departmentRepo;
+
+	private final ValidationPipeline<NewEmployee> newEmployeePrecheck;
+	private final ValidationPipeline<NewEmployee> newEmployeePipeline;
+	private final ValidationPipeline<Move> movePipeline;
+
+	public EmployeeValidator(EmployeeRepository employeeRepo, DepartmentRepository departmentRepo) {
+		this.employeeRepo = employeeRepo;
+		this.departmentRepo = departmentRepo;
+		this.newEmployeePrecheck = newEmployeeRequestStages();
+		this.newEmployeePipeline = newEmployeePipeline();
+		this.movePipeline = movePipeline();
+	}
+
+	NewEmployee validateNew(Employee emp) {
+		NewEmployee request = new NewEmployee(emp);
+		newEmployeePipeline.validate(request);
+		return request;
+	}
+
+	// Only the stages that need no query beyond the department cache, for requests checked again on import
+	void precheckNew(Employee emp) {
+		newEmployeePrecheck.validate(new NewEmployee(emp));
+	}
+
+	Move validateMove(Long employeeId, String departmentName, Long reportTo) {
+		Move request = new Move(employeeId, departmentName, reportTo);
+		movePipeline.validate(request);
+		return request;
+	}
+
+	// ---------------- New employee ----------------
+
+	static final class NewEmployee {
+		final Employee emp;
+		final OrgDesignations designation;
+		final Long reportToId;
+		Department department;
+		EmployeeRepository.NewEmployeeCheck check;
+
+		NewEmployee(Employee emp) {
+			this.emp = emp;
+			this.designation = emp.getDesignation() == null ? null : emp.getDesignation().getOrgDesignations();
+			this.reportToId = emp.getReportTo() == null ? null : emp.getReportTo().getId();
+		}
+
+		boolean isCeo() {
+			return designation == OrgDesignations.CEO;
+		}
+
+		boolean needsPlacement() {
+			return designation != null && designation != OrgDesignations.CEO;
+		}
+	}
+
+	private ValidationPipeline<NewEmployee> newEmployeePipeline() {
+		return newEmployeeRequestStages()
+				// Everything else in one query
+				.stage(this::loadCheck,
+						require(r -> r.check.getMobileHolders() == 0,
+								"Employee with this mobile number already exists"),
+						require(r -> r.check.getRoleHolders() == 0, r -> r.isCeo() ? "CEO already exists"
+								: "Department head already exists for this department"),
+						when(NewEmployee::needsPlacement, require(r -> r.check.getPrerequisites() > 0,
+								r -> missingPrerequisiteMessage(r.designation))),
+						when(NewEmployee::needsPlacement, problem(this::managerProblem)));
+	}
+
+	private ValidationPipeline<NewEmployee> newEmployeeRequestStages() {
+		return new ValidationPipeline<NewEmployee>()
+				// The request on its own
+				.stage(require(r -> r.emp.getMobileNumber() != null && !r.emp.getMobileNumber().isEmpty(),
+						"Mobile number is required"),
+						require(r -> r.designation != null, "Designation is required"),
+						when(NewEmployee::isCeo, require(r -> r.emp.getReportTo() == null,
+								"CEO should not have a reportTo")),
+						when(NewEmployee::isCeo, require(r -> r.emp.getDepartment() == null,
+								"CEO should not belong to any department")),
+						when(NewEmployee::needsPlacement, require(r -> r.emp.getDepartment() != null
+								&& r.emp.getDepartment().getDepartmentName() != null,
+								"Please provide a valid department")),
+						when(NewEmployee::needsPlacement, require(r -> r.reportToId != null,
+								r -> wrongManagerMessage(r.designation))))
+				// Department by name, normally a cache hit
+				.stage(r -> {
+					if (r.needsPlacement()) {
+						r.department = departmentRepo
+								.findByDepartmentName(r.emp.getDepartment().getDepartmentName().toUpperCase())
+								.orElse(null);
+					}
+				}, when(NewEmployee::needsPlacement, require(r -> r.department != null,
+						"Please provide a valid department")));
+	}
+
+	private void loadCheck(NewEmployee r) {
+		Long departmentId = r.department == null ? null : r.department.getId();
+		OrgDesignations required = requiredManager(r.designation);
+		r.check = employeeRepo.checkNewEmployee(r.designation, r.emp.getMobileNumber(),
+				OrgService.uniqueRoleOf(r.designation, departmentId), r.reportToId, required,
+				required == OrgDesignations.CEO ? null : departmentId)
+				.orElseThrow(() -> new IllegalStateException("Designation " + r.designation + " is not set up"));
+	}
+
+	private String managerProblem(NewEmployee r) {
+		EmployeeRepository.NewEmployeeCheck c = r.check;
+		// A department head may report across departments (to the CEO); everyone else within their own
+		boolean found = c.getManagerId() != null && (r.designation == OrgDesignations.DEPT_HEAD
+				|| Objects.equals(c.getManagerDepartmentId(), r.department.getId()));
+		if (!found) {
+			return "reportTo employee not found";
+		}
+		return c.getManagerDesignation() == requiredManager(r.designation) ? null : wrongManagerMessage(r.designation);
+	}
+
+	// Designation of the manager an employee of the given designation reports to
+	private static OrgDesignations requiredManager(OrgDesignations designation) {
+		if (designation == null) {
+			return null;
+		}
+		switch (designation) {
+		case CEO:
+			return null;
+		case DEPT_HEAD:
+			return OrgDesignations.CEO;
+		case MANAGER:
+			return OrgDesignations.DEPT_HEAD;
+		default:
+			return OrgDesignations.MANAGER;
+		}
+	}
+
+	private static String missingPrerequisiteMessage(OrgDesignations designation) {
+		switch (designation) {
+		case DEPT_HEAD:
+			return "Please add CEO before adding department head";
+		case MANAGER:
+			return "Please add department head for this department first";
+		default:
+			return "Please add manager for this department first";
+		}
+	}
+
+	private static String wrongManagerMessage(OrgDesignations designation) {
+		switch (designation) {
+		case DEPT_HEAD:
+			return "Department head must report to CEO";
+		case MANAGER:
+			return "Manager must report to department head from same department";
+		default:
+			return "Employee must report to manager";
+		}
+	}
+
+	// ---------------- Move ----------------
+
+	static final class Move {
+		final Long employeeId;
+		final String departmentName;
+		final Long reportToId;
+		Department department;
+		Employee employee;
+		Employee manager;
+		// Current department head of the target department, if any
+		Employee departmentHead;
+
+		Move(Long employeeId, String departmentName, Long reportToId) {
+			this.employeeId = employeeId;
+			this.departmentName = departmentName;
+			this.reportToId = reportToId;
+		}
+
+		boolean employeeIs(OrgDesignations designation) {
+			return employee != null && employee.getDesignation().getOrgDesignations() == designation;
+		}
+
+		boolean employeeIsStaffOrManager() {
+			return employee != null && !employeeIs(OrgDesignations.CEO) && !employeeIs(OrgDesignations.DEPT_HEAD);
+		}
+	}
+
+	private ValidationPipeline<Move> movePipeline() {
+		return new ValidationPipeline<Move>()
+				.stage(require(m -> m.employeeId != null, "Employee not found"),
+						require(m -> m.departmentName != null && !m.departmentName.isEmpty(), "Department not found"),
+						require(m -> m.reportToId != null, "reportTo employee not found"))
+				.stage(m -> m.department = departmentRepo.findByDepartmentName(m.departmentName).orElse(null),
+						require(m -> m.department != null, "Department not found"))
+				.stage(this::loadMove,
+						require(m -> m.employee != null, "Employee not found"),
+						require(m -> !m.employeeIs(OrgDesignations.CEO), "Cannot move CEO to a department"),
+						when(m -> m.employeeIs(OrgDesignations.DEPT_HEAD), problem(m -> {
+							if (m.departmentHead != null && !m.departmentHead.getId().equals(m.employeeId)) {
+								return "Department Head alredy exsit";
+							}
+							return null;
+						})),
+						when(m -> m.employeeIs(OrgDesignations.DEPT_HEAD), problem(m -> {
+							if (m.manager == null) {
+								return "reportTo employee not found";
+							}
+							return m.manager.getDesignation().getOrgDesignations() == OrgDesignations.CEO ? null
+									: "department Head must report to CEO";
+						})),
+						when(Move::employeeIsStaffOrManager, require(m -> m.manager != null
+								&& m.manager.getDepartment() != null
+								&& m.manager.getDepartment().getId().equals(m.department.getId()),
+								"reportTo employee not found")),
+						when(m -> m.employee != null && m.manager != null, require(m -> !isInReportingLine(m),
+								"Employee cannot report to someone in their own reporting line")));
+	}
+
+	private void loadMove(Move m) {
+		String headRole = OrgService.uniqueRoleOf(OrgDesignations.DEPT_HEAD, m.department.getId());
+		List<Employee> rows = employeeRepo.findForMove(List.of(m.employeeId, m.reportToId), headRole);
+		for (Employee e : rows) {
+			if (e.getId().equals(m.employeeId)) {
+				m.employee = e;
+			}
+			if (e.getId().equals(m.reportToId)) {
+				m.manager = e;
+			}
+			if (headRole.equals(e.getUniqueRole())) {
+				m.departmentHead = e;
+			}
+		}
+	}
+
+	// True when the new manager is the employee or one of their (indirect) reports
+	private static boolean isInReportingLine(Move m) {
+		return m.manager.getId().equals(m.employee.getId()) || m.manager.getManagerPath()
+				.startsWith(OrgChartPaths.childPath(m.employee.getManagerPath(), m.employee.getId()));
+	}
+
+}
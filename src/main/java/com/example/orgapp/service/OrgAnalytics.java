@@ -0,0 +1,372 @@
+package com.example.orgapp.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.orgapp.dto.HeadcountDTO;
+import com.example.orgapp.dto.SpanOfControlDTO;
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.repository.DepartmentRepository;
+import com.example.orgapp.repository.EmployeeRepository;
+import com.example.orgapp.repository.OrgChangeRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Headcount, depth and span-of-control counters per department, patched from
+ * committed {@link OrgEvents} so reads are O(departments). A rebuild from two
+ * grouped queries runs at startup, after every reorg and on a schedule; the
+ * number of counters it had to correct is reported as drift. The one after a
+ * reorg runs in the background, so the reorg request does not wait for a
+ * recount of the whole org; until it is swapped in the counters still show
+ * the org before the reorg.
+ * <p>
+ * The recount runs without blocking the event listeners. It reads one
+ * snapshot of the database, together with the change feed offsets the
+ * snapshot contains, so that an event applied meanwhile can be told apart:
+ * it is replayed onto the recount unless its transaction's offset shows the
+ * recount already saw it.
+ */
+@Component
+public class OrgAnalytics {
+
+	static final String DRIFT = "org.analytics.drift";
+
+	private static final Set<OrgDesignations> MANAGING = EnumSet.of(OrgDesignations.CEO, OrgDesignations.DEPT_HEAD,
+			OrgDesignations.MANAGER);
+
+	private final EmployeeRepository employeeRepo;
+	private final DepartmentRepository departmentRepo;
+	private final OrgChangeRepository changeRepo;
+	private final OrgChangeFeed changeFeed;
+	private final TransactionTemplate snapshotTransaction;
+	private final Executor executor;
+	private final Counter drift;
+	// A rebuild after a reorg is queued and has not started yet; later reorgs ride along with it
+	private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+	// One rebuild at a time; never held together with this
+	private final Object rebuildLock = new Object();
+
+	// Guarded by this
+	private Aggregates aggregates = new Aggregates(0, Set.of());
+	// Events applied while a rebuild is counting, null otherwise; guarded by this
+	private List<AppliedEvent> journal;
+
+	public OrgAnalytics(EmployeeRepository employeeRepo, DepartmentRepository departmentRepo,
+			OrgChangeRepository changeRepo, OrgChangeFeed changeFeed, TransactionTemplate transactionTemplate,
+			@Qualifier("applicationTaskExecutor") Executor executor, MeterRegistry registry) {
+		this.employeeRepo = employeeRepo;
+		this.departmentRepo = departmentRepo;
+		this.changeRepo = changeRepo;
+		this.changeFeed = changeFeed;
+		// Its own transaction on the primary, even when called after a reorg has committed. H2 gives a
+		// serializable transaction one snapshot for all its statements; it only reads, so nothing conflicts.
+		this.snapshotTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+		this.executor = executor;
+		this.drift = registry.counter(DRIFT);
+	}
+
+	// ---------------- Reads ----------------
+
+	public List<HeadcountDTO> headcount() {
+		Map<Long, String> departments = departmentNames();
+		List<HeadcountDTO> result = new ArrayList<>();
+		synchronized (this) {
+			for (Map.Entry<Long, String> dept : withCeoRow(departments).entrySet()) {
+				long[] counts = aggregates.headcount.getOrDefault(dept.getKey(),
+						new long[OrgDesignations.values().length]);
+				Map<OrgDesignations, Long> byDesignation = new EnumMap<>(OrgDesignations.class);
+				long total = 0;
+				for (OrgDesignations d : OrgDesignations.values()) {
+					byDesignation.put(d, counts[d.ordinal()]);
+					total += counts[d.ordinal()];
+				}
+				TreeMap<Integer, Integer> depths = aggregates.depths.get(dept.getKey());
+				int maxDepth = depths == null || depths.isEmpty() ? 0 : depths.lastKey();
+				result.add(new HeadcountDTO(dept.getValue(), total, maxDepth, byDesignation));
+			}
+		}
+		return result;
+	}
+
+	public List<SpanOfControlDTO> spanOfControl() {
+		Map<Long, String> departments = departmentNames();
+		List<SpanOfControlDTO> result = new ArrayList<>();
+		synchronized (this) {
+			for (Map.Entry<Long, String> dept : withCeoRow(departments).entrySet()) {
+				TreeMap<Integer, Integer> spans = aggregates.spanHistogram.get(dept.getKey());
+				int managers = 0;
+				long reports = 0;
+				if (spans != null) {
+					for (Map.Entry<Integer, Integer> span : spans.entrySet()) {
+						managers += span.getValue();
+						reports += (long) span.getKey() * span.getValue();
+					}
+				}
+				int maxSpan = spans == null || spans.isEmpty() ? 0 : spans.lastKey();
+				result.add(new SpanOfControlDTO(dept.getValue(), managers, reports,
+						managers == 0 ? 0 : (double) reports / managers, maxSpan));
+			}
+		}
+		return result;
+	}
+
+	// Department ids to names in name order
+	private Map<Long, String> departmentNames() {
+		Map<Long, String> names = new LinkedHashMap<>();
+		departmentRepo.findAll().stream().sorted(Comparator.comparing(Department::getDepartmentName))
+				.forEach(d -> names.put(d.getId(), d.getDepartmentName()));
+		return names;
+	}
+
+	// The CEO has no department and is reported first under a null department
+	private Map<Long, String> withCeoRow(Map<Long, String> departments) {
+		if (!aggregates.headcount.containsKey(null)) {
+			return departments;
+		}
+		Map<Long, String> rows = new LinkedHashMap<>();
+		rows.put(null, null);
+		rows.putAll(departments);
+		return rows;
+	}
+
+	// ---------------- Incremental updates ----------------
+
+	@TransactionalEventListener
+	public void onEmployeeAdded(OrgEvents.EmployeeAdded e) {
+		applyCommitted(e);
+	}
+
+	@TransactionalEventListener
+	public void onEmployeeMoved(OrgEvents.EmployeeMoved e) {
+		applyCommitted(e);
+	}
+
+	// The recount reads the primary: a replica may not have the reorganisation yet. Events committed
+	// before it takes its snapshot are in the journal or the snapshot, see rebuild
+	@TransactionalEventListener
+	public void onReorganized(OrgEvents.Reorganized e) {
+		if (rebuildScheduled.compareAndSet(false, true)) {
+			executor.execute(() -> {
+				// Cleared first, so a reorg committed once the recount has started gets a rebuild of its own
+				rebuildScheduled.set(false);
+				rebuild();
+			});
+		}
+	}
+
+	private synchronized void applyCommitted(Object event) {
+		long offset = changeFeed.transactionOffset();
+		if (journal != null) {
+			journal.add(new AppliedEvent(offset, event));
+		}
+		if (!aggregates.includes(offset)) {
+			aggregates.apply(event);
+		}
+	}
+
+	// ---------------- Rebuild ----------------
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildAtStartup() {
+		rebuild();
+	}
+
+	@Scheduled(fixedDelayString = "${org.analytics.rebuild-interval:PT15M}",
+			initialDelayString = "${org.analytics.rebuild-interval:PT15M}")
+	public void scheduledRebuild() {
+		rebuild();
+	}
+
+	// Recount from the database and swap in the result; returns how many counters had drifted
+	public int rebuild() {
+		synchronized (rebuildLock) {
+			// Journaling starts first, so an event whose transaction completes past the floor is never missed
+			synchronized (this) {
+				journal = new ArrayList<>();
+			}
+			try {
+				long floor = changeFeed.completedOffset();
+				Aggregates fresh = snapshotTransaction.execute(status -> recount(floor));
+				synchronized (this) {
+					for (AppliedEvent e : journal) {
+						if (!fresh.includes(e.offset())) {
+							fresh.apply(e.event());
+						}
+					}
+					int drifted = aggregates.differences(fresh);
+					aggregates = fresh;
+					drift.increment(drifted);
+					return drifted;
+				}
+			} finally {
+				synchronized (this) {
+					journal = null;
+				}
+			}
+		}
+	}
+
+	// Everything up to the floor has committed before the snapshot; above it, the snapshot says what it saw
+	private Aggregates recount(long floor) {
+		Aggregates fresh = new Aggregates(floor, changeRepo.findOffsetsAfter(floor));
+		for (EmployeeRepository.HeadcountRow row : employeeRepo.countByDepartmentDesignationAndDepth()) {
+			fresh.count(row.getDepartmentId(), row.getDesignation(), row.getDepth(), row.getEmployees());
+		}
+		for (EmployeeRepository.SpanRow row : employeeRepo.countDirectReports(MANAGING)) {
+			fresh.addManager(row.getManagerId(), row.getDepartmentId(), (int) row.getReports());
+		}
+		return fresh;
+	}
+
+	private record AppliedEvent(long offset, Object event) {
+	}
+
+	// ---------------- Counters ----------------
+
+	private static final class Aggregates {
+		// Transactions the recount saw: everything up to the floor, and these offsets above it
+		final long floor;
+		final Set<Long> counted;
+		// Keyed by department id; the CEO is counted under null
+		final Map<Long, long[]> headcount = new HashMap<>();
+		final Map<Long, TreeMap<Integer, Integer>> depths = new HashMap<>();
+		// Direct reports per manager, and per department how many managers have each span
+		final Map<Long, Span> spans = new HashMap<>();
+		final Map<Long, TreeMap<Integer, Integer>> spanHistogram = new HashMap<>();
+
+		Aggregates(long floor, Set<Long> counted) {
+			this.floor = floor;
+			this.counted = counted;
+		}
+
+		// Offset 0 is a transaction that wrote no change, which no recount can have seen
+		boolean includes(long offset) {
+			return offset > 0 && (offset <= floor || counted.contains(offset));
+		}
+
+		void apply(Object event) {
+			if (event instanceof OrgEvents.EmployeeAdded e) {
+				count(e.departmentId(), e.designation(), e.depth(), 1);
+				if (MANAGING.contains(e.designation())) {
+					addManager(e.employeeId(), e.departmentId(), 0);
+				}
+				changeSpan(e.managerId(), 1);
+			} else if (event instanceof OrgEvents.EmployeeMoved e) {
+				count(e.fromDepartmentId(), e.designation(), e.fromDepth(), -1);
+				count(e.toDepartmentId(), e.designation(), e.toDepth(), 1);
+				changeSpan(e.fromManagerId(), -1);
+				changeSpan(e.toManagerId(), 1);
+				moveManager(e.employeeId(), e.toDepartmentId());
+			}
+		}
+
+		void count(Long departmentId, OrgDesignations designation, Integer depth, long delta) {
+			headcount.computeIfAbsent(departmentId, k -> new long[OrgDesignations.values().length])[designation
+					.ordinal()] += delta;
+			bump(depths, departmentId, depth == null ? 0 : depth, (int) delta);
+		}
+
+		void addManager(Long managerId, Long departmentId, int reports) {
+			spans.put(managerId, new Span(departmentId, reports));
+			bump(spanHistogram, departmentId, reports, 1);
+		}
+
+		// Unknown managers are left to the next rebuild
+		void changeSpan(Long managerId, int delta) {
+			Span span = managerId == null ? null : spans.get(managerId);
+			if (span != null) {
+				bump(spanHistogram, span.departmentId, span.reports, -1);
+				span.reports += delta;
+				bump(spanHistogram, span.departmentId, span.reports, 1);
+			}
+		}
+
+		void moveManager(Long managerId, Long departmentId) {
+			Span span = spans.get(managerId);
+			if (span != null) {
+				bump(spanHistogram, span.departmentId, span.reports, -1);
+				span.departmentId = departmentId;
+				bump(spanHistogram, span.departmentId, span.reports, 1);
+			}
+		}
+
+		int differences(Aggregates other) {
+			int n = 0;
+			Set<Long> departments = new HashSet<>(headcount.keySet());
+			departments.addAll(other.headcount.keySet());
+			long[] none = new long[OrgDesignations.values().length];
+			for (Long dept : departments) {
+				long[] a = headcount.getOrDefault(dept, none);
+				long[] b = other.headcount.getOrDefault(dept, none);
+				for (int i = 0; i < a.length; i++) {
+					if (a[i] != b[i]) {
+						n++;
+					}
+				}
+			}
+			Set<Long> managers = new HashSet<>(spans.keySet());
+			managers.addAll(other.spans.keySet());
+			for (Long manager : managers) {
+				if (!Objects.equals(spans.get(manager), other.spans.get(manager))) {
+					n++;
+				}
+			}
+			return n;
+		}
+
+		private static void bump(Map<Long, TreeMap<Integer, Integer>> histograms, Long departmentId, int key,
+				int delta) {
+			TreeMap<Integer, Integer> histogram = histograms.computeIfAbsent(departmentId, k -> new TreeMap<>());
+			if (histogram.merge(key, delta, Integer::sum) <= 0) {
+				histogram.remove(key);
+			}
+		}
+	}
+
+	private static final class Span {
+		Long departmentId;
+		int reports;
+
+		Span(Long departmentId, int reports) {
+			this.departmentId = departmentId;
+			this.reports = reports;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Span s && Objects.equals(departmentId, s.departmentId) && reports == s.reports;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(departmentId, reports);
+		}
+	}
+
+}
@@ -0,0 +1,280 @@
+package com.example.orgapp.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.orgapp.dto.ChangeDTO;
+import com.example.orgapp.dto.ChangePageDTO;
+import com.example.orgapp.dto.EmployeeDTO;
+import com.example.orgapp.entity.OrgChange;
+import com.example.orgapp.enums.ChangeType;
+import com.example.orgapp.repository.EmployeeRepository;
+import com.example.orgapp.repository.OrgChangeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Transactional outbox of org chart changes. {@link OrgEvents} published in a
+ * transaction are buffered and written as {@code org_change} rows just before
+ * it commits, each carrying the entity's state after the change.
+ * <p>
+ * Offsets come from a database sequence, so concurrent transactions insert
+ * their changes without waiting for each other and may commit out of offset
+ * order. Readers therefore stop below the lowest offset of any transaction
+ * still in progress ({@link #completedOffset()}), and a consumer that has read
+ * up to offset N never sees a change below N appear later. Transactions in
+ * progress are tracked in memory, which assumes a single application instance
+ * writes to the database; that holds for the embedded H2 setup.
+ */
+@Component
+public class OrgChangeFeed {
+
+	static final int DEFAULT_LIMIT = 500;
+	static final int MAX_LIMIT = 5000;
+
+	private final OrgChangeRepository changeRepo;
+	private final EmployeeRepository employeeRepo;
+	private final EntityManager entityManager;
+	private final ObjectMapper objectMapper;
+	private final Executor executor;
+	private final Duration retention;
+
+	// Highest offset taken from the sequence so far
+	private final AtomicLong allocatedOffset = new AtomicLong();
+	// Transactions from just before taking offsets until they complete
+	private final Set<PendingChanges> inFlight = ConcurrentHashMap.newKeySet();
+	// Completed and replaced whenever changes commit; long polls wait on it
+	private final AtomicReference<CompletableFuture<Void>> nextCommit = new AtomicReference<>(new CompletableFuture<>());
+
+	public OrgChangeFeed(OrgChangeRepository changeRepo, EmployeeRepository employeeRepo, EntityManager entityManager,
+			ObjectMapper objectMapper, @Qualifier("applicationTaskExecutor") Executor executor,
+			@Value("${org.changes.retention:P7D}") Duration retention) {
+		this.changeRepo = changeRepo;
+		this.employeeRepo = employeeRepo;
+		this.entityManager = entityManager;
+		this.objectMapper = objectMapper;
+		this.executor = executor;
+		this.retention = retention;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadOffset() {
+		allocatedOffset.accumulateAndGet(changeRepo.findMaxOffset(), Math::max);
+	}
+
+	// Every transaction up to this offset has completed, and its after-commit listeners have run.
+	// A transaction registers before it takes offsets, and the sequence only grows, so any
+	// offset up to the allocated one read first belongs to a transaction that is either
+	// completed or in the set, where its lower bound holds the result below it.
+	public long completedOffset() {
+		long completed = allocatedOffset.get();
+		for (PendingChanges pending : inFlight) {
+			completed = Math.min(completed, pending.firstOffset - 1);
+		}
+		return completed;
+	}
+
+	// For after-commit listeners: the last offset written by the transaction that just committed, 0 if none
+	public long transactionOffset() {
+		PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+		return pending == null ? 0 : pending.maxOffset;
+	}
+
+	// ---------------- Reads ----------------
+
+	public ChangePageDTO read(long since, Integer limit) {
+		long completed = completedOffset();
+		if (since >= completed) {
+			return new ChangePageDTO(List.of(), since);
+		}
+		int size = limit == null ? DEFAULT_LIMIT : Math.min(Math.max(limit, 1), MAX_LIMIT);
+		List<ChangeDTO> changes = new ArrayList<>();
+		for (OrgChange c : changeRepo.findByOffsetGreaterThanAndOffsetLessThanEqualOrderByOffset(since, completed,
+				Limit.of(size))) {
+			changes.add(new ChangeDTO(c.getOffset(), c.getChangeType(), c.getPayload(), c.getCreatedAt()));
+		}
+		return new ChangePageDTO(changes, changes.isEmpty() ? since : changes.get(changes.size() - 1).getOffset());
+	}
+
+	// Changes after the offset, waiting up to the given time for the next commit if there are none yet
+	public CompletableFuture<ChangePageDTO> poll(long since, Integer limit, Duration wait) {
+		return pollUntil(since, limit, System.nanoTime() + wait.toNanos());
+	}
+
+	// A commit can leave the new changes hidden behind a transaction still in flight, so the read
+	// after each commit waits again, until there is something to return or the time is up
+	private CompletableFuture<ChangePageDTO> pollUntil(long since, Integer limit, long deadline) {
+		// Taken before reading so a commit between the read and the wait is not missed
+		CompletableFuture<Void> commit = nextCommit.get();
+		ChangePageDTO page = read(since, limit);
+		long remaining = deadline - System.nanoTime();
+		if (!page.getChanges().isEmpty() || remaining <= 0) {
+			return CompletableFuture.completedFuture(page);
+		}
+		return commit.thenComposeAsync(v -> pollUntil(since, limit, deadline), executor)
+				.completeOnTimeout(page, remaining, TimeUnit.NANOSECONDS);
+	}
+
+	// ---------------- Compaction ----------------
+
+	// Superseded changes are kept for the retention period; the latest change per entity is kept for
+	// good, so a consumer starting from offset 0 still receives the current state of everything
+	@Scheduled(fixedDelayString = "${org.changes.compaction-interval:PT1H}",
+			initialDelayString = "${org.changes.compaction-interval:PT1H}")
+	@Transactional
+	public int compact() {
+		return changeRepo.deleteSupersededBefore(Instant.now().minus(retention));
+	}
+
+	// ---------------- Outbox ----------------
+
+	@EventListener
+	public void onEmployeeAdded(OrgEvents.EmployeeAdded e) {
+		pending().employee(ChangeType.EMPLOYEE_ADDED, e.employeeId());
+	}
+
+	@EventListener
+	public void onEmployeeMoved(OrgEvents.EmployeeMoved e) {
+		pending().employee(ChangeType.EMPLOYEE_MOVED, e.employeeId());
+	}
+
+	@EventListener
+	public void onReorganized(OrgEvents.Reorganized e) {
+		PendingChanges pending = pending();
+		e.movedIds().forEach(id -> pending.employee(ChangeType.EMPLOYEE_MOVED, id));
+		pending.subtrees.addAll(e.movedSubtrees());
+	}
+
+	@EventListener
+	public void onDepartmentAdded(OrgEvents.DepartmentAdded e) {
+		pending().changes.add(new Pending(ChangeType.DEPARTMENT_ADDED, "department:" + e.departmentId(), null,
+				Map.of("id", e.departmentId(), "departmentName", e.departmentName())));
+	}
+
+	// Changes of the current transaction, flushed to the outbox just before it commits
+	private PendingChanges pending() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("Org changes must be published inside a transaction");
+		}
+		PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+		if (pending == null) {
+			pending = new PendingChanges();
+			TransactionSynchronizationManager.bindResource(this, pending);
+			TransactionSynchronizationManager.registerSynchronization(pending);
+		}
+		return pending;
+	}
+
+	private record Pending(ChangeType type, String entityKey, Long employeeId, Object state) {
+	}
+
+	private final class PendingChanges implements TransactionSynchronization {
+		final List<Pending> changes = new ArrayList<>();
+		final Set<Long> employeeIds = new LinkedHashSet<>();
+		final List<String> subtrees = new ArrayList<>();
+		// Lower bound of the offsets this transaction takes, set once it is in flight
+		volatile long firstOffset;
+		boolean registered;
+		long maxOffset;
+
+		void employee(ChangeType type, Long id) {
+			changes.add(new Pending(type, "employee:" + id, id, null));
+			employeeIds.add(id);
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			// Current state of every changed employee in one query, plus the rows carried along by subtree moves
+			Map<Long, EmployeeDTO> states = new HashMap<>();
+			if (!employeeIds.isEmpty()) {
+				employeeRepo.findDtoByIdIn(employeeIds).forEach(dto -> states.put(dto.getId(), dto));
+			}
+			for (String prefix : subtrees) {
+				for (EmployeeDTO dto : employeeRepo.findDtoSubtree(prefix, Integer.MAX_VALUE)) {
+					if (states.putIfAbsent(dto.getId(), dto) == null) {
+						changes.add(new Pending(ChangeType.EMPLOYEE_MOVED, "employee:" + dto.getId(), dto.getId(), null));
+					}
+				}
+			}
+
+			Instant now = Instant.now();
+			List<OrgChange> rows = new ArrayList<>();
+			for (Pending p : changes) {
+				Object state = p.employeeId() == null ? p.state() : states.get(p.employeeId());
+				if (state == null) {
+					continue;
+				}
+				OrgChange change = new OrgChange();
+				change.setChangeType(p.type());
+				change.setEntityKey(p.entityKey());
+				change.setPayload(toJson(state));
+				change.setCreatedAt(now);
+				rows.add(change);
+			}
+			if (rows.isEmpty()) {
+				return;
+			}
+
+			// In flight before taking offsets, so readers never pass one this transaction may still commit
+			firstOffset = allocatedOffset.get() + 1;
+			inFlight.add(this);
+			registered = true;
+			List<Long> offsets = new ArrayList<>(changeRepo.nextOffsets(rows.size()));
+			offsets.sort(null);
+			for (int i = 0; i < rows.size(); i++) {
+				rows.get(i).setOffset(offsets.get(i));
+				entityManager.persist(rows.get(i));
+			}
+			maxOffset = offsets.get(offsets.size() - 1);
+			allocatedOffset.accumulateAndGet(maxOffset, Math::max);
+			entityManager.flush();
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(OrgChangeFeed.this);
+			if (!registered) {
+				return;
+			}
+			// Offsets of a rolled back transaction are simply skipped
+			inFlight.remove(this);
+			if (status == STATUS_COMMITTED) {
+				nextCommit.getAndSet(new CompletableFuture<>()).complete(null);
+			}
+		}
+	}
+
+	private String toJson(Object state) {
+		try {
+			return objectMapper.writeValueAsString(state);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Cannot serialize change", e);
+		}
+	}
+
+}
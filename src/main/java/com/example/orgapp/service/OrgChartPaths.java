@@ -0,0 +1,37 @@
+package com.example.orgapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for the materialized org-chart path stored on each employee: the ids
+ * of all managers from the CEO down to the direct manager, e.g. {@code /1/4/9/}.
+ * The CEO has the root path {@code /}.
+ */
+public final class OrgChartPaths {
+
+	public static final String ROOT = "/";
+
+	private OrgChartPaths() {
+	}
+
+	// Path of anyone reporting directly to the given manager
+	public static String childPath(String managerPath, Long managerId) {
+		return managerPath + managerId + "/";
+	}
+
+	// Manager ids from the CEO down to the direct manager
+	public static List<Long> ancestorIds(String managerPath) {
+		List<Long> ids = new ArrayList<>();
+		if (managerPath == null) {
+			return ids;
+		}
+		for (String part : managerPath.split("/")) {
+			if (!part.isEmpty()) {
+				ids.add(Long.valueOf(part));
+			}
+		}
+		return ids;
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.example.orgapp.service;
+
+import java.util.List;
+
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+
+/**
+ * Changes to the org chart, published inside the transaction that makes them.
+ * Listeners that keep derived state use {@code @TransactionalEventListener}
+ * so they only ever see committed changes.
+ */
+public final class OrgEvents {
+
+	private OrgEvents() {
+	}
+
+	public record EmployeeAdded(Long employeeId, String name, String mobileNumber, OrgDesignations designation,
+			Long departmentId, Long managerId, int depth) {
+
+		static EmployeeAdded of(Employee e) {
+			return new EmployeeAdded(e.getId(), e.getName(), e.getMobileNumber(), e.getDesignation().getOrgDesignations(),
+					e.getDepartment() == null ? null : e.getDepartment().getId(),
+					e.getReportTo() == null ? null : e.getReportTo().getId(), e.getDepth());
+		}
+	}
+
+	public record EmployeeMoved(Long employeeId, OrgDesignations designation, Long fromDepartmentId,
+			Long toDepartmentId, Long fromManagerId, Long toManagerId, int fromDepth, int toDepth) {
+	}
+
+	// Many rows changed at once by a reorg: the moved employees, and the new path prefixes of the
+	// subtrees that moved along with them. Derived state is rebuilt rather than patched.
+	public record Reorganized(int rowsTouched, List<Long> movedIds, List<String> movedSubtrees) {
+	}
+
+	public record DepartmentAdded(Long departmentId, String departmentName) {
+	}
+
+}
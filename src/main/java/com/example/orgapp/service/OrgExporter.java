@@ -0,0 +1,244 @@
+package com.example.orgapp.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.orgapp.dto.EmployeeDTO;
+import com.example.orgapp.dto.ExportDTO;
+import com.example.orgapp.repository.EmployeeRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Nightly export of the whole org for BI, so nobody has to crawl the
+ * department listings. Every employee, with the names of their department
+ * and designation and the id of their manager, is read through one
+ * forward-only cursor and written straight to a gzipped CSV in
+ * {@code org.export.directory}; memory use does not depend on the size of
+ * the org. The columns are those of the employee listings, in the same
+ * camelCase the bulk CSV import reads.
+ * <p>
+ * A file only appears under its final name once it is complete, and the
+ * newest {@code org.export.keep} files are kept. {@code GET /api/export}
+ * serves the newest one.
+ */
+@Component
+public class OrgExporter {
+
+	static final String RUNS = "org.export.runs";
+	static final String ROWS = "org.export.rows";
+	static final String SIZE = "org.export.size";
+	static final String THROUGHPUT = "org.export.throughput";
+
+	static final String HEADER = "id,name,mobileNumber,department,designation,reportTo";
+
+	private static final String PREFIX = "org-";
+	private static final String SUFFIX = ".csv.gz";
+	// Sorts like the timestamps it encodes, so the newest file is the last name
+	private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS'Z'")
+			.withZone(ZoneOffset.UTC);
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final Logger log = LoggerFactory.getLogger(OrgExporter.class);
+
+	private final EmployeeRepository employeeRepo;
+	// Read-only, so with a replica configured the export does not load the primary
+	private final TransactionTemplate exportTransaction;
+	private final MeterRegistry registry;
+	private final Path directory;
+	private final int keep;
+
+	private final Counter rows;
+	private final DistributionSummary size;
+	// One export at a time; a second request waits for the running one and then starts its own
+	private final ReentrantLock running = new ReentrantLock();
+	private volatile double lastThroughput;
+
+	public OrgExporter(EmployeeRepository employeeRepo, PlatformTransactionManager transactionManager,
+			MeterRegistry registry, @Value("${org.export.directory:./data/export}") Path directory,
+			@Value("${org.export.keep:7}") int keep) {
+		this.employeeRepo = employeeRepo;
+		this.exportTransaction = new TransactionTemplate(transactionManager);
+		this.exportTransaction.setReadOnly(true);
+		this.registry = registry;
+		this.directory = directory;
+		this.keep = Math.max(keep, 1);
+		this.rows = Counter.builder(ROWS).description("Employees written to exports").register(registry);
+		this.size = DistributionSummary.builder(SIZE).description("Compressed size of an export")
+				.baseUnit("bytes").register(registry);
+		Gauge.builder(THROUGHPUT, this, e -> e.lastThroughput)
+				.description("Employees per second written by the last export").register(registry);
+	}
+
+	// ---------------- Export ----------------
+
+	@Scheduled(cron = "${org.export.cron:0 0 2 * * *}")
+	public void scheduledExport() {
+		try {
+			export();
+		} catch (RuntimeException e) {
+			log.warn("Org export failed", e);
+		}
+	}
+
+	public ExportDTO export() {
+		running.lock();
+		Timer.Sample sample = Timer.start(registry);
+		String outcome = "error";
+		try {
+			ExportDTO done = write();
+			outcome = "success";
+			return done;
+		} finally {
+			sample.stop(Timer.builder(RUNS).description("Time taken by org exports").tag("outcome", outcome)
+					.register(registry));
+			running.unlock();
+		}
+	}
+
+	private ExportDTO write() {
+		Instant createdAt = Instant.now();
+		long started = System.nanoTime();
+		String name = PREFIX + STAMP.format(createdAt) + SUFFIX;
+		Path file = directory.resolve(name);
+		Path partial = directory.resolve(name + ".part");
+		long written;
+		try {
+			Files.createDirectories(directory);
+			try (Writer out = new BufferedWriter(new OutputStreamWriter(
+					new GZIPOutputStream(Files.newOutputStream(partial), BUFFER_SIZE), StandardCharsets.UTF_8),
+					BUFFER_SIZE)) {
+				out.write(HEADER);
+				out.write('\n');
+				written = exportTransaction.execute(status -> writeRows(out));
+			}
+			Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException | RuntimeException e) {
+			deleteQuietly(partial);
+			throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+		}
+		long bytes = sizeOf(file);
+		long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+		rows.increment(written);
+		size.record(bytes);
+		lastThroughput = written * 1000.0 / Math.max(durationMs, 1);
+		log.info("Exported {} employees to {} ({} bytes in {} ms)", written, file, bytes, durationMs);
+		prune();
+		return new ExportDTO(name, written, bytes, createdAt, durationMs);
+	}
+
+	private long writeRows(Writer out) {
+		long written = 0;
+		try (Stream<EmployeeDTO> employees = employeeRepo.streamExportRows()) {
+			for (EmployeeDTO e : (Iterable<EmployeeDTO>) employees::iterator) {
+				out.write(String.valueOf(e.getId()));
+				out.write(',');
+				out.write(csv(e.getName()));
+				out.write(',');
+				out.write(csv(e.getMobileNumber()));
+				out.write(',');
+				out.write(csv(e.getDepartment()));
+				out.write(',');
+				out.write(csv(e.getDesignation()));
+				out.write(',');
+				out.write(e.getReportTo() == null ? "" : String.valueOf(e.getReportTo()));
+				out.write('\n');
+				written++;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return written;
+	}
+
+	// RFC 4180: empty for null, quoted when the value holds a separator, quote or line break
+	static String csv(String value) {
+		if (value == null) {
+			return "";
+		}
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+				return '"' + value.replace("\"", "\"\"") + '"';
+			}
+		}
+		return value;
+	}
+
+	// ---------------- Files ----------------
+
+	// The newest complete export, or null when there is none yet
+	public Path latest() {
+		List<Path> exports = exports();
+		return exports.isEmpty() ? null : exports.get(exports.size() - 1);
+	}
+
+	private void prune() {
+		List<Path> exports = exports();
+		for (Path old : exports.subList(0, Math.max(exports.size() - keep, 0))) {
+			deleteQuietly(old);
+		}
+	}
+
+	// Complete exports, oldest first
+	private List<Path> exports() {
+		List<Path> exports = new ArrayList<>();
+		if (!Files.isDirectory(directory)) {
+			return exports;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+			files.forEach(exports::add);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		exports.sort(Comparator.comparing(p -> p.getFileName().toString()));
+		return exports;
+	}
+
+	private static long sizeOf(Path file) {
+		try {
+			return Files.size(file);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			log.warn("Could not delete {}", file, e);
+		}
+	}
+
+}
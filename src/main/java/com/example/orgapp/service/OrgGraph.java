@@ -0,0 +1,799 @@
+package com.example.orgapp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.orgapp.dto.EmployeeDTO;
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.repository.DepartmentRepository;
+import com.example.orgapp.repository.EmployeeRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory org chart for the hierarchy reads served most often: the direct
+ * reports of a manager and the members of a department. Enabled with
+ * {@code org.graph.enabled}; until it is loaded, and while a reorg is being
+ * reloaded, {@link #snapshot()} is null and the reads go to the database.
+ * <p>
+ * The base is a set of primitive arrays indexed by employee id: manager,
+ * department and designation, name and mobile number as UTF-8 in one byte
+ * array, and the reports of every manager and the members of every
+ * department as CSR lists (an offsets array into one array of ids, each list
+ * in id order). That is about 50 bytes per employee, see {@link #bytes()}.
+ * <p>
+ * Committed adds and moves go into a small overlay. Every commit publishes a
+ * new immutable snapshot, so readers never lock and always see one
+ * consistent state. Once the overlay holds {@value #OVERLAY_LIMIT} employees
+ * it is folded into a new base in the background; a reorg reloads the base
+ * from the database, as does the periodic rebuild.
+ */
+@Component
+public class OrgGraph {
+
+	static final int OVERLAY_LIMIT = 4_096;
+	// Ids index the arrays, so they must stay dense (they come from the pooled employee_seq); beyond this the
+	// graph stays off
+	static final int MAX_ID = 1 << 27;
+	// Designation codes are the ordinal + 1, so 0 can mean no employee; a null name is flagged in the same byte
+	private static final int NO_DESIGNATION = 0x3F;
+	private static final int NULL_NAME = 0x40;
+
+	private static final Logger log = LoggerFactory.getLogger(OrgGraph.class);
+	private static final OrgDesignations[] DESIGNATIONS = OrgDesignations.values();
+
+	private final EmployeeRepository employeeRepo;
+	private final DepartmentRepository departmentRepo;
+	// Not read-only, so loads read the primary: only changes committed after a load starts are replayed onto it
+	private final TransactionTemplate loadTransaction;
+	private final Executor executor;
+	private final boolean enabled;
+
+	// Null until loaded and while a reorg is being reloaded
+	private volatile Snapshot snapshot;
+	// Serializes rebuilds and merges
+	private final ReentrantLock maintenance = new ReentrantLock();
+	private final AtomicBoolean mergeScheduled = new AtomicBoolean();
+	// Guarded by this: changes committed while a new base is built, replayed onto it before it is published
+	private List<Object> journal;
+	// Guarded by this: a reorg committed while a new base was built, so that base is already out of date
+	private boolean reloadRequired;
+
+	public OrgGraph(EmployeeRepository employeeRepo, DepartmentRepository departmentRepo,
+			PlatformTransactionManager transactionManager, @Qualifier("applicationTaskExecutor") Executor executor,
+			MeterRegistry registry, @Value("${org.graph.enabled:false}") boolean enabled) {
+		this.employeeRepo = employeeRepo;
+		this.departmentRepo = departmentRepo;
+		this.loadTransaction = new TransactionTemplate(transactionManager);
+		this.executor = executor;
+		this.enabled = enabled;
+		Gauge.builder("org.graph.employees", this, g -> g.snapshot == null ? 0 : g.snapshot.size())
+				.description("Employees in the in-memory org graph").register(registry);
+		Gauge.builder("org.graph.bytes", this, OrgGraph::bytes)
+				.description("Approximate heap held by the in-memory org graph").baseUnit("bytes").register(registry);
+	}
+
+	// The current state, or null when the graph is off or not loaded; readers should take it once per request
+	public Snapshot snapshot() {
+		return snapshot;
+	}
+
+	public long bytes() {
+		Snapshot s = snapshot;
+		return s == null ? 0 : s.bytes();
+	}
+
+	// ---------------- Updates ----------------
+	// Collected per transaction and applied as one change after it commits. afterCommit runs before any
+	// @TransactionalEventListener, so the OrgVersions tag never runs ahead of the graph.
+
+	@EventListener
+	public void onEmployeeAdded(OrgEvents.EmployeeAdded e) {
+		collect(e);
+	}
+
+	@EventListener
+	public void onEmployeeMoved(OrgEvents.EmployeeMoved e) {
+		collect(e);
+	}
+
+	@EventListener
+	public void onDepartmentAdded(OrgEvents.DepartmentAdded e) {
+		collect(e);
+	}
+
+	@EventListener
+	public void onReorganized(OrgEvents.Reorganized e) {
+		collect(e);
+	}
+
+	private void collect(Object change) {
+		if (!enabled) {
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			apply(List.of(change));
+			return;
+		}
+		PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+		if (pending == null) {
+			pending = new PendingChanges();
+			TransactionSynchronizationManager.bindResource(this, pending);
+			TransactionSynchronizationManager.registerSynchronization(pending);
+		}
+		pending.changes.add(change);
+	}
+
+	private void apply(List<Object> changes) {
+		if (changes.stream().anyMatch(OrgEvents.Reorganized.class::isInstance)) {
+			// Too many rows change to patch; reads use the database until the reload is published
+			synchronized (this) {
+				snapshot = null;
+				reloadRequired = journal != null;
+			}
+			executor.execute(this::rebuild);
+			return;
+		}
+		int overlay;
+		synchronized (this) {
+			if (journal != null) {
+				journal.addAll(changes);
+			}
+			Snapshot s = snapshot;
+			if (s == null) {
+				return;
+			}
+			try {
+				s = s.apply(changes);
+			} catch (RuntimeException e) {
+				// E.g. an id the arrays cannot hold; reads use the database until a rebuild succeeds
+				log.warn("Org graph switched off", e);
+				snapshot = null;
+				return;
+			}
+			snapshot = s;
+			overlay = s.overlay.rows.size();
+		}
+		if (overlay >= OVERLAY_LIMIT && mergeScheduled.compareAndSet(false, true)) {
+			executor.execute(this::merge);
+		}
+	}
+
+	private final class PendingChanges implements TransactionSynchronization {
+		final List<Object> changes = new ArrayList<>();
+
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE;
+		}
+
+		@Override
+		public void afterCommit() {
+			apply(changes);
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(OrgGraph.this);
+		}
+	}
+
+	// Folds the overlay into a new base
+	public void merge() {
+		maintenance.lock();
+		try {
+			Snapshot current;
+			synchronized (this) {
+				current = snapshot;
+				if (current == null) {
+					return;
+				}
+				startJournal();
+			}
+			publish(new Snapshot(Base.build(current.rows()), Overlay.EMPTY, current.departments));
+		} finally {
+			mergeScheduled.set(false);
+			maintenance.unlock();
+		}
+	}
+
+	// ---------------- Rebuild ----------------
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildAtStartup() {
+		rebuild();
+	}
+
+	@Scheduled(fixedDelayString = "${org.graph.rebuild-interval:PT1H}",
+			initialDelayString = "${org.graph.rebuild-interval:PT1H}")
+	public void scheduledRebuild() {
+		rebuild();
+	}
+
+	// Reload everything from the database; changes committed meanwhile are replayed onto the result
+	public void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		maintenance.lock();
+		try {
+			synchronized (this) {
+				startJournal();
+			}
+			Snapshot loaded;
+			try {
+				loaded = loadTransaction.execute(status -> load());
+			} catch (RuntimeException e) {
+				log.warn("Org graph not loaded, hierarchy reads use the database", e);
+				synchronized (this) {
+					journal = null;
+				}
+				return;
+			}
+			publish(loaded);
+		} finally {
+			maintenance.unlock();
+		}
+	}
+
+	private Snapshot load() {
+		Rows rows = new Rows();
+		try (Stream<EmployeeRepository.GraphRow> stream = employeeRepo.streamGraphRows()) {
+			stream.forEach(row -> rows.add(new Row(index(row.getId()), index(row.getManagerId()),
+					index(row.getDepartmentId()), code(row.getDesignation()), row.getName(), row.getMobileNumber())));
+		}
+		Map<Long, String> departments = new HashMap<>();
+		for (Department d : departmentRepo.findAll()) {
+			departments.put(d.getId(), d.getDepartmentName());
+		}
+		return new Snapshot(Base.build(rows), Overlay.EMPTY, Departments.of(departments));
+	}
+
+	private void startJournal() {
+		journal = new ArrayList<>();
+		reloadRequired = false;
+	}
+
+	private synchronized void publish(Snapshot built) {
+		List<Object> changes = journal;
+		journal = null;
+		if (reloadRequired) {
+			// A reorg committed meanwhile; its own reload follows
+			return;
+		}
+		try {
+			snapshot = built.apply(changes);
+		} catch (RuntimeException e) {
+			log.warn("Org graph not loaded, hierarchy reads use the database", e);
+		}
+	}
+
+	private static int index(Long id) {
+		if (id == null) {
+			return 0;
+		}
+		if (id <= 0 || id > MAX_ID) {
+			throw new IllegalStateException("Id " + id + " is out of the org graph's range");
+		}
+		return id.intValue();
+	}
+
+	private static byte code(OrgDesignations designation) {
+		return (byte) (designation == null ? NO_DESIGNATION : designation.ordinal() + 1);
+	}
+
+	private static OrgDesignations designation(byte code) {
+		return code == NO_DESIGNATION ? null : DESIGNATIONS[code - 1];
+	}
+
+	// ---------------- Snapshot ----------------
+
+	/**
+	 * One immutable state of the graph. Lists are in id order, like the
+	 * repository queries they replace.
+	 */
+	public static final class Snapshot {
+
+		private final Base base;
+		private final Overlay overlay;
+		private final Departments departments;
+
+		private Snapshot(Base base, Overlay overlay, Departments departments) {
+			this.base = base;
+			this.overlay = overlay;
+			this.departments = departments;
+		}
+
+		public boolean contains(long id) {
+			return codeOf(id) != 0;
+		}
+
+		// Null when the employee is unknown or has no designation
+		public OrgDesignations designationOf(long id) {
+			byte code = codeOf(id);
+			return code == 0 ? null : designation(code);
+		}
+
+		// Null when the employee is unknown or in no department (the CEO)
+		public Long departmentOf(long id) {
+			if (codeOf(id) == 0) {
+				return null;
+			}
+			Row changed = overlay.rows.get((int) id);
+			int department = changed != null ? changed.department() : base.department((int) id);
+			return department == 0 ? null : (long) department;
+		}
+
+		// Null when there is no such department
+		public Long departmentId(String departmentName) {
+			return departments.ids.get(departmentName);
+		}
+
+		// Employees reporting to the manager who are in the given department
+		public List<EmployeeDTO> reports(long managerId, long departmentId) {
+			List<EmployeeDTO> found = new ArrayList<>();
+			if (managerId <= 0 || managerId > MAX_ID) {
+				return found;
+			}
+			int manager = (int) managerId;
+			int[] extra = overlay.reports.getOrDefault(manager, Overlay.NONE);
+			int from = manager < base.slots ? base.reportStart[manager] : 0;
+			int to = manager < base.slots ? base.reportStart[manager + 1] : 0;
+			collect(base.reports, from, to, extra, 0, Integer.MAX_VALUE, true, manager, departmentId, found);
+			return found;
+		}
+
+		// Members of the department with an id above afterId, at most limit of them
+		public List<EmployeeDTO> members(long departmentId, long afterId, int limit) {
+			List<EmployeeDTO> found = new ArrayList<>(Math.min(limit, 1024));
+			if (departmentId <= 0 || departmentId > MAX_ID) {
+				return found;
+			}
+			int department = (int) departmentId;
+			int[] extra = overlay.members.getOrDefault(department, Overlay.NONE);
+			int from = department < base.departmentSlots ? base.memberStart[department] : 0;
+			int to = department < base.departmentSlots ? base.memberStart[department + 1] : 0;
+			collect(base.members, from, to, extra, afterId, limit, false, department, departmentId, found);
+			return found;
+		}
+
+		public int size() {
+			return base.count + overlay.added;
+		}
+
+		long bytes() {
+			return base.bytes() + overlay.bytes();
+		}
+
+		// Merges a base list (still to be checked against the overlay) with the overlay's additions to it.
+		// The two are disjoint: the overlay only lists employees the base does not have under that key.
+		private void collect(int[] baseIds, int from, int to, int[] extra, long afterId, int limit, boolean byManager,
+				int key, long departmentId, List<EmployeeDTO> found) {
+			int i = lowerBound(baseIds, from, to, afterId);
+			int j = lowerBound(extra, 0, extra.length, afterId);
+			while (found.size() < limit && (i < to || j < extra.length)) {
+				Row row;
+				if (j >= extra.length || (i < to && baseIds[i] < extra[j])) {
+					int id = baseIds[i++];
+					row = overlay.rows.get(id);
+					if (row == null) {
+						// Unchanged since the base was built; only decoded when it is returned
+						if (base.departments[id] != departmentId) {
+							continue;
+						}
+						row = base.row(id);
+					} else if ((byManager ? row.manager() : row.department()) != key) {
+						continue;
+					}
+				} else {
+					row = overlay.rows.get(extra[j++]);
+				}
+				if (row.department() == departmentId) {
+					found.add(toDto(row));
+				}
+			}
+		}
+
+		private EmployeeDTO toDto(Row row) {
+			return new EmployeeDTO((long) row.id(), row.name(), row.mobileNumber(),
+					row.department() == 0 ? null : departments.names.get((long) row.department()),
+					designation(row.designation()),
+					row.manager() == 0 ? null : (long) row.manager());
+		}
+
+		// Designation code of the employee without decoding anything, 0 when unknown
+		private byte codeOf(long id) {
+			if (id <= 0 || id > MAX_ID) {
+				return 0;
+			}
+			Row changed = overlay.rows.get((int) id);
+			return changed != null ? changed.designation() : base.code((int) id);
+		}
+
+		private Snapshot apply(List<Object> changes) {
+			Overlay.Editor edited = overlay.edit();
+			Departments departments = this.departments;
+			for (Object change : changes) {
+				if (change instanceof OrgEvents.EmployeeAdded e) {
+					Row row = new Row(index(e.employeeId()), index(e.managerId()), index(e.departmentId()),
+							code(e.designation()), e.name(), e.mobileNumber());
+					edited.put(row, current(edited, row.id()), base);
+				} else if (change instanceof OrgEvents.EmployeeMoved e) {
+					Row current = current(edited, index(e.employeeId()));
+					if (current != null) {
+						edited.put(new Row(current.id(), index(e.toManagerId()), index(e.toDepartmentId()),
+								code(e.designation()), current.name(), current.mobileNumber()), current, base);
+					}
+				} else if (change instanceof OrgEvents.DepartmentAdded e) {
+					departments = departments.with(e.departmentId(), e.departmentName());
+				}
+			}
+			return new Snapshot(base, edited.freeze(), departments);
+		}
+
+		private Row current(Overlay.Editor edited, int id) {
+			Row changed = edited.rows.get(id);
+			return changed != null ? changed : base.row(id);
+		}
+
+		// Every employee in id order, the overlay taking precedence over the base
+		private Rows rows() {
+			int[] changed = overlay.rows.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+			Rows rows = new Rows();
+			int j = 0;
+			for (int id = 1; id < base.slots; id++) {
+				while (j < changed.length && changed[j] < id) {
+					rows.add(overlay.rows.get(changed[j++]));
+				}
+				if (j < changed.length && changed[j] == id) {
+					rows.add(overlay.rows.get(changed[j++]));
+				} else if (base.designations[id] != 0) {
+					rows.add(id, base, id);
+				}
+			}
+			while (j < changed.length) {
+				rows.add(overlay.rows.get(changed[j++]));
+			}
+			return rows;
+		}
+
+		private static int lowerBound(int[] sorted, int from, int to, long afterId) {
+			if (afterId <= 0) {
+				return from;
+			}
+			int key = (int) Math.min(afterId, Integer.MAX_VALUE - 1) + 1;
+			int i = Arrays.binarySearch(sorted, from, to, key);
+			return i < 0 ? -i - 1 : i;
+		}
+	}
+
+	// designation is the code, never 0 and without the NULL_NAME flag, which only the base arrays carry
+	private record Row(int id, int manager, int department, byte designation, String name, String mobileNumber) {
+	}
+
+	// ---------------- Base ----------------
+
+	private static final class Base {
+
+		// Slots are employee ids; 0 in managers/departments means none, 0 in designations means no employee,
+		// otherwise it holds the designation code and the NULL_NAME flag
+		final int slots;
+		final int count;
+		final int[] managers;
+		final int[] departments;
+		final byte[] designations;
+		// Name of id i is text[textAt[2i], textAt[2i + 1]), its mobile number text[textAt[2i + 1], textAt[2i + 2])
+		final int[] textAt;
+		final byte[] text;
+		// Reports of manager m are reports[reportStart[m], reportStart[m + 1]), members of a department likewise
+		final int[] reportStart;
+		final int[] reports;
+		final int departmentSlots;
+		final int[] memberStart;
+		final int[] members;
+
+		private Base(Rows rows) {
+			count = rows.size;
+			slots = (count == 0 ? 0 : rows.ids[count - 1]) + 1;
+			managers = new int[slots];
+			departments = new int[slots];
+			designations = new byte[slots];
+			textAt = new int[2 * slots + 1];
+			text = Arrays.copyOf(rows.text, rows.textSize);
+			int maxDepartment = 0;
+			int r = 0;
+			int end = 0;
+			for (int id = 0; id < slots; id++) {
+				if (r < count && rows.ids[r] == id) {
+					managers[id] = rows.managers[r];
+					departments[id] = rows.departments[r];
+					designations[id] = rows.designations[r];
+					textAt[2 * id] = rows.textAt[2 * r];
+					textAt[2 * id + 1] = rows.textAt[2 * r + 1];
+					end = rows.textAt[2 * r + 2];
+					maxDepartment = Math.max(maxDepartment, departments[id]);
+					r++;
+				} else {
+					textAt[2 * id] = end;
+					textAt[2 * id + 1] = end;
+				}
+			}
+			textAt[2 * slots] = end;
+
+			reportStart = new int[slots + 1];
+			reports = csr(managers, reportStart);
+			departmentSlots = maxDepartment + 1;
+			memberStart = new int[departmentSlots + 1];
+			members = csr(departments, memberStart);
+		}
+
+		static Base build(Rows rows) {
+			return new Base(rows);
+		}
+
+		// Groups ids by key; start must be sized number of keys + 1. Ids are visited in order, so every list is sorted.
+		private int[] csr(int[] keys, int[] start) {
+			for (int id = 1; id < slots; id++) {
+				if (designations[id] != 0 && keys[id] != 0) {
+					start[keys[id] + 1]++;
+				}
+			}
+			for (int k = 1; k < start.length; k++) {
+				start[k] += start[k - 1];
+			}
+			int[] ids = new int[start[start.length - 1]];
+			int[] next = Arrays.copyOf(start, start.length - 1);
+			for (int id = 1; id < slots; id++) {
+				if (designations[id] != 0 && keys[id] != 0) {
+					ids[next[keys[id]]++] = id;
+				}
+			}
+			return ids;
+		}
+
+		Row row(int id) {
+			if (id >= slots || designations[id] == 0) {
+				return null;
+			}
+			byte flags = designations[id];
+			String name = (flags & NULL_NAME) != 0 ? null : string(textAt[2 * id], textAt[2 * id + 1]);
+			return new Row(id, managers[id], departments[id], (byte) (flags & ~NULL_NAME), name,
+					string(textAt[2 * id + 1], textAt[2 * id + 2]));
+		}
+
+		byte code(int id) {
+			return id < slots ? (byte) (designations[id] & ~NULL_NAME) : 0;
+		}
+
+		int manager(int id) {
+			return id < slots ? managers[id] : 0;
+		}
+
+		int department(int id) {
+			return id < slots ? departments[id] : 0;
+		}
+
+		private String string(int from, int to) {
+			return new String(text, from, to - from, StandardCharsets.UTF_8);
+		}
+
+		long bytes() {
+			return 4L * (managers.length + departments.length + textAt.length + reportStart.length + reports.length
+					+ memberStart.length + members.length) + designations.length + text.length;
+		}
+	}
+
+	// Employees in ascending id order, used to build a base
+	private static final class Rows {
+		int[] ids = new int[1024];
+		int[] managers = new int[1024];
+		int[] departments = new int[1024];
+		byte[] designations = new byte[1024];
+		int[] textAt = new int[2 * 1024 + 1];
+		byte[] text = new byte[32 * 1024];
+		int size;
+		int textSize;
+
+		void add(Row row) {
+			byte[] name = bytes(row.name());
+			byte[] mobile = bytes(row.mobileNumber());
+			add(row.id(), row.manager(), row.department(),
+					(byte) (row.designation() | (row.name() == null ? NULL_NAME : 0)));
+			append(name, 0, name.length);
+			textAt[2 * size + 1] = textSize;
+			append(mobile, 0, mobile.length);
+			textAt[2 * size + 2] = textSize;
+			size++;
+		}
+
+		// Copies an employee of an existing base without decoding its strings
+		void add(int id, Base base, int slot) {
+			add(id, base.managers[slot], base.departments[slot], base.designations[slot]);
+			int from = base.textAt[2 * slot];
+			int mobileFrom = base.textAt[2 * slot + 1];
+			int to = base.textAt[2 * slot + 2];
+			append(base.text, from, mobileFrom - from);
+			textAt[2 * size + 1] = textSize;
+			append(base.text, mobileFrom, to - mobileFrom);
+			textAt[2 * size + 2] = textSize;
+			size++;
+		}
+
+		private void add(int id, int manager, int department, byte designation) {
+			if (size == ids.length) {
+				int grown = size * 2;
+				ids = Arrays.copyOf(ids, grown);
+				managers = Arrays.copyOf(managers, grown);
+				departments = Arrays.copyOf(departments, grown);
+				designations = Arrays.copyOf(designations, grown);
+				textAt = Arrays.copyOf(textAt, 2 * grown + 1);
+			}
+			ids[size] = id;
+			managers[size] = manager;
+			departments[size] = department;
+			designations[size] = designation;
+			textAt[2 * size] = textSize;
+		}
+
+		private void append(byte[] source, int from, int length) {
+			if (textSize + length > text.length) {
+				text = Arrays.copyOf(text, Math.max(text.length * 2, textSize + length));
+			}
+			System.arraycopy(source, from, text, textSize, length);
+			textSize += length;
+		}
+
+		private static byte[] bytes(String s) {
+			return s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	// ---------------- Overlay ----------------
+
+	// Employees added or moved since the base was built. Copied on every commit, which stays cheap because
+	// it is folded into the base once it reaches OVERLAY_LIMIT employees.
+	private static final class Overlay {
+
+		static final int[] NONE = new int[0];
+		static final Overlay EMPTY = new Overlay(Map.of(), Map.of(), Map.of(), 0);
+
+		// Current state of every changed employee
+		final Map<Integer, Row> rows;
+		// Manager / department to the changed employees now under it that the base lists elsewhere, sorted
+		final Map<Integer, int[]> reports;
+		final Map<Integer, int[]> members;
+		// Employees the base does not have at all
+		final int added;
+
+		private Overlay(Map<Integer, Row> rows, Map<Integer, int[]> reports, Map<Integer, int[]> members, int added) {
+			this.rows = rows;
+			this.reports = reports;
+			this.members = members;
+			this.added = added;
+		}
+
+		Editor edit() {
+			return new Editor(this);
+		}
+
+		// A copy of an overlay, changed in place and then frozen: one copy per committed transaction
+		static final class Editor {
+			final Map<Integer, Row> rows;
+			final Map<Integer, int[]> reports;
+			final Map<Integer, int[]> members;
+			int added;
+
+			private Editor(Overlay overlay) {
+				this.rows = new HashMap<>(overlay.rows);
+				this.reports = new HashMap<>(overlay.reports);
+				this.members = new HashMap<>(overlay.members);
+				this.added = overlay.added;
+			}
+
+			void put(Row row, Row previous, Base base) {
+				rows.put(row.id(), row);
+				if (previous == null || previous.manager() != row.manager()) {
+					relist(reports, row.id(), previous == null ? 0 : previous.manager(), row.manager(),
+							base.manager(row.id()));
+				}
+				if (previous == null || previous.department() != row.department()) {
+					relist(members, row.id(), previous == null ? 0 : previous.department(), row.department(),
+							base.department(row.id()));
+				}
+				if (previous == null) {
+					added++;
+				}
+			}
+
+			Overlay freeze() {
+				return new Overlay(rows, reports, members, added);
+			}
+
+			// Takes id off the list of its old key and puts it on the list of the new one, unless the base has it
+			// there. The lists themselves are replaced, never changed, as older overlays still share them.
+			private static void relist(Map<Integer, int[]> lists, int id, int from, int to, int inBase) {
+				int[] old = lists.get(from);
+				if (old != null) {
+					int i = Arrays.binarySearch(old, id);
+					if (i >= 0) {
+						int[] shorter = new int[old.length - 1];
+						System.arraycopy(old, 0, shorter, 0, i);
+						System.arraycopy(old, i + 1, shorter, i, old.length - i - 1);
+						if (shorter.length == 0) {
+							lists.remove(from);
+						} else {
+							lists.put(from, shorter);
+						}
+					}
+				}
+				if (to != 0 && to != inBase) {
+					int[] current = lists.getOrDefault(to, NONE);
+					int i = Arrays.binarySearch(current, id);
+					if (i < 0) {
+						int at = -i - 1;
+						int[] longer = new int[current.length + 1];
+						System.arraycopy(current, 0, longer, 0, at);
+						longer[at] = id;
+						System.arraycopy(current, at, longer, at + 1, current.length - at);
+						lists.put(to, longer);
+					}
+				}
+			}
+		}
+
+		// Rough: entry, boxed key, row and its two short strings
+		long bytes() {
+			return 160L * rows.size();
+		}
+	}
+
+	// ---------------- Departments ----------------
+
+	private static final class Departments {
+
+		final Map<Long, String> names;
+		final Map<String, Long> ids;
+
+		private Departments(Map<Long, String> names, Map<String, Long> ids) {
+			this.names = names;
+			this.ids = ids;
+		}
+
+		static Departments of(Map<Long, String> names) {
+			Map<String, Long> ids = new HashMap<>();
+			names.forEach((id, name) -> ids.put(name, id));
+			return new Departments(Map.copyOf(names), Map.copyOf(ids));
+		}
+
+		Departments with(Long id, String name) {
+			Map<Long, String> names = new HashMap<>(this.names);
+			names.put(id, name);
+			return of(names);
+		}
+	}
+
+}
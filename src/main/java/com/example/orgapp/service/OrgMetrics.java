@@ -0,0 +1,62 @@
+package com.example.orgapp.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times OrgService operations, tagged by operation, designation and outcome.
+ * Rejected requests carry the validation reason, which until now only
+ * existed as an IllegalArgumentException message.
+ */
+@Component
+public class OrgMetrics {
+
+	static final String REQUESTS = "org.service.requests";
+	static final String VALIDATION_FAILURES = "org.service.validation.failures";
+
+	private final MeterRegistry registry;
+
+	public OrgMetrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	public <T> T record(String operation, Object designation, Supplier<T> action) {
+		Timer.Sample sample = Timer.start(registry);
+		String outcome = "success";
+		String reason = "none";
+		try {
+			return action.get();
+		} catch (IllegalArgumentException e) {
+			outcome = "rejected";
+			// Only the first of several errors, so the reason tag keeps a fixed set of values
+			reason = reasonOf(e instanceof ValidationException v ? v.getErrors().get(0) : e.getMessage());
+			registry.counter(VALIDATION_FAILURES, "operation", operation, "reason", reason).increment();
+			throw e;
+		} catch (RuntimeException e) {
+			outcome = "error";
+			reason = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			sample.stop(Timer.builder(REQUESTS)
+					.tag("operation", operation)
+					.tag("designation", designation == null ? "none" : designation.toString())
+					.tag("outcome", outcome)
+					.tag("reason", reason)
+					.register(registry));
+		}
+	}
+
+	// Messages may end in a request value ("Invalid designation: X"); keep only the fixed part
+	static String reasonOf(String message) {
+		if (message == null || message.isEmpty()) {
+			return "unknown";
+		}
+		int colon = message.indexOf(':');
+		return colon < 0 ? message : message.substring(0, colon);
+	}
+
+}
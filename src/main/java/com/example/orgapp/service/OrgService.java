@@ -1,249 +1,402 @@
 package com.example.orgapp.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
-
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.orgapp.config.CacheConfig;
+import com.example.orgapp.dto.EmployeeDTO;
+import com.example.orgapp.dto.EmployeePageDTO;
 import com.example.orgapp.entity.Department;
 import com.example.orgapp.entity.Designation;
 import com.example.orgapp.entity.Employee;
 import com.example.orgapp.enums.OrgDesignations;
 import com.example.orgapp.repository.DepartmentRepository;
-import com.example.orgapp.repository.DesignationRepository;
 import com.example.orgapp.repository.EmployeeRepository;
 
 @Service
 @Transactional
 public class OrgService {
 
+	static final int DEFAULT_PAGE_SIZE = 100;
+	static final int MAX_PAGE_SIZE = 1000;
+	static final int DEFAULT_SEARCH_SIZE = 20;
+	static final int MAX_SEARCH_SIZE = 100;
+
 	private final DepartmentRepository departmentRepo;
 	private final EmployeeRepository employeeRepo;
-	private final DesignationRepository desgRepo;
+	private final DesignationRegistry designationRegistry;
+	private final EmployeeValidator employeeValidator;
+	private final EmployeeSearchIndex searchIndex;
+	private final OrgVersions orgVersions;
+	private final OrgMetrics orgMetrics;
+	private final OrgGraph orgGraph;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
 
 	public OrgService(DepartmentRepository departmentRepo, EmployeeRepository employeeRepo,
-			DesignationRepository desgRepo) {
+			DesignationRegistry designationRegistry, EmployeeValidator employeeValidator, EmployeeSearchIndex searchIndex, OrgVersions orgVersions,
+			OrgMetrics orgMetrics, OrgGraph orgGraph, ApplicationEventPublisher eventPublisher,
+			TransactionTemplate transactionTemplate) {
 		this.departmentRepo = departmentRepo;
 		this.employeeRepo = employeeRepo;
-		this.desgRepo = desgRepo;
+		this.designationRegistry = designationRegistry;
+		this.employeeValidator = employeeValidator;
+		this.searchIndex = searchIndex;
+		this.orgVersions = orgVersions;
+		this.orgMetrics = orgMetrics;
+		this.orgGraph = orgGraph;
+		this.eventPublisher = eventPublisher;
+		this.transactionTemplate = transactionTemplate;
 	}
 
 	// ---------------- Department ----------------
+	// Runs outside the service transaction so a duplicate name only rolls back its own insert
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	@CacheEvict(cacheNames = CacheConfig.DEPARTMENTS_BY_NAME, allEntries = true)
 	public Department addDepartment(Department dept) {
 		dept.setDepartmentName(dept.getDepartmentName().toUpperCase());
-		Optional<Department> existingDept = departmentRepo.findByDepartmentName(dept.getDepartmentName());
-		if (existingDept.isPresent()) {
-			return null;
+		try {
+			return transactionTemplate.execute(status -> {
+				Department saved = departmentRepo.saveAndFlush(dept);
+				eventPublisher.publishEvent(new OrgEvents.DepartmentAdded(saved.getId(), saved.getDepartmentName()));
+				return saved;
+			});
+		} catch (DataIntegrityViolationException e) {
+			if (isConstraintViolation(e, Department.NAME_CONSTRAINT)) {
+				return null;
+			}
+			throw e;
 		}
-		return departmentRepo.save(dept);
 	}
 
 	// ---------------- Employee ----------------
+	// Timed per requested designation
 	public Employee addEmployee(Employee emp) {
-
-		// Mobile number uniqueness check
-		if (emp.getMobileNumber() == null || emp.getMobileNumber().isEmpty()) {
-			throw new IllegalArgumentException("Mobile number is required");
-		}
-		if (employeeRepo.existsByMobileNumber(emp.getMobileNumber())) {
-			throw new IllegalArgumentException("Employee with this mobile number already exists");
-		}
-
-		// Validate designation using enum
-		if (emp.getDesignation() == null || emp.getDesignation().getOrgDesignations() == null) {
-			throw new IllegalArgumentException("Designation is required");
-		}
-
-		OrgDesignations designation = emp.getDesignation().getOrgDesignations();
-		if (!OrgDesignations.isValidOrgDesignation(designation.name())) {
-			throw new IllegalArgumentException("Invalid designation: " + designation);
-		}
-
-		// Fetch the Designation entity from DB for saving (avoid transient error)
-		Designation dbDesignation = desgRepo.findAll().stream().filter(d -> d.getOrgDesignations() == designation)
-				.findFirst().orElseThrow(() -> new IllegalArgumentException("Designation not found in DB"));
-		emp.setDesignation(dbDesignation);
-
-		// Call the appropriate handler based on designation
-		switch (designation) {
-		case CEO:
-			return handleCeo(emp);
-		case DEPT_HEAD:
-			return handleDeptHead(emp);
-		case MANAGER:
-			return handleManager(emp);
-		case DEVELOPER:
-		case TESTER:
-		case INTERN:
-			return handleEmployee(emp);
-		default:
-			throw new IllegalArgumentException("Unknown designation type");
-		}
+		OrgDesignations requested = emp.getDesignation() == null ? null : emp.getDesignation().getOrgDesignations();
+		return orgMetrics.record("addEmployee", requested, () -> {
+			EmployeeValidator.NewEmployee valid = employeeValidator.validateNew(emp);
+
+			// Resolve the persisted Designation from the registry (avoid transient error)
+			emp.setDesignation(designationRegistry.get(valid.designation));
+			emp.setDepartment(valid.department);
+			placeUnderChecked(emp, valid.check);
+
+			// The unique constraints still decide races with concurrent inserts
+			try {
+				return insert(emp);
+			} catch (DataIntegrityViolationException e) {
+				if (isConstraintViolation(e, Employee.MOBILE_NUMBER_CONSTRAINT)) {
+					throw new IllegalArgumentException("Employee with this mobile number already exists");
+				}
+				if (isConstraintViolation(e, Employee.UNIQUE_ROLE_CONSTRAINT)) {
+					throw new IllegalArgumentException(valid.isCeo() ? "CEO already exists"
+							: "Department head already exists for this department");
+				}
+				throw e;
+			}
+		});
 	}
 
+	@Transactional(readOnly = true)
 	public List<Designation> getDesignationList() {
-		return desgRepo.findAll();
+		return designationRegistry.getAll();
 	}
 
-	// ---------------- Private helper methods ----------------
-
-	private Employee handleCeo(Employee emp) {
-		if (emp.getReportTo() != null) {
-			throw new IllegalArgumentException("CEO should not have a reportTo");
-		}
-		if (emp.getDepartment() != null) {
-			throw new IllegalArgumentException("CEO should not belong to any department");
-		}
-		if (employeeRepo.existsByDesignation_OrgDesignations(OrgDesignations.CEO)) {
-			throw new IllegalArgumentException("CEO already exists");
-		}
-		return employeeRepo.save(emp);
+	@Transactional(readOnly = true)
+	public List<Designation> getDesignationChain(OrgDesignations designation) {
+		return designationRegistry.getParentChain(designation);
 	}
 
-	private Employee handleDeptHead(Employee emp) {
-		validateDepartment(emp);
+	public void refreshDesignations() {
+		designationRegistry.refresh();
+		orgVersions.designationsChanged();
+	}
 
-		// CEO must exist
-		if (!employeeRepo.existsByDesignation_OrgDesignations(OrgDesignations.CEO)) {
-			throw new IllegalArgumentException("Please add CEO before adding department head");
-		}
+	// Move employee to another department
+	public Employee moveEmployeeToDepartment(Long empId, String depatrmentName, Long reportTo) {
+		return moveEmployeeToDepartment(empId, depatrmentName, reportTo, null);
+	}
 
-		// Must report to CEO
-		if (emp.getReportTo() == null) {
-			throw new IllegalArgumentException("Department head must report to CEO");
-		} else {
-			Employee reportToEmp = employeeRepo.findById(emp.getReportTo().getId())
-					.orElseThrow(() -> new IllegalArgumentException("reportTo employee not found"));
-			if (reportToEmp.getDesignation().getOrgDesignations() != OrgDesignations.CEO) {
-				throw new IllegalArgumentException("Department head must report to CEO");
+	// With an expected version (If-Match) the move is refused when the employee has changed since;
+	// without one a concurrent write to the same employee still fails at flush instead of being overwritten
+	public Employee moveEmployeeToDepartment(Long empId, String depatrmentName, Long reportTo, Long expectedVersion) {
+		return orgMetrics.record("moveEmployee", null, () -> {
+			EmployeeValidator.Move move = employeeValidator.validateMove(empId, depatrmentName, reportTo);
+			Employee emp = move.employee;
+			if (expectedVersion != null && !expectedVersion.equals(emp.getVersion())) {
+				throw new ObjectOptimisticLockingFailureException(Employee.class, empId);
 			}
-		}
-
-		return employeeRepo.save(emp);
+			Employee reportToEmp = move.manager;
+			Department newDept = move.department;
+
+			// Keep the materialized org chart of the moved employee's reports in step
+			String oldPrefix = OrgChartPaths.childPath(emp.getManagerPath(), emp.getId());
+			int oldDepth = emp.getDepth();
+			Long oldDeptId = emp.getDepartment() == null ? null : emp.getDepartment().getId();
+			Long oldManagerId = emp.getReportTo() == null ? null : emp.getReportTo().getId();
+			placeUnder(emp, reportToEmp);
+			employeeRepo.rebaseSubtree(oldPrefix, OrgChartPaths.childPath(emp.getManagerPath(), emp.getId()),
+					emp.getDepth() - oldDepth);
+
+			// Update department; a concurrent second head for newDept is rejected by the unique role key
+			emp.setDepartment(newDept);
+			emp.setUniqueRole(uniqueRoleOf(emp.getDesignation().getOrgDesignations(), newDept.getId()));
+			Employee saved;
+			try {
+				saved = employeeRepo.saveAndFlush(emp);
+			} catch (DataIntegrityViolationException e) {
+				if (isConstraintViolation(e, Employee.UNIQUE_ROLE_CONSTRAINT)) {
+					throw new IllegalArgumentException("Department Head alredy exsit");
+				}
+				throw e;
+			}
+			eventPublisher.publishEvent(new OrgEvents.EmployeeMoved(saved.getId(),
+					saved.getDesignation().getOrgDesignations(), oldDeptId, newDept.getId(), oldManagerId,
+					reportToEmp.getId(), oldDepth, saved.getDepth()));
+			return saved;
+		});
 	}
 
-	private Employee handleManager(Employee emp) {
-		validateDepartment(emp);
-
-		Long deptId = emp.getDepartment().getId();
-
-		// Department head must exist in this department
-		if (!employeeRepo.existsByDesignation_OrgDesignationsAndDepartment_Id(OrgDesignations.DEPT_HEAD, deptId)) {
-			throw new IllegalArgumentException("Please add department head for this department first");
-		}
+	// Stays on the primary: its version is the ETag for If-Match, which must not lag a write
+	public Employee getEmployee(Long empId) {
+		return orgMetrics.record("getEmployee", null, () -> employeeRepo.findWithDesignationById(empId)
+				.orElseThrow(() -> new IllegalArgumentException("Employee not found")));
+	}
 
-		// Must report to DEPT_HEAD of the same department
-		if (emp.getReportTo() == null) {
-			throw new IllegalArgumentException("Manager must report to department head");
-		} else {
-			Employee reportToEmp = employeeRepo
-					.findByIdAndDepartment_DepartmentName(emp.getReportTo().getId(),
-							emp.getDepartment().getDepartmentName())
-					.orElseThrow(() -> new IllegalArgumentException("reportTo employee not found"));
-			if (reportToEmp.getDesignation().getOrgDesignations() != OrgDesignations.DEPT_HEAD) {
-				throw new IllegalArgumentException("Manager must report to department head from same department");
+	// View employees of a department
+	// Read-only paths (readOnly = true) are served by the read replica when one is configured,
+	// see ReplicaDataSource, and Hibernate neither dirty-checks nor flushes them. The department
+	// and manager listings are the exception: they are sent with an ETag from OrgVersions, which
+	// moves when the primary commits, so their body must come from the primary too (a replica that
+	// has not applied the commit yet would pair the new tag with the old rows). They are answered
+	// from the org graph when it is loaded, without a transaction or a connection, otherwise from
+	// the primary, see fromPrimary.
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<EmployeeDTO> getEmployeesByDepartment(String departmentName) {
+		return orgMetrics.record("getEmployeesByDepartment", null, () -> {
+			OrgGraph.Snapshot graph = orgGraph.snapshot();
+			if (graph != null) {
+				return graph.members(graphDepartment(graph, departmentName), 0, Integer.MAX_VALUE);
 			}
-		}
-		return employeeRepo.save(emp);
+			return fromPrimary(() -> {
+				if (!departmentRepo.findByDepartmentName(departmentName).isPresent()) {
+					throw new IllegalArgumentException("Department not found");
+				}
+				return employeeRepo.findDtoByDepartmentName(departmentName);
+			});
+		});
 	}
 
-	private Employee handleEmployee(Employee emp) {
-		validateDepartment(emp);
-
-		Long deptId = emp.getDepartment().getId();
+	// View employees of a department one page at a time (keyset on id)
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public EmployeePageDTO getEmployeePageByDepartment(String departmentName, Long afterId, Integer size) {
+		return orgMetrics.record("getEmployeePageByDepartment", null, () -> {
+			int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+			long after = afterId == null ? 0L : afterId;
+
+			// Fetch one extra row to know whether another page follows
+			OrgGraph.Snapshot graph = orgGraph.snapshot();
+			List<EmployeeDTO> rows = graph != null
+					? graph.members(graphDepartment(graph, departmentName), after, pageSize + 1)
+					: fromPrimary(() -> {
+						if (!departmentRepo.findByDepartmentName(departmentName).isPresent()) {
+							throw new IllegalArgumentException("Department not found");
+						}
+						return employeeRepo.findDtoPageByDepartmentName(departmentName, after, Limit.of(pageSize + 1));
+					});
+			if (rows.size() <= pageSize) {
+				return new EmployeePageDTO(rows, null);
+			}
+			List<EmployeeDTO> page = rows.subList(0, pageSize);
+			return new EmployeePageDTO(page, page.get(pageSize - 1).getId());
+		});
+	}
 
-		// Manager must exist in this department
-		if (!employeeRepo.existsByDesignation_OrgDesignationsAndDepartment_Id(OrgDesignations.MANAGER, deptId)) {
-			throw new IllegalArgumentException("Please add manager for this department first");
-		}
+	// Employees matching a search query, one keyset page at a time in id order (see EmployeeSearchIndex)
+	@Transactional(readOnly = true)
+	public EmployeePageDTO searchEmployees(String query, Long afterId, Integer size) {
+		return orgMetrics.record("searchEmployees", null, () -> {
+			if (query == null || query.isBlank()) {
+				throw new IllegalArgumentException("Search query is required");
+			}
+			int pageSize = size == null ? DEFAULT_SEARCH_SIZE : Math.min(Math.max(size, 1), MAX_SEARCH_SIZE);
 
-		// Must report to manager of the same department
-		if (emp.getReportTo() == null) {
-			throw new IllegalArgumentException("Employee must report to manager");
-		} else {
-			Employee reportToEmp = employeeRepo
-					.findByIdAndDepartment_DepartmentName(emp.getReportTo().getId(),
-							emp.getDepartment().getDepartmentName())
-					.orElseThrow(() -> new IllegalArgumentException("reportTo employee not found"));
-			if (reportToEmp.getDesignation().getOrgDesignations() != OrgDesignations.MANAGER) {
-				throw new IllegalArgumentException("Employee must report to manager");
+			// One extra id tells whether another page follows
+			List<Long> ids = searchIndex.search(query, afterId == null ? 0L : afterId, pageSize + 1);
+			List<Long> pageIds = ids.size() > pageSize ? ids.subList(0, pageSize) : ids;
+			if (pageIds.isEmpty()) {
+				return new EmployeePageDTO(List.of(), null);
 			}
+			Map<Long, EmployeeDTO> byId = new HashMap<>();
+			for (EmployeeDTO dto : employeeRepo.findDtoByIdIn(pageIds)) {
+				byId.put(dto.getId(), dto);
+			}
+			List<EmployeeDTO> page = new ArrayList<>(pageIds.size());
+			for (Long id : pageIds) {
+				EmployeeDTO dto = byId.get(id);
+				if (dto != null) {
+					page.add(dto);
+				}
+			}
+			return new EmployeePageDTO(page, ids.size() > pageSize ? pageIds.get(pageSize - 1) : null);
+		});
+	}
+
+	// Stream employees of a department without materializing the whole list
+	@Transactional(readOnly = true)
+	public void forEachEmployeeInDepartment(String departmentName, Consumer<EmployeeDTO> action) {
+		try (Stream<EmployeeDTO> employees = employeeRepo.streamDtoByDepartmentName(departmentName)) {
+			employees.forEach(action);
 		}
+	}
 
-		return employeeRepo.save(emp);
+	@Transactional(readOnly = true)
+	public boolean departmentExists(String departmentName) {
+		return departmentRepo.findByDepartmentName(departmentName).isPresent();
 	}
 
-	// Move employee to another department
-	public Employee moveEmployeeToDepartment(Long empId, String depatrmentName, Long reportTo) {
-		Employee emp = employeeRepo.findById(empId)
-				.orElseThrow(() -> new IllegalArgumentException("Employee not found"));
-
-		Employee reportToEmp = null;
-		if(emp.getDesignation().getOrgDesignations() == OrgDesignations.DEPT_HEAD) {
-			List<Employee> emplist = employeeRepo.findByDepartment_DepartmentNameAndDesignation_OrgDesignations(depatrmentName, OrgDesignations.DEPT_HEAD);
-			if (emplist != null && !emplist.isEmpty()) {
-				throw new IllegalArgumentException("Department Head alredy exsit");
-			} else {
-				reportToEmp = employeeRepo.findById(reportTo).get();
-				if(reportToEmp.getDesignation().getOrgDesignations() != OrgDesignations.CEO) {
-					throw new IllegalArgumentException("department Head must report to CEO");
+	// View employees reporting to a manager
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<EmployeeDTO> getEmployeesReportingToManager(Long managerId) {
+		return orgMetrics.record("getEmployeesReportingToManager", null, () -> {
+			OrgGraph.Snapshot graph = orgGraph.snapshot();
+			if (graph != null) {
+				if (!graph.contains(managerId)) {
+					throw new IllegalArgumentException("Manager not found");
+				}
+				if (graph.designationOf(managerId) != OrgDesignations.MANAGER) {
+					throw new IllegalArgumentException("Employee is not a manager");
 				}
+				return graph.reports(managerId, graph.departmentOf(managerId));
 			}
-		} else {
-			reportToEmp = employeeRepo.findByIdAndDepartment_DepartmentName(reportTo, depatrmentName)
-					.orElseThrow(() -> new IllegalArgumentException("reportTo employee not found"));
-		}
+			return fromPrimary(() -> {
+				Employee manager = employeeRepo.findWithDesignationById(managerId)
+						.orElseThrow(() -> new IllegalArgumentException("Manager not found"));
 
-		Department newDept = departmentRepo.findByDepartmentName(depatrmentName)
-				.orElseThrow(() -> new IllegalArgumentException("Department not found"));
-
-		// CEO cannot be moved
-		if (emp.getDesignation().getOrgDesignations() == OrgDesignations.CEO) {
-			throw new IllegalArgumentException("Cannot move CEO to a department");
-		}
-		emp.setReportTo(reportToEmp);
+				if (manager.getDesignation().getOrgDesignations() != OrgDesignations.MANAGER) {
+					throw new IllegalArgumentException("Employee is not a manager");
+				}
 
-		// Update department
-		emp.setDepartment(newDept);
-		return employeeRepo.save(emp);
+				// Filter employees in same department reporting to this manager
+				return employeeRepo.findDtoByReportToIdAndDepartmentId(managerId, manager.getDepartment().getId());
+			});
+		});
 	}
 
-	// View employees of a department
-	public List<Employee> getEmployeesByDepartment(String departmentName) {
-		if (!departmentRepo.findByDepartmentName(departmentName).isPresent()) {
+	private static long graphDepartment(OrgGraph.Snapshot graph, String departmentName) {
+		Long departmentId = graph.departmentId(departmentName);
+		if (departmentId == null) {
 			throw new IllegalArgumentException("Department not found");
 		}
-		return employeeRepo.findByDepartment_DepartmentName(departmentName);
+		return departmentId;
 	}
 
-	// View employees reporting to a manager
-	public List<Employee> getEmployeesReportingToManager(Long managerId) {
-		Employee manager = employeeRepo.findById(managerId)
-				.orElseThrow(() -> new IllegalArgumentException("Manager not found"));
+	// Nothing is changed, but the transaction is not marked read-only so it is not routed to the replica
+	private <T> T fromPrimary(Supplier<T> work) {
+		return transactionTemplate.execute(status -> work.get());
+	}
 
-		if (manager.getDesignation().getOrgDesignations() != OrgDesignations.MANAGER) {
-			throw new IllegalArgumentException("Employee is not a manager");
-		}
+	// Everyone below an employee, optionally limited to maxDepth levels
+	@Transactional(readOnly = true)
+	public List<EmployeeDTO> getSubtree(Long empId, Integer maxDepth) {
+		return orgMetrics.record("getSubtree", null, () -> {
+			if (maxDepth != null && maxDepth < 1) {
+				throw new IllegalArgumentException("Depth must be at least 1");
+			}
+			Employee emp = employeeRepo.findById(empId)
+					.orElseThrow(() -> new IllegalArgumentException("Employee not found"));
+			int depthLimit = maxDepth == null ? Integer.MAX_VALUE
+					: (int) Math.min(Integer.MAX_VALUE, (long) emp.getDepth() + maxDepth);
+			return employeeRepo.findDtoSubtree(OrgChartPaths.childPath(emp.getManagerPath(), emp.getId()), depthLimit);
+		});
+	}
+
+	// Reporting line from an employee up to the CEO
+	@Transactional(readOnly = true)
+	public List<EmployeeDTO> getReportingChain(Long empId) {
+		return orgMetrics.record("getReportingChain", null, () -> {
+			Employee emp = employeeRepo.findById(empId)
+					.orElseThrow(() -> new IllegalArgumentException("Employee not found"));
+			List<Long> ids = OrgChartPaths.ancestorIds(emp.getManagerPath());
+			ids.add(emp.getId());
+
+			Map<Long, EmployeeDTO> byId = new HashMap<>();
+			for (EmployeeDTO dto : employeeRepo.findDtoByIdIn(ids)) {
+				byId.put(dto.getId(), dto);
+			}
+			List<EmployeeDTO> chain = new ArrayList<>(ids.size());
+			for (int i = ids.size() - 1; i >= 0; i--) {
+				EmployeeDTO dto = byId.get(ids.get(i));
+				if (dto != null) {
+					chain.add(dto);
+				}
+			}
+			return chain;
+		});
+	}
 
-		// Filter employees in same department reporting to this manager
-		return employeeRepo.findByReportTo_IdAndDepartment_Id(managerId, manager.getDepartment().getId());
+	private void placeUnder(Employee emp, Employee manager) {
+		emp.setReportTo(manager);
+		if (manager == null) {
+			emp.setManagerPath(OrgChartPaths.ROOT);
+			emp.setDepth(0);
+		} else {
+			emp.setManagerPath(OrgChartPaths.childPath(manager.getManagerPath(), manager.getId()));
+			emp.setDepth(manager.getDepth() + 1);
+		}
 	}
 
-	private void validateDepartment(Employee emp) {
-		if (emp.getDepartment() == null || emp.getDepartment().getDepartmentName() == null) {
-			throw new IllegalArgumentException("Please provide a valid department");
+	// The manager was read by the validation query; a reference avoids loading it again
+	private void placeUnderChecked(Employee emp, EmployeeRepository.NewEmployeeCheck check) {
+		if (check.getManagerId() == null) {
+			placeUnder(emp, null);
+			return;
 		}
+		emp.setReportTo(employeeRepo.getReferenceById(check.getManagerId()));
+		emp.setManagerPath(OrgChartPaths.childPath(check.getManagerPath(), check.getManagerId()));
+		emp.setDepth(check.getManagerDepth() + 1);
+	}
 
-		Optional<Department> department = departmentRepo
-				.findByDepartmentName(emp.getDepartment().getDepartmentName().toUpperCase());
+	// Insert a validated employee; single-holder roles are guarded by the unique role key
+	private Employee insert(Employee emp) {
+		emp.setUniqueRole(uniqueRoleOf(emp.getDesignation().getOrgDesignations(),
+				emp.getDepartment() == null ? null : emp.getDepartment().getId()));
+		Employee saved = employeeRepo.saveAndFlush(emp);
+		eventPublisher.publishEvent(OrgEvents.EmployeeAdded.of(saved));
+		return saved;
+	}
 
-		if (!department.isPresent()) {
-			throw new IllegalArgumentException("Please provide a valid department");
+	// Key that at most one employee may hold: "CEO" or "DEPT_HEAD:<departmentId>", null for everyone else
+	static String uniqueRoleOf(OrgDesignations designation, Long departmentId) {
+		if (designation == OrgDesignations.CEO) {
+			return OrgDesignations.CEO.name();
 		}
+		if (designation == OrgDesignations.DEPT_HEAD) {
+			return OrgDesignations.DEPT_HEAD.name() + ":" + departmentId;
+		}
+		return null;
+	}
 
-		// Set the existing department to ensure consistent reference
-		emp.setDepartment(department.get());
+	// True when the violation was raised by the named unique constraint
+	static boolean isConstraintViolation(DataIntegrityViolationException e, String constraintName) {
+		return e.getCause() instanceof ConstraintViolationException cve && cve.getConstraintName() != null
+				&& cve.getConstraintName().toLowerCase().contains(constraintName);
 	}
 
 }
@@ -0,0 +1,103 @@
+package com.example.orgapp.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.orgapp.repository.DepartmentRepository;
+
+/**
+ * Version counters behind the ETags of the read endpoints: one per
+ * department, one for the whole org and one for the designations. They are
+ * bumped after a change commits, and the tags carry a per-boot epoch so tags
+ * handed out before a restart never match.
+ * <p>
+ * Callers take the tag before reading the data. A change that commits in
+ * between can then only pair newer data with an older tag, which costs the
+ * client one extra full response but never serves it stale data as current.
+ * That only holds when the data is read from the primary (or the org graph,
+ * which is updated before these counters): a read replica may not have
+ * applied the change yet, so tagged listings do not use it.
+ */
+@Component
+public class OrgVersions {
+
+	private final DepartmentRepository departmentRepo;
+
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+	private final Map<Long, AtomicLong> departments = new ConcurrentHashMap<>();
+	// Any employee change anywhere; reorgs move too many rows to track per department
+	private final AtomicLong org = new AtomicLong();
+	private final AtomicLong reorgs = new AtomicLong();
+	private final AtomicLong designations = new AtomicLong();
+
+	public OrgVersions(DepartmentRepository departmentRepo) {
+		this.departmentRepo = departmentRepo;
+	}
+
+	// ---------------- Tags ----------------
+
+	// Null for an unknown department; the name is resolved through the department cache
+	public String departmentTag(String departmentName) {
+		return departmentRepo.findByDepartmentName(departmentName)
+				.map(d -> tag("dept" + d.getId(), reorgs.get() + "." + counter(d.getId()).get()))
+				.orElse(null);
+	}
+
+	public String orgTag() {
+		return tag("org", Long.toString(org.get()));
+	}
+
+	public String designationsTag() {
+		return tag("desg", Long.toString(designations.get()));
+	}
+
+	// Weak: the same version is sent as JSON, NDJSON or gzipped, and Tomcat will not compress a strongly tagged body
+	private String tag(String scope, String version) {
+		return "W/\"" + scope + "-" + epoch + "-" + version + "\"";
+	}
+
+	// ---------------- Bumps ----------------
+
+	@TransactionalEventListener
+	public void onEmployeeAdded(OrgEvents.EmployeeAdded e) {
+		bump(e.departmentId());
+		org.incrementAndGet();
+	}
+
+	@TransactionalEventListener
+	public void onEmployeeMoved(OrgEvents.EmployeeMoved e) {
+		bump(e.fromDepartmentId());
+		bump(e.toDepartmentId());
+		org.incrementAndGet();
+	}
+
+	@TransactionalEventListener
+	public void onReorganized(OrgEvents.Reorganized e) {
+		reorgs.incrementAndGet();
+		org.incrementAndGet();
+	}
+
+	@TransactionalEventListener
+	public void onDepartmentAdded(OrgEvents.DepartmentAdded e) {
+		bump(e.departmentId());
+	}
+
+	void designationsChanged() {
+		designations.incrementAndGet();
+	}
+
+	private void bump(Long departmentId) {
+		if (departmentId != null) {
+			counter(departmentId).incrementAndGet();
+		}
+	}
+
+	private AtomicLong counter(Long departmentId) {
+		return departments.computeIfAbsent(departmentId, k -> new AtomicLong());
+	}
+
+}
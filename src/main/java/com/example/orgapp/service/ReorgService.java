@@ -0,0 +1,313 @@
+package com.example.orgapp.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.orgapp.dto.ReorgMove;
+import com.example.orgapp.dto.ReorgResult;
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.repository.DepartmentRepository;
+import com.example.orgapp.repository.EmployeeRepository;
+
+/**
+ * Applies a batch of moves in one transaction. The hierarchy that results from
+ * all moves together is validated in memory from a handful of set-based
+ * lookups; only when every move is valid are the rows rewritten, one UPDATE per
+ * moved subtree and one per group of employees sharing a new manager.
+ */
+@Service
+public class ReorgService {
+
+	private final EmployeeRepository employeeRepo;
+	private final DepartmentRepository departmentRepo;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+
+	public ReorgService(EmployeeRepository employeeRepo, DepartmentRepository departmentRepo,
+			TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher) {
+		this.employeeRepo = employeeRepo;
+		this.departmentRepo = departmentRepo;
+		this.transactionTemplate = transactionTemplate;
+		this.eventPublisher = eventPublisher;
+	}
+
+	public ReorgResult reorg(List<ReorgMove> moves) {
+		long start = System.nanoTime();
+		ReorgResult result = new ReorgResult();
+		result.setMoves(moves.size());
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				Map<Long, Step> steps = validate(moves, result);
+				if (result.getErrors().isEmpty()) {
+					apply(steps, result);
+					List<String> subtrees = steps.values().stream().filter(step -> step.withSubtree)
+							.map(step -> OrgChartPaths.childPath(step.finalPath, step.emp.getId())).toList();
+					eventPublisher.publishEvent(new OrgEvents.Reorganized(result.getRowsTouched(),
+							List.copyOf(steps.keySet()), subtrees));
+				} else {
+					status.setRollbackOnly();
+				}
+			});
+		} catch (DataIntegrityViolationException e) {
+			// A head was added concurrently to one of the target departments
+			if (!OrgService.isConstraintViolation(e, Employee.UNIQUE_ROLE_CONSTRAINT)) {
+				throw e;
+			}
+			result.addError(0, null, "Department head already exists for this department");
+			result.setRowsTouched(0);
+			result.setStatements(0);
+		}
+		result.setApplied(result.getErrors().isEmpty());
+		result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+		return result;
+	}
+
+	// ---------------- Validation ----------------
+
+	private Map<Long, Step> validate(List<ReorgMove> moves, ReorgResult result) {
+		Set<Long> ids = new HashSet<>();
+		for (ReorgMove m : moves) {
+			ids.add(m.getEmployeeId());
+			ids.add(m.getReportTo());
+		}
+		ids.remove(null);
+		Map<Long, Employee> employees = new HashMap<>();
+		if (!ids.isEmpty()) {
+			for (Employee e : employeeRepo.findByIdIn(ids)) {
+				employees.put(e.getId(), e);
+			}
+		}
+
+		// Requested moves that refer to existing rows, keyed by the moved employee
+		Map<Long, Step> steps = new LinkedHashMap<>();
+		for (int i = 0; i < moves.size(); i++) {
+			ReorgMove m = moves.get(i);
+			try {
+				Step step = toStep(i + 1, m, employees);
+				if (steps.putIfAbsent(step.emp.getId(), step) != null) {
+					throw new IllegalArgumentException("Employee is moved more than once");
+				}
+			} catch (IllegalArgumentException e) {
+				result.addError(i + 1, m.getEmployeeId(), e.getMessage());
+			}
+		}
+
+		// The remaining checks only look at the moves that refer to existing rows
+		for (Step step : steps.values()) {
+			Step carrier = carrierOf(step.emp, steps);
+			if (carrier != null) {
+				result.addError(step.move, step.emp.getId(), "Employee is already moved with the subtree of employee "
+						+ carrier.emp.getId());
+			}
+		}
+
+		// Anyone moved alone must not leave direct reports behind under a manager in another department
+		List<Long> movedAlone = steps.values().stream().filter(s -> !s.withSubtree).map(s -> s.emp.getId()).toList();
+		if (!movedAlone.isEmpty()) {
+			for (Long managerId : employeeRepo.findManagersWithReportsOutside(movedAlone, steps.keySet())) {
+				result.addError(steps.get(managerId).move, managerId,
+						"Employee has reports that are not part of the reorg; move it with its subtree");
+			}
+		}
+
+		for (Step step : steps.values()) {
+			String error = hierarchyError(step, steps);
+			if (error != null) {
+				result.addError(step.move, step.emp.getId(), error);
+			}
+		}
+		validateDepartmentHeads(steps, result);
+		return steps;
+	}
+
+	private Step toStep(int move, ReorgMove m, Map<Long, Employee> employees) {
+		if (m.getEmployeeId() == null || !employees.containsKey(m.getEmployeeId())) {
+			throw new IllegalArgumentException("Employee not found");
+		}
+		if (m.getReportTo() == null || !employees.containsKey(m.getReportTo())) {
+			throw new IllegalArgumentException("reportTo employee not found");
+		}
+		if (m.getDepartment() == null || m.getDepartment().isEmpty()) {
+			throw new IllegalArgumentException("Please provide a valid department");
+		}
+		Department department = departmentRepo.findByDepartmentName(m.getDepartment().toUpperCase())
+				.orElseThrow(() -> new IllegalArgumentException("Department not found"));
+
+		Employee emp = employees.get(m.getEmployeeId());
+		if (designationOf(emp) == OrgDesignations.CEO) {
+			throw new IllegalArgumentException("Cannot move CEO to a department");
+		}
+		return new Step(move, emp, employees.get(m.getReportTo()), department, m.isWithSubtree());
+	}
+
+	// Same reporting rules as adding an employee, checked against the manager's place after the reorg
+	private String hierarchyError(Step step, Map<Long, Step> steps) {
+		OrgDesignations managerDesignation = designationOf(step.manager);
+		boolean sameDepartment = step.department.getId().equals(finalDepartmentId(step.manager, steps));
+		switch (designationOf(step.emp)) {
+		case DEPT_HEAD:
+			return managerDesignation == OrgDesignations.CEO ? null : "Department head must report to CEO";
+		case MANAGER:
+			return managerDesignation == OrgDesignations.DEPT_HEAD && sameDepartment ? null
+					: "Manager must report to department head from same department";
+		default:
+			return managerDesignation == OrgDesignations.MANAGER && sameDepartment ? null
+					: "Employee must report to manager";
+		}
+	}
+
+	private void validateDepartmentHeads(Map<Long, Step> steps, ReorgResult result) {
+		List<Step> headMoves = steps.values().stream()
+				.filter(s -> designationOf(s.emp) == OrgDesignations.DEPT_HEAD).toList();
+		if (headMoves.isEmpty()) {
+			return;
+		}
+		Set<Long> deptIds = new HashSet<>();
+		headMoves.forEach(s -> deptIds.add(s.department.getId()));
+
+		Map<Long, Integer> heads = new HashMap<>();
+		for (Employee head : employeeRepo.findByDesignation_OrgDesignationsAndDepartment_IdIn(OrgDesignations.DEPT_HEAD,
+				deptIds)) {
+			if (!steps.containsKey(head.getId())) {
+				heads.merge(head.getDepartment().getId(), 1, Integer::sum);
+			}
+		}
+		headMoves.forEach(s -> heads.merge(s.department.getId(), 1, Integer::sum));
+		for (Step s : headMoves) {
+			if (heads.get(s.department.getId()) > 1) {
+				result.addError(s.move, s.emp.getId(), "Department head already exists for this department");
+			}
+		}
+	}
+
+	// ---------------- Apply ----------------
+
+	private void apply(Map<Long, Step> steps, ReorgResult result) {
+		// Free the head role keys first so heads may swap departments within the batch
+		List<Long> heads = steps.values().stream().filter(s -> designationOf(s.emp) == OrgDesignations.DEPT_HEAD)
+				.map(s -> s.emp.getId()).toList();
+		if (!heads.isEmpty()) {
+			employeeRepo.clearUniqueRoles(heads);
+			result.setStatements(result.getStatements() + 1);
+		}
+
+		// Subtrees first: their old prefixes are disjoint and still untouched at this point
+		Map<Placement, List<Long>> groups = new LinkedHashMap<>();
+		for (Step step : steps.values()) {
+			String path = finalPath(step.emp, steps);
+			int depth = OrgChartPaths.ancestorIds(path).size();
+			if (step.withSubtree) {
+				int rows = employeeRepo.rebaseSubtreeIntoDepartment(OrgChartPaths.childPath(step.emp.getManagerPath(),
+						step.emp.getId()), OrgChartPaths.childPath(path, step.emp.getId()), depth - step.emp.getDepth(),
+						step.department);
+				result.setRowsTouched(result.getRowsTouched() + rows);
+				result.setStatements(result.getStatements() + 1);
+			}
+			String uniqueRole = OrgService.uniqueRoleOf(designationOf(step.emp), step.department.getId());
+			groups.computeIfAbsent(new Placement(step.manager, step.department, path, depth, uniqueRole),
+					k -> new ArrayList<>()).add(step.emp.getId());
+		}
+
+		for (Map.Entry<Placement, List<Long>> group : groups.entrySet()) {
+			Placement p = group.getKey();
+			int rows = employeeRepo.reparent(group.getValue(), p.manager, p.department, p.managerPath, p.depth,
+					p.uniqueRole);
+			result.setRowsTouched(result.getRowsTouched() + rows);
+			result.setStatements(result.getStatements() + 1);
+		}
+	}
+
+	// ---------------- Final positions ----------------
+
+	// Manager path after the reorg; terminates because every manager sits on a higher designation level
+	private String finalPath(Employee e, Map<Long, Step> steps) {
+		Step own = steps.get(e.getId());
+		if (own != null) {
+			if (own.finalPath == null) {
+				own.finalPath = OrgChartPaths.childPath(finalPath(own.manager, steps), own.manager.getId());
+			}
+			return own.finalPath;
+		}
+		Step carrier = carrierOf(e, steps);
+		if (carrier != null) {
+			String oldPrefix = OrgChartPaths.childPath(carrier.emp.getManagerPath(), carrier.emp.getId());
+			return OrgChartPaths.childPath(finalPath(carrier.emp, steps), carrier.emp.getId())
+					+ e.getManagerPath().substring(oldPrefix.length());
+		}
+		return e.getManagerPath();
+	}
+
+	private Long finalDepartmentId(Employee e, Map<Long, Step> steps) {
+		Step own = steps.get(e.getId());
+		if (own == null) {
+			own = carrierOf(e, steps);
+		}
+		if (own != null) {
+			return own.department.getId();
+		}
+		return e.getDepartment() == null ? null : e.getDepartment().getId();
+	}
+
+	// Nearest moved manager above the employee, if it takes its subtree along
+	private static Step carrierOf(Employee e, Map<Long, Step> steps) {
+		List<Long> ancestors = OrgChartPaths.ancestorIds(e.getManagerPath());
+		for (int i = ancestors.size() - 1; i >= 0; i--) {
+			Step step = steps.get(ancestors.get(i));
+			if (step != null) {
+				return step.withSubtree ? step : null;
+			}
+		}
+		return null;
+	}
+
+	private static OrgDesignations designationOf(Employee e) {
+		return e.getDesignation().getOrgDesignations();
+	}
+
+	private static final class Step {
+		final int move;
+		final Employee emp;
+		final Employee manager;
+		final Department department;
+		final boolean withSubtree;
+		String finalPath;
+
+		Step(int move, Employee emp, Employee manager, Department department, boolean withSubtree) {
+			this.move = move;
+			this.emp = emp;
+			this.manager = manager;
+			this.department = department;
+			this.withSubtree = withSubtree;
+		}
+	}
+
+	// Everything a group of moved employees has in common after the reorg
+	private record Placement(Employee manager, Department department, String managerPath, int depth,
+			String uniqueRole) {
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Placement p && manager.getId().equals(p.manager.getId())
+					&& department.getId().equals(p.department.getId()) && Objects.equals(uniqueRole, p.uniqueRole);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(manager.getId(), department.getId(), uniqueRole);
+		}
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.example.orgapp.service;
+
+import java.util.List;
+
+/**
+ * Every problem found with a request, reported at once. The message joins the
+ * errors with "; ", so callers that only look at the message (and a request
+ * with a single problem) see what they saw before.
+ */
+public class ValidationException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<String> errors;
+
+	public ValidationException(List<String> errors) {
+		super(String.join("; ", errors));
+		this.errors = List.copyOf(errors);
+	}
+
+	public List<String> getErrors() {
+		return errors;
+	}
+
+}
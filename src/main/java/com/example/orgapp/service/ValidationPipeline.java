@@ -0,0 +1,93 @@
+package com.example.orgapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Validation rules grouped into stages in increasing order of cost. Every
+ * rule of a stage runs and their errors are reported together; a stage only
+ * runs once the earlier ones have passed, so a request that fails the
+ * in-memory checks never reaches the database.
+ * <p>
+ * A stage may start with a load step that fetches what its rules need
+ * (ideally in one query) into the validated object.
+ */
+final class ValidationPipeline<T> {
+
+	@FunctionalInterface
+	interface Rule<T> {
+		// Adds one message per problem found
+		void check(T target, List<String> errors);
+	}
+
+	private record Stage<T>(Consumer<T> load, List<Rule<T>> rules) {
+	}
+
+	private final List<Stage<T>> stages = new ArrayList<>();
+
+	@SafeVarargs
+	final ValidationPipeline<T> stage(Rule<T>... rules) {
+		return stage(target -> {
+		}, rules);
+	}
+
+	@SafeVarargs
+	final ValidationPipeline<T> stage(Consumer<T> load, Rule<T>... rules) {
+		stages.add(new Stage<>(load, List.of(rules)));
+		return this;
+	}
+
+	void validate(T target) {
+		List<String> errors = new ArrayList<>();
+		for (Stage<T> stage : stages) {
+			stage.load().accept(target);
+			for (Rule<T> rule : stage.rules()) {
+				rule.check(target, errors);
+			}
+			if (!errors.isEmpty()) {
+				throw new ValidationException(errors);
+			}
+		}
+	}
+
+	// ---------------- Rule helpers ----------------
+
+	static <T> Rule<T> require(Predicate<T> condition, String message) {
+		return (target, errors) -> {
+			if (!condition.test(target)) {
+				errors.add(message);
+			}
+		};
+	}
+
+	static <T> Rule<T> require(Predicate<T> condition, Function<T, String> message) {
+		return (target, errors) -> {
+			if (!condition.test(target)) {
+				errors.add(message.apply(target));
+			}
+		};
+	}
+
+	// Only applies the rule when the condition holds, e.g. for one designation
+	static <T> Rule<T> when(Predicate<T> condition, Rule<T> rule) {
+		return (target, errors) -> {
+			if (condition.test(target)) {
+				rule.check(target, errors);
+			}
+		};
+	}
+
+	// A rule whose message depends on the target; null means no problem
+	static <T> Rule<T> problem(Function<T, String> check) {
+		return (target, errors) -> {
+			String message = check.apply(target);
+			if (message != null) {
+				errors.add(message);
+			}
+		};
+	}
+
+}
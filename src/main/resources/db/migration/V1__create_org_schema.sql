@@ -0,0 +1,48 @@
+-- Departments
+CREATE TABLE department (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_department_name UNIQUE (name)
+);
+
+-- Designations
+CREATE TABLE designation (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name ENUM ('CEO', 'DEPT_HEAD', 'DEVELOPER', 'INTERN', 'MANAGER', 'TESTER'),
+    parent_designation_id BIGINT,
+    CONSTRAINT fk_designation_parent FOREIGN KEY (parent_designation_id) REFERENCES designation (id)
+);
+
+-- Employees (ids come from a pooled sequence matching allocationSize = 50)
+CREATE SEQUENCE employee_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE employee (
+    id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(255),
+    mobile_number VARCHAR(255) NOT NULL,
+    department_id BIGINT,
+    designation_id BIGINT,
+    report_to BIGINT,
+    manager_path VARCHAR(1024),
+    depth INTEGER,
+    CONSTRAINT uk_employee_mobile_number UNIQUE (mobile_number),
+    CONSTRAINT fk_employee_department FOREIGN KEY (department_id) REFERENCES department (id),
+    CONSTRAINT fk_employee_designation FOREIGN KEY (designation_id) REFERENCES designation (id),
+    CONSTRAINT fk_employee_report_to FOREIGN KEY (report_to) REFERENCES employee (id)
+);
+
+CREATE INDEX idx_employee_designation_department ON employee (designation_id, department_id);
+CREATE INDEX idx_employee_department ON employee (department_id, id);
+CREATE INDEX idx_employee_report_to ON employee (report_to, department_id);
+CREATE INDEX idx_employee_manager_path ON employee (manager_path);
+
+-- Seed data
+INSERT INTO department (name) VALUES ('HR');
+INSERT INTO department (name) VALUES ('IT');
+
+INSERT INTO designation (name, parent_designation_id) VALUES ('CEO', NULL);
+INSERT INTO designation (name, parent_designation_id) VALUES ('DEPT_HEAD', 1);
+INSERT INTO designation (name, parent_designation_id) VALUES ('MANAGER', 2);
+INSERT INTO designation (name, parent_designation_id) VALUES ('DEVELOPER', 3);
+INSERT INTO designation (name, parent_designation_id) VALUES ('TESTER', 3);
+INSERT INTO designation (name, parent_designation_id) VALUES ('INTERN', 3);
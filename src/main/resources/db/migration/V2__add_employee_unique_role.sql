@@ -0,0 +1,10 @@
+-- Single-holder roles ("CEO", "DEPT_HEAD:<department_id>"); NULL for everyone else.
+-- The unique constraint acts as a partial unique index, which H2 does not support directly.
+ALTER TABLE employee ADD COLUMN unique_role VARCHAR(64);
+
+UPDATE employee SET unique_role = 'CEO'
+    WHERE designation_id IN (SELECT id FROM designation WHERE name = 'CEO');
+UPDATE employee SET unique_role = CONCAT('DEPT_HEAD:', department_id)
+    WHERE designation_id IN (SELECT id FROM designation WHERE name = 'DEPT_HEAD');
+
+ALTER TABLE employee ADD CONSTRAINT uk_employee_unique_role UNIQUE (unique_role);
@@ -0,0 +1,13 @@
+-- Transactional outbox of org chart changes, read by GET /api/changes.
+-- Offsets are assigned in commit order; entity_key ("employee:<id>", "department:<id>")
+-- lets compaction keep only the latest change per entity.
+CREATE TABLE org_change (
+    change_offset BIGINT PRIMARY KEY,
+    change_type VARCHAR(32) NOT NULL,
+    entity_key VARCHAR(64) NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_org_change_entity_key ON org_change (entity_key, change_offset);
+CREATE INDEX idx_org_change_created_at ON org_change (created_at);
@@ -0,0 +1,3 @@
+-- Optimistic lock versions (@Version); existing rows start at 0
+ALTER TABLE employee ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE department ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,5 @@
+-- Offsets of org_change rows, taken by each transaction just before it writes its changes.
+-- Concurrent transactions no longer commit in offset order; OrgChangeFeed readers stop
+-- below the lowest offset still in progress. Continues after the offsets already used.
+CREATE SEQUENCE org_change_offset_seq START WITH 1;
+ALTER SEQUENCE org_change_offset_seq RESTART WITH (SELECT COALESCE(MAX(change_offset), 0) + 1 FROM org_change);
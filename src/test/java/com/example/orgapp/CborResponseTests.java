@@ -0,0 +1,80 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.orgapp.dto.EmployeeDTO;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.service.OrgService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:cbor;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class CborResponseTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrgService orgService;
+
+	private final CBORMapper cbor = new CBORMapper();
+
+	@Test
+	void listingsAreNegotiatedAsCborWithTheSameContent() throws Exception {
+		Employee ceo = orgService.addEmployee(employee("ceo", OrgDesignations.CEO, null, null));
+		Employee head = orgService.addEmployee(employee("it-head", OrgDesignations.DEPT_HEAD, "IT", ceo));
+		Employee manager = orgService.addEmployee(employee("it-mgr", OrgDesignations.MANAGER, "IT", head));
+		for (int i = 0; i < 20; i++) {
+			orgService.addEmployee(employee("dev" + i, OrgDesignations.DEVELOPER, "IT", manager));
+		}
+
+		byte[] json = mockMvc.perform(get("/api/department/IT/employees"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray();
+		byte[] binary = mockMvc.perform(get("/api/department/IT/employees").accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		List<EmployeeDTO> decoded = cbor.readValue(binary, new TypeReference<List<EmployeeDTO>>() { });
+		assertThat(decoded).hasSize(22);
+		assertThat(decoded).extracting(EmployeeDTO::getDepartment).containsOnly("IT");
+		assertThat(decoded).filteredOn(d -> d.getName().equals("dev7")).singleElement()
+				.satisfies(d -> {
+					assertThat(d.getDesignation()).isEqualTo("DEVELOPER");
+					assertThat(d.getReportTo()).isEqualTo(manager.getId());
+				});
+		// Field names and repeated department/designation names are sent once
+		assertThat(binary.length).isLessThan(json.length / 2);
+
+		byte[] page = mockMvc.perform(get("/api/department/IT/employees").param("size", "5")
+				.accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray();
+		assertThat(cbor.readTree(page).get("employees")).hasSize(5);
+
+		byte[] reports = mockMvc.perform(get("/api/manager/{id}/employees", manager.getId())
+				.accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray();
+		assertThat(cbor.readValue(reports, EmployeeDTO[].class)).hasSize(20);
+	}
+
+}
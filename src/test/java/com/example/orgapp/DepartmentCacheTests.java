@@ -0,0 +1,84 @@
+package com.example.orgapp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.example.orgapp.config.CacheConfig;
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.repository.DepartmentRepository;
+import com.example.orgapp.service.OrgService;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:departmentcache;DB_CLOSE_DELAY=-1",
+		"org.cache.departments.ttl=PT5M" })
+@DirtiesContext
+class DepartmentCacheTests {
+
+	@Autowired
+	private DepartmentRepository departmentRepo;
+
+	@Autowired
+	private OrgService orgService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	void hitsAreCachedMissesAreNotAndAddingADepartmentEvicts() {
+		Cache<Object, Object> cache = nativeCache();
+		assertThat(cache.policy().expireAfterWrite())
+				.hasValueSatisfying(e -> assertThat(e.getExpiresAfter()).isEqualTo(Duration.ofMinutes(5)));
+
+		double hits = gets("hit");
+		double misses = gets("miss");
+		assertThat(departmentRepo.findByDepartmentName("IT")).isPresent();
+		assertThat(departmentRepo.findByDepartmentName("IT")).isPresent();
+		assertThat(gets("miss")).isEqualTo(misses + 1);
+		assertThat(gets("hit")).isEqualTo(hits + 1);
+
+		// A miss is looked up again every time, so the department is found as soon as it exists
+		assertThat(departmentRepo.findByDepartmentName("FINANCE")).isEmpty();
+		assertThat(cache.asMap()).doesNotContainKey("FINANCE");
+		Department finance = new Department();
+		finance.setDepartmentName("finance");
+		assertThat(orgService.addDepartment(finance)).isNotNull();
+		assertThat(cache.asMap()).isEmpty();
+		assertThat(registry.get("cache.removals").tag("cache", CacheConfig.DEPARTMENTS_BY_NAME)
+				.tag("cause", "EXPLICIT").counter().count()).isPositive();
+		assertThat(departmentRepo.findByDepartmentName("FINANCE")).isPresent();
+		assertThat(cache.asMap()).containsKey("FINANCE");
+
+		// Expired entries are evicted and counted
+		double evictions = registry.get("cache.evictions").tag("cache", CacheConfig.DEPARTMENTS_BY_NAME)
+				.functionCounter().count();
+		cache.policy().expireAfterWrite().get().setExpiresAfter(Duration.ofNanos(1));
+		cache.cleanUp();
+		assertThat(cache.asMap()).isEmpty();
+		assertThat(registry.get("cache.evictions").tag("cache", CacheConfig.DEPARTMENTS_BY_NAME)
+				.functionCounter().count()).isGreaterThan(evictions);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Cache<Object, Object> nativeCache() {
+		return (Cache<Object, Object>) cacheManager.getCache(CacheConfig.DEPARTMENTS_BY_NAME).getNativeCache();
+	}
+
+	private double gets(String result) {
+		return registry.get("cache.gets").tag("cache", CacheConfig.DEPARTMENTS_BY_NAME).tag("result", result)
+				.functionCounter().count();
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.example.orgapp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.orgapp.entity.Designation;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.service.DesignationRegistry;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:designations;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class DesignationRegistryTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DesignationRegistry registry;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void chainsRunFromTheDesignationUpToTheCeo() throws Exception {
+		assertThat(registry.getParentChain(OrgDesignations.DEVELOPER)).extracting(Designation::getOrgDesignations)
+				.containsExactly(OrgDesignations.DEVELOPER, OrgDesignations.MANAGER, OrgDesignations.DEPT_HEAD,
+						OrgDesignations.CEO);
+		assertThat(registry.getParentChain(OrgDesignations.DEPT_HEAD)).extracting(Designation::getOrgDesignations)
+				.containsExactly(OrgDesignations.DEPT_HEAD, OrgDesignations.CEO);
+		assertThat(registry.getParentChain(OrgDesignations.CEO)).extracting(Designation::getOrgDesignations)
+				.containsExactly(OrgDesignations.CEO);
+
+		mockMvc.perform(get("/api/designation/tester/chain"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(4))
+				.andExpect(jsonPath("$[0].orgDesignations").value("TESTER"))
+				.andExpect(jsonPath("$[0].parentDesignation.orgDesignations").value("MANAGER"));
+		mockMvc.perform(get("/api/designation/janitor/chain"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void rowChangesAreSeenOnlyAfterARefresh() throws Exception {
+		String etag = mockMvc.perform(get("/api/designation/intern/chain"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		try {
+			reparentIntern("DEPT_HEAD");
+			// Still the loaded copy, so the old tag still matches
+			assertThat(registry.getParentChain(OrgDesignations.INTERN)).hasSize(4);
+			mockMvc.perform(get("/api/designation/intern/chain").header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isNotModified());
+
+			mockMvc.perform(post("/api/designation/refresh"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.length()").value(OrgDesignations.values().length));
+			assertThat(registry.getParentChain(OrgDesignations.INTERN)).extracting(Designation::getOrgDesignations)
+					.containsExactly(OrgDesignations.INTERN, OrgDesignations.DEPT_HEAD, OrgDesignations.CEO);
+			mockMvc.perform(get("/api/designation/intern/chain").header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.length()").value(3));
+		} finally {
+			reparentIntern("MANAGER");
+			registry.refresh();
+		}
+	}
+
+	private void reparentIntern(String parent) {
+		jdbc.update("UPDATE designation SET parent_designation_id = (SELECT id FROM designation WHERE name = ?)"
+				+ " WHERE name = 'INTERN'", parent);
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.example.orgapp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.example.orgapp.dto.BulkImportResult;
+import com.example.orgapp.dto.BulkImportResult.RowError;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.repository.EmployeeRepository;
+import com.example.orgapp.service.EmployeeImportService;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:imports;DB_CLOSE_DELAY=-1")
+@DirtiesContext
+class EmployeeImportTests {
+
+	private static final String HEADER = "name,mobileNumber,designation,department,reportTo,reportToMobile\n";
+
+	@Autowired
+	private EmployeeImportService importService;
+
+	@Autowired
+	private EmployeeRepository employeeRepo;
+
+	@Test
+	void invalidRowsAreReportedOneByOneAndTheRestOfTheChunkIsImported() throws Exception {
+		ensureCeo();
+		BulkImportResult result = importCsv(HEADER
+				+ "\"Kumar, Ravi\",9000000002,DEPT_HEAD,IT,,9000000001\n"
+				+ "Second Head,9000000003,DEPT_HEAD,IT,,9000000001\n"
+				+ "\"Rahul \"\"RJ\"\" Sharma\",9000000004,MANAGER,IT,,9000000002\n"
+				+ "\n"
+				+ "Bad Manager Id,9000000005,DEVELOPER,IT,abc,\n"
+				+ "Same Mobile,9000000004,DEVELOPER,IT,,9000000004\n"
+				+ "\"Priya\r\nRaman\",9000000006,TESTER,IT,,9000000004\r\n");
+
+		assertThat(result.getTotalRows()).isEqualTo(6);
+		assertThat(result.getImported()).isEqualTo(3);
+		assertThat(result.getFailed()).isEqualTo(3);
+		assertThat(result.getErrors()).extracting(RowError::getRow, RowError::getMessage).containsExactly(
+				tuple(2, "Department head already exists for this department"),
+				tuple(4, "Invalid reportTo: abc"),
+				tuple(5, "Employee with this mobile number already exists"));
+		assertThat(employeeRepo.findByMobileNumberIn(List.of("9000000002", "9000000004", "9000000006")))
+				.extracting(Employee::getName)
+				.containsExactlyInAnyOrder("Kumar, Ravi", "Rahul \"RJ\" Sharma", "Priya\r\nRaman");
+	}
+
+	@Test
+	void aHeadForADepartmentThatHasOneIsRejectedWithoutRollingBackTheChunk() throws Exception {
+		ensureCeo();
+		importCsv(HEADER + "First Head,9100000002,DEPT_HEAD,HR,,9000000001\n");
+		assertThat(employeeRepo.existsByMobileNumber("9100000002")).isTrue();
+
+		BulkImportResult result = importCsv(HEADER
+				+ "Another Head,9100000003,DEPT_HEAD,HR,,9000000001\n"
+				+ "Hr Manager,9100000004,MANAGER,HR,,9100000002\n");
+
+		assertThat(result.getImported()).isEqualTo(1);
+		assertThat(result.getErrors()).extracting(RowError::getRow, RowError::getMessage)
+				.containsExactly(tuple(1, "Department head already exists for this department"));
+		assertThat(employeeRepo.existsByMobileNumber("9100000004")).isTrue();
+	}
+
+	// Both tests need the CEO, whichever runs first imports it
+	private void ensureCeo() throws Exception {
+		if (!employeeRepo.existsByDesignation_OrgDesignations(OrgDesignations.CEO)) {
+			assertThat(importCsv(HEADER + "Asha Menon,9000000001,CEO,,,\n").getImported()).isEqualTo(1);
+		}
+	}
+
+	private BulkImportResult importCsv(String csv) throws Exception {
+		return importService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
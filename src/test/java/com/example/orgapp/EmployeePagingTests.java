@@ -0,0 +1,152 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.service.OrgService;
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:paging;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class EmployeePagingTests {
+
+	private static final String NDJSON = "application/x-ndjson";
+
+	// Everyone in IT, in id order; seeded once for all tests
+	private static final List<Long> itIds = new ArrayList<>();
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrgService orgService;
+
+	@BeforeEach
+	void seedOrg() {
+		if (!itIds.isEmpty()) {
+			return;
+		}
+		Employee ceo = orgService.addEmployee(employee("ceo", OrgDesignations.CEO, null, null));
+		Employee head = orgService.addEmployee(employee("it-head", OrgDesignations.DEPT_HEAD, "IT", ceo));
+		Employee manager = orgService.addEmployee(employee("it-mgr", OrgDesignations.MANAGER, "IT", head));
+		itIds.add(head.getId());
+		itIds.add(manager.getId());
+		for (int i = 0; i < 5; i++) {
+			itIds.add(orgService.addEmployee(employee("dev" + i, OrgDesignations.DEVELOPER, "IT", manager)).getId());
+		}
+	}
+
+	@Test
+	void cursorsWalkTheDepartmentOnceAndTheLastPageHasNone() throws Exception {
+		List<Long> seen = new ArrayList<>();
+		List<Integer> pageSizes = new ArrayList<>();
+		Long cursor = null;
+		do {
+			String body = mockMvc.perform(cursor == null
+					? get("/api/department/IT/employees").param("size", "3")
+					: get("/api/department/IT/employees").param("size", "3").param("after", cursor.toString()))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			List<Number> ids = JsonPath.read(body, "$.employees[*].id");
+			ids.forEach(id -> seen.add(id.longValue()));
+			pageSizes.add(ids.size());
+			Number next = JsonPath.read(body, "$.nextCursor");
+			if (next != null) {
+				assertThat(next.longValue()).isEqualTo(seen.get(seen.size() - 1));
+			}
+			cursor = next == null ? null : next.longValue();
+		} while (cursor != null);
+
+		assertThat(seen).isEqualTo(itIds);
+		assertThat(pageSizes).containsExactly(3, 3, 1);
+	}
+
+	@Test
+	void aPageThatEndsExactlyAtTheLastEmployeeHasNoCursor() throws Exception {
+		mockMvc.perform(get("/api/department/IT/employees").param("size", String.valueOf(itIds.size())))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.employees.length()").value(itIds.size()))
+				.andExpect(jsonPath("$.nextCursor").doesNotExist());
+	}
+
+	@Test
+	void invalidOrTamperedCursorsAreRejectedOrReturnNothingExtra() throws Exception {
+		// Not an id at all
+		mockMvc.perform(get("/api/department/IT/employees").param("after", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+		// Past the last employee: an empty last page
+		mockMvc.perform(get("/api/department/IT/employees").param("after", String.valueOf(Long.MAX_VALUE)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.employees.length()").value(0))
+				.andExpect(jsonPath("$.nextCursor").doesNotExist());
+		// Before the first one: the department from its start, never anyone from elsewhere
+		mockMvc.perform(get("/api/department/IT/employees").param("after", "-1").param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.employees[0].id").value(itIds.get(0)))
+				.andExpect(jsonPath("$.nextCursor").value(itIds.get(1)));
+		// Out-of-range sizes are clamped
+		mockMvc.perform(get("/api/department/IT/employees").param("size", "0"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.employees.length()").value(1))
+				.andExpect(jsonPath("$.nextCursor").value(itIds.get(0)));
+		mockMvc.perform(get("/api/department/NOPE/employees").param("size", "2"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void ndjsonStreamsOneEmployeePerLine() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/department/IT/employees").accept(NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(body).endsWith("\n");
+		String[] lines = body.split("\n");
+		assertThat(lines).hasSize(itIds.size());
+		List<Long> ids = new ArrayList<>();
+		for (String line : lines) {
+			assertThat(line).startsWith("{").endsWith("}");
+			ids.add(((Number) JsonPath.read(line, "$.id")).longValue());
+			assertThat(JsonPath.<String>read(line, "$.department")).isEqualTo("IT");
+		}
+		assertThat(ids).isEqualTo(itIds);
+	}
+
+	@Test
+	void ndjsonForAnUnknownDepartmentIsAPlainBadRequest() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/department/NOPE/employees").accept(NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+				.andExpect(content().string("Department not found"));
+	}
+
+}
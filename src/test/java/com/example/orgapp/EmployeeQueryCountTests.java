@@ -0,0 +1,112 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.service.OrgService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:querycount;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureMockMvc
+@DirtiesContext
+class EmployeeQueryCountTests {
+
+	private static final int STAFF = 20;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrgService orgService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private static Long managerId;
+
+	private static Long headId;
+
+	@BeforeEach
+	void seedOrg() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		if (managerId != null) {
+			return;
+		}
+		Employee ceo = orgService.addEmployee(employee("ceo", OrgDesignations.CEO, null, null));
+		Employee head = orgService.addEmployee(employee("head", OrgDesignations.DEPT_HEAD, "IT", ceo));
+		Employee manager = orgService.addEmployee(employee("manager", OrgDesignations.MANAGER, "IT", head));
+		for (int i = 0; i < STAFF; i++) {
+			orgService.addEmployee(employee("dev" + i, OrgDesignations.DEVELOPER, "IT", manager));
+		}
+		managerId = manager.getId();
+		headId = head.getId();
+	}
+
+	@Test
+	void departmentListingUsesConstantStatements() throws Exception {
+		statistics.clear();
+		mockMvc.perform(get("/api/department/IT/employees"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(STAFF + 2));
+		// one projection query regardless of department size (department lookup is cached)
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void managerListingUsesConstantStatements() throws Exception {
+		statistics.clear();
+		mockMvc.perform(get("/api/manager/{id}/employees", managerId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(STAFF));
+		// manager lookup with its designation + one projection query
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void malformedEmployeeIsRejectedWithAllErrorsBeforeAnyQuery() throws Exception {
+		statistics.clear();
+		mockMvc.perform(post("/api/employee").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"x\",\"designation\":{\"orgDesignations\":\"DEVELOPER\"}}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("Mobile number is required; Please provide a valid department; "
+						+ "Employee must report to manager"));
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void wellFormedEmployeeIsRejectedAfterOneQuery() throws Exception {
+		statistics.clear();
+		mockMvc.perform(post("/api/employee").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"x\",\"mobileNumber\":\"dev0-mobile\",\"designation\":{\"orgDesignations\":"
+						+ "\"DEVELOPER\"},\"department\":{\"departmentName\":\"IT\"},\"reportTo\":{\"id\":" + headId + "}}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("Employee with this mobile number already exists; "
+						+ "Employee must report to manager"));
+		// mobile number, role and reportTo checks share one query (department lookup is cached)
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+}
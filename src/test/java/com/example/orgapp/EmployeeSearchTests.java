@@ -0,0 +1,84 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.service.EmployeeSearchIndex;
+import com.example.orgapp.service.OrgService;
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class EmployeeSearchTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrgService orgService;
+
+	@Autowired
+	private EmployeeSearchIndex searchIndex;
+
+	@Test
+	void findsByNamePrefixTypoAndMobilePrefixWithPaging() throws Exception {
+		Employee ceo = orgService.addEmployee(employee("Asha Menon", "9876500001", OrgDesignations.CEO, null, null));
+		Employee head = orgService.addEmployee(employee("Ravi Kumar", "9876500002", OrgDesignations.DEPT_HEAD, "IT", ceo));
+		Employee manager = orgService.addEmployee(employee("Rahul Sharma", "9876500003", OrgDesignations.MANAGER, "IT", head));
+		orgService.addEmployee(employee("Priya Raman", "9876500004", OrgDesignations.DEVELOPER, "IT", manager));
+		orgService.addEmployee(employee("Ravindra Rao", "9123400005", OrgDesignations.TESTER, "IT", manager));
+
+		assertThat(names("ra")).containsExactly("Ravi Kumar", "Rahul Sharma", "Priya Raman", "Ravindra Rao");
+		assertThat(names("ravi kum")).containsExactly("Ravi Kumar");
+		// One edit away from "rahul"
+		assertThat(names("rahl")).containsExactly("Rahul Sharma");
+		assertThat(names("sharam")).containsExactly("Rahul Sharma");
+
+		// Mobile number prefix, two per page
+		String first = mockMvc.perform(get("/api/employees/search").param("q", "98765").param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.employees.length()").value(2))
+				.andExpect(jsonPath("$.employees[0].department").doesNotExist())
+				.andReturn().getResponse().getContentAsString();
+		long cursor = ((Number) JsonPath.read(first, "$.nextCursor")).longValue();
+		mockMvc.perform(get("/api/employees/search").param("q", "98765").param("size", "2")
+				.param("after", String.valueOf(cursor)))
+				.andExpect(jsonPath("$.employees[*].name").value(contains("Rahul Sharma",
+						"Priya Raman")))
+				.andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+		// Folding the recent additions into the main segment, or rebuilding it, gives the same answers
+		searchIndex.mergeDelta();
+		assertThat(names("ra")).containsExactly("Ravi Kumar", "Rahul Sharma", "Priya Raman", "Ravindra Rao");
+		searchIndex.rebuild();
+		assertThat(names("ravindra")).containsExactly("Ravindra Rao");
+		assertThat(searchIndex.size()).isEqualTo(5);
+
+		mockMvc.perform(get("/api/employees/search").param("q", " "))
+				.andExpect(status().isBadRequest());
+	}
+
+	private List<String> names(String query) throws Exception {
+		String body = mockMvc.perform(get("/api/employees/search").param("q", query))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return JsonPath.read(body, "$.employees[*].name");
+	}
+
+}
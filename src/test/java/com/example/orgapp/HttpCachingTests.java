@@ -0,0 +1,91 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.service.OrgService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:httpcaching;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureMockMvc
+@DirtiesContext
+class HttpCachingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrgService orgService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void listingsAnswerNotModifiedUntilTheirDepartmentChanges() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		Employee ceo = orgService.addEmployee(employee("ceo", OrgDesignations.CEO, null, null));
+		Employee head = orgService.addEmployee(employee("it-head", OrgDesignations.DEPT_HEAD, "IT", ceo));
+		Employee manager = orgService.addEmployee(employee("it-mgr", OrgDesignations.MANAGER, "IT", head));
+		orgService.addEmployee(employee("dev0", OrgDesignations.DEVELOPER, "IT", manager));
+
+		String etag = mockMvc.perform(get("/api/department/IT/employees"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).startsWith("W/\"dept");
+
+		statistics.clear();
+		mockMvc.perform(get("/api/department/IT/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(content().string(""));
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+
+		// A change in another department leaves the tag alone, one in IT replaces it
+		orgService.addEmployee(employee("hr-head", OrgDesignations.DEPT_HEAD, "HR", ceo));
+		mockMvc.perform(get("/api/department/IT/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		orgService.addEmployee(employee("dev1", OrgDesignations.DEVELOPER, "IT", manager));
+		String changed = mockMvc.perform(get("/api/department/IT/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(changed).isNotEqualTo(etag);
+
+		String managerTag = mockMvc.perform(get("/api/manager/{id}/employees", manager.getId()))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/api/manager/{id}/employees", manager.getId()).header(HttpHeaders.IF_NONE_MATCH, managerTag))
+				.andExpect(status().isNotModified());
+
+		String designationTag = mockMvc.perform(get("/api/designation"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, must-revalidate"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/api/designation").header(HttpHeaders.IF_NONE_MATCH, designationTag))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(post("/api/designation/refresh"));
+		mockMvc.perform(get("/api/designation").header(HttpHeaders.IF_NONE_MATCH, designationTag))
+				.andExpect(status().isOk());
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.create;
+import static com.example.orgapp.TestEmployees.employeeJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.orgapp.service.EmployeeIngestQueue;
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ingest;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class IngestQueueTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EmployeeIngestQueue ingestQueue;
+
+	@Test
+	void queuedEmployeesAreImportedInBatchesAndTrackedById() throws Exception {
+		long ceo = create(mockMvc, employeeJson("ceo", "CEO", null, null));
+		long head = create(mockMvc, employeeJson("it-head", "DEPT_HEAD", "IT", ceo));
+		long manager = create(mockMvc, employeeJson("it-mgr", "MANAGER", "IT", head));
+
+		List<String> locations = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			locations.add(mockMvc.perform(async(employeeJson("dev" + i, "DEVELOPER", "IT", manager)))
+					.andExpect(status().isAccepted())
+					.andExpect(header().string("Preference-Applied", "respond-async"))
+					.andExpect(jsonPath("$.state").value("QUEUED"))
+					.andReturn().getResponse().getHeader(HttpHeaders.LOCATION));
+		}
+		// Well-formed, so accepted, but the mobile number is taken: the import rejects it
+		String duplicate = mockMvc.perform(async(employeeJson("dev0", "DEVELOPER", "IT", manager)))
+				.andExpect(status().isAccepted())
+				.andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+		// Malformed requests are refused before they are queued
+		mockMvc.perform(async(employeeJson("dev-x", "DEVELOPER", "IT", null)))
+				.andExpect(status().isBadRequest());
+
+		for (String location : locations) {
+			String body = awaitCompletion(location);
+			assertThat((String) JsonPath.read(body, "$.state")).isEqualTo("IMPORTED");
+			assertThat((Integer) JsonPath.read(body, "$.employeeId")).isNotNull();
+		}
+		String rejected = awaitCompletion(duplicate);
+		assertThat((String) JsonPath.read(rejected, "$.state")).isEqualTo("FAILED");
+		assertThat((String) JsonPath.read(rejected, "$.error"))
+				.isEqualTo("Employee with this mobile number already exists");
+		mockMvc.perform(get("/api/manager/{id}/employees", manager))
+				.andExpect(jsonPath("$.length()").value(50));
+		mockMvc.perform(get("/api/ingest/{id}", "no-such-id"))
+				.andExpect(status().isNotFound());
+
+		// A stopped (or full) queue refuses with 429 so clients back off
+		ingestQueue.stop();
+		try {
+			mockMvc.perform(async(employeeJson("late", "DEVELOPER", "IT", manager)))
+					.andExpect(status().isTooManyRequests())
+					.andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+		} finally {
+			ingestQueue.start();
+		}
+	}
+
+	private String awaitCompletion(String location) throws Exception {
+		for (int attempt = 0; attempt < 200; attempt++) {
+			String body = mockMvc.perform(get(location))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			if (!"QUEUED".equals(JsonPath.read(body, "$.state"))) {
+				return body;
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError(location + " was not processed");
+	}
+
+	private MockHttpServletRequestBuilder async(String json) {
+		return post("/api/employee").header("Prefer", "respond-async")
+				.contentType(MediaType.APPLICATION_JSON).content(json);
+	}
+
+}
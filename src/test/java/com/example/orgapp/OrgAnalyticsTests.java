@@ -0,0 +1,181 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.dto.HeadcountDTO;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.service.OrgAnalytics;
+import com.example.orgapp.service.OrgService;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:analytics;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+@TestMethodOrder(OrderAnnotation.class)
+class OrgAnalyticsTests {
+
+	private static final int WRITERS = 4;
+	private static final int INSERTS_PER_WRITER = 25;
+
+	private static Employee ceo;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrgService orgService;
+
+	@Autowired
+	private OrgAnalytics orgAnalytics;
+
+	@Test
+	@Order(1)
+	void countersFollowInsertsMovesAndImportsWithoutDrift() throws Exception {
+		ceo = orgService.addEmployee(employee("ceo", OrgDesignations.CEO, null, null));
+		Employee itHead = orgService.addEmployee(employee("it-head", OrgDesignations.DEPT_HEAD, "IT", ceo));
+		Employee itManager = orgService.addEmployee(employee("it-mgr", OrgDesignations.MANAGER, "IT", itHead));
+		Employee hrHead = orgService.addEmployee(employee("hr-head", OrgDesignations.DEPT_HEAD, "HR", ceo));
+		Employee hrManager = orgService.addEmployee(employee("hr-mgr", OrgDesignations.MANAGER, "HR", hrHead));
+		Employee dev = orgService.addEmployee(employee("dev0", OrgDesignations.DEVELOPER, "IT", itManager));
+		orgService.addEmployee(employee("dev1", OrgDesignations.DEVELOPER, "IT", itManager));
+		orgService.addEmployee(employee("tester", OrgDesignations.TESTER, "IT", itManager));
+		orgService.moveEmployeeToDepartment(dev.getId(), "HR", hrManager.getId());
+		mockMvc.perform(post("/api/employees/bulk").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"name\":\"intern\",\"mobileNumber\":\"intern\",\"designation\":\"INTERN\","
+						+ "\"department\":\"HR\",\"reportTo\":" + hrManager.getId() + "}]"))
+				.andExpect(jsonPath("$.imported").value(1));
+
+		// Departments in name order after the CEO row: HR, IT
+		mockMvc.perform(get("/api/analytics/headcount"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].department").doesNotExist())
+				.andExpect(jsonPath("$[0].byDesignation.CEO").value(1))
+				.andExpect(jsonPath("$[1].department").value("HR"))
+				.andExpect(jsonPath("$[1].total").value(4))
+				.andExpect(jsonPath("$[1].byDesignation.DEVELOPER").value(1))
+				.andExpect(jsonPath("$[1].byDesignation.INTERN").value(1))
+				.andExpect(jsonPath("$[1].maxDepth").value(3))
+				.andExpect(jsonPath("$[2].department").value("IT"))
+				.andExpect(jsonPath("$[2].total").value(4))
+				.andExpect(jsonPath("$[2].byDesignation.DEVELOPER").value(1));
+
+		mockMvc.perform(get("/api/analytics/span-of-control"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].maxSpan").value(2))
+				.andExpect(jsonPath("$[1].managers").value(2))
+				.andExpect(jsonPath("$[1].directReports").value(3))
+				.andExpect(jsonPath("$[1].maxSpan").value(2))
+				.andExpect(jsonPath("$[2].directReports").value(3))
+				.andExpect(jsonPath("$[2].averageSpan").value(1.5));
+
+		mockMvc.perform(post("/api/analytics/rebuild"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.drift").value(0));
+	}
+
+	// Inserts commit while rebuilds recount; every insert is counted once, whichever side of a recount it lands
+	@Test
+	@Order(2)
+	void insertsDuringRebuildsAreCountedExactlyOnce() throws Exception {
+		orgService.addDepartment(department("OPS"));
+		Employee head = orgService.addEmployee(employee("ops-head", OrgDesignations.DEPT_HEAD, "OPS", ceo));
+		Employee manager = orgService.addEmployee(employee("ops-mgr", OrgDesignations.MANAGER, "OPS", head));
+
+		ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 1);
+		AtomicBoolean writing = new AtomicBoolean(true);
+		try {
+			Future<Integer> rebuilds = pool.submit(() -> {
+				int n = 0;
+				while (writing.get()) {
+					orgAnalytics.rebuild();
+					n++;
+				}
+				return n;
+			});
+			List<Future<?>> writers = new ArrayList<>();
+			for (int w = 0; w < WRITERS; w++) {
+				int writer = w;
+				writers.add(pool.submit(() -> {
+					for (int i = 0; i < INSERTS_PER_WRITER; i++) {
+						orgService.addEmployee(employee("ops-dev-" + writer + "-" + i, OrgDesignations.DEVELOPER,
+								"OPS", manager));
+					}
+					return null;
+				}));
+			}
+			for (Future<?> writer : writers) {
+				writer.get();
+			}
+			writing.set(false);
+			assertThat(rebuilds.get()).isPositive();
+		} finally {
+			pool.shutdownNow();
+		}
+
+		HeadcountDTO ops = orgAnalytics.headcount().stream().filter(h -> "OPS".equals(h.getDepartment()))
+				.findFirst().orElseThrow();
+		assertThat(ops.getTotal()).isEqualTo(2 + WRITERS * INSERTS_PER_WRITER);
+		assertThat(orgAnalytics.rebuild()).isZero();
+	}
+
+	// The reorg answers without recounting; the counters catch up once the background rebuild is swapped in
+	@Test
+	@Order(3)
+	void countersCatchUpWithAReorgInTheBackground() throws Exception {
+		orgService.addDepartment(department("LEGAL"));
+		Employee legalHead = orgService.addEmployee(employee("legal-head", OrgDesignations.DEPT_HEAD, "LEGAL", ceo));
+		Long opsManager = orgService.getEmployeesByDepartment("OPS").stream()
+				.filter(e -> e.getDesignation().equals("MANAGER")).findFirst().orElseThrow().getId();
+
+		mockMvc.perform(post("/api/reorg").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"employeeId\":" + opsManager + ",\"department\":\"LEGAL\",\"reportTo\":"
+						+ legalHead.getId() + ",\"withSubtree\":true}]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.applied").value(true));
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (total("LEGAL") != 2 + WRITERS * INSERTS_PER_WRITER) {
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			Thread.sleep(20);
+		}
+		assertThat(total("OPS")).isEqualTo(1);
+		assertThat(orgAnalytics.rebuild()).isZero();
+	}
+
+	private long total(String department) {
+		return orgAnalytics.headcount().stream().filter(h -> department.equals(h.getDepartment()))
+				.findFirst().map(HeadcountDTO::getTotal).orElse(0L);
+	}
+
+	private Department department(String name) {
+		Department dept = new Department();
+		dept.setDepartmentName(name);
+		return dept;
+	}
+
+}
@@ -0,0 +1,163 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.orgapp.dto.ChangeDTO;
+import com.example.orgapp.dto.ChangePageDTO;
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.ChangeType;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.service.OrgChangeFeed;
+import com.example.orgapp.service.OrgService;
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:changefeed;DB_CLOSE_DELAY=-1",
+		"org.changes.retention=PT0S" })
+@AutoConfigureMockMvc
+@DirtiesContext
+@TestMethodOrder(OrderAnnotation.class)
+class OrgChangeFeedTests {
+
+	private static Employee ceo;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrgService orgService;
+
+	@Autowired
+	private OrgChangeFeed changeFeed;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	@Order(1)
+	void changesStreamInCommitOrderLongPollAndCompact() throws Exception {
+		orgService.addDepartment(department("OPS"));
+		ceo = orgService.addEmployee(employee("ceo", OrgDesignations.CEO, null, null));
+		Employee head = orgService.addEmployee(employee("head", OrgDesignations.DEPT_HEAD, "OPS", ceo));
+		// Rejected writes leave no trace in the feed
+		try {
+			orgService.addEmployee(employee("ceo2", OrgDesignations.CEO, null, null));
+		} catch (IllegalArgumentException expected) {
+		}
+
+		String body = changes(0)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(JsonPath.<List<String>>read(body, "$.changes[*].type"))
+				.containsExactly("DEPARTMENT_ADDED", "EMPLOYEE_ADDED", "EMPLOYEE_ADDED");
+		assertThat(JsonPath.<String>read(body, "$.changes[2].payload.department")).isEqualTo("OPS");
+		long offset = ((Number) JsonPath.read(body, "$.nextOffset")).longValue();
+
+		// Long poll: held open until the next change commits
+		MvcResult poll = mockMvc.perform(get("/api/changes").param("since", String.valueOf(offset)).param("wait", "10"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		orgService.addDepartment(department("SALES"));
+		orgService.moveEmployeeToDepartment(head.getId(), "SALES", ceo.getId());
+		mockMvc.perform(asyncDispatch(poll))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.changes[0].type").value("DEPARTMENT_ADDED"))
+				.andExpect(jsonPath("$.changes[0].payload.departmentName").value("SALES"));
+
+		// With zero retention the head's EMPLOYEE_ADDED is superseded by its move
+		assertThat(changeFeed.compact()).isEqualTo(1);
+		changes(0)
+				.andExpect(jsonPath("$.changes.length()").value(4))
+				.andExpect(jsonPath("$.changes[3].type").value("EMPLOYEE_MOVED"))
+				.andExpect(jsonPath("$.changes[3].payload.department").value("SALES"));
+	}
+
+	// Writers do not wait for each other's commits; readers wait for the lowest transaction still in flight
+	@Test
+	@Order(2)
+	void aCommitBehindATransactionInFlightIsReadOnceThatOneCompletes() throws Exception {
+		long before = changeFeed.completedOffset();
+		CountDownLatch committed = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			// Committed, but held just before completing, so its offset is still in flight
+			Future<?> held = pool.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+				orgService.addEmployee(employee("ops-head", OrgDesignations.DEPT_HEAD, "OPS", ceo));
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+					@Override
+					public void afterCommit() {
+						committed.countDown();
+						try {
+							release.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				});
+			}));
+			assertThat(committed.await(10, TimeUnit.SECONDS)).isTrue();
+			CompletableFuture<ChangePageDTO> poll = changeFeed.poll(before, null, Duration.ofSeconds(10));
+
+			// Takes a higher offset and commits without waiting for the held transaction
+			pool.submit(() -> orgService.addDepartment(department("LEGAL"))).get(10, TimeUnit.SECONDS);
+			assertThat(changeFeed.read(before, null).getChanges()).isEmpty();
+			Thread.sleep(200);
+			assertThat(poll).isNotDone();
+
+			release.countDown();
+			held.get(10, TimeUnit.SECONDS);
+			assertThat(poll.get(10, TimeUnit.SECONDS).getChanges()).extracting(ChangeDTO::getType)
+					.containsExactly(ChangeType.EMPLOYEE_ADDED, ChangeType.DEPARTMENT_ADDED);
+		} finally {
+			release.countDown();
+			pool.shutdownNow();
+		}
+	}
+
+	// The endpoint is always asynchronous, even when the page is already complete
+	private ResultActions changes(long since) throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/changes").param("since", String.valueOf(since)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(result));
+	}
+
+	private Department department(String name) {
+		Department dept = new Department();
+		dept.setDepartmentName(name);
+		return dept;
+	}
+
+}
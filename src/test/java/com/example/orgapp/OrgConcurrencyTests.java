@@ -0,0 +1,180 @@
+package com.example.orgapp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.repository.EmployeeRepository;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Hammers the write endpoints from many threads and checks that the
+ * single-holder roles (one CEO, one head per department) survive the races,
+ * then that inserts from growing thread counts all succeed. Throughput is
+ * measured against a running app by {@link OrgLoadHarness}.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+		"spring.jpa.show-sql=false",
+		"logging.level.org.hibernate.SQL=info" })
+@DirtiesContext
+@TestMethodOrder(OrderAnnotation.class)
+class OrgConcurrencyTests {
+
+	private static final int THREADS = 16;
+
+	private static final AtomicInteger MOBILE = new AtomicInteger();
+
+	private static Long ceoId;
+
+	@Autowired
+	private TestRestTemplate rest;
+
+	@Autowired
+	private EmployeeRepository employeeRepo;
+
+	@Test
+	@Order(1)
+	void concurrentCeoInsertsCreateExactlyOneCeo() throws Exception {
+		List<ResponseEntity<String>> responses = race(THREADS,
+				() -> postEmployee("ceo", OrgDesignations.CEO, null, null));
+
+		assertThat(created(responses)).hasSize(1);
+		assertThat(employeeRepo.findByDesignation_OrgDesignationsAndDepartment_Id(OrgDesignations.CEO, null))
+				.isPresent();
+		ceoId = id(created(responses).get(0));
+	}
+
+	@Test
+	@Order(2)
+	void concurrentDeptHeadInsertsCreateOneHeadPerDepartment() throws Exception {
+		addDepartment("RACE");
+		List<ResponseEntity<String>> responses = race(THREADS,
+				() -> postEmployee("head", OrgDesignations.DEPT_HEAD, "RACE", ceoId));
+
+		assertThat(created(responses)).hasSize(1);
+		assertThat(employeeRepo.findByDepartment_DepartmentNameAndDesignation_OrgDesignations("RACE",
+				OrgDesignations.DEPT_HEAD)).hasSize(1);
+	}
+
+	@Test
+	@Order(3)
+	void concurrentMovesKeepOneHeadPerDepartment() throws Exception {
+		addDepartment("TARGET");
+		List<Long> heads = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			addDepartment("SOURCE" + i);
+			heads.add(id(postEmployee("head", OrgDesignations.DEPT_HEAD, "SOURCE" + i, ceoId)));
+		}
+
+		AtomicInteger next = new AtomicInteger();
+		List<ResponseEntity<String>> responses = race(THREADS, () -> rest.exchange(
+				"/api/employee/{id}/move/TARGET/{ceo}", HttpMethod.PUT, HttpEntity.EMPTY, String.class,
+				heads.get(next.getAndIncrement()), ceoId));
+
+		assertThat(responses).filteredOn(r -> r.getStatusCode() == HttpStatus.OK).hasSize(1);
+		assertThat(employeeRepo.findByDepartment_DepartmentNameAndDesignation_OrgDesignations("TARGET",
+				OrgDesignations.DEPT_HEAD)).hasSize(1);
+	}
+
+	@Test
+	@Order(4)
+	void staffInsertsFromGrowingThreadCountsAllSucceed() throws Exception {
+		addDepartment("LOAD");
+		Long head = id(postEmployee("head", OrgDesignations.DEPT_HEAD, "LOAD", ceoId));
+		Long manager = id(postEmployee("manager", OrgDesignations.MANAGER, "LOAD", head));
+
+		int inserts = 200;
+		for (int threads : new int[] { 1, 2, 4, 8 }) {
+			List<ResponseEntity<String>> responses = race(threads, () -> {
+				List<ResponseEntity<String>> batch = new ArrayList<>();
+				for (int i = 0; i < inserts / threads; i++) {
+					batch.add(postEmployee("dev", OrgDesignations.DEVELOPER, "LOAD", manager));
+				}
+				return batch;
+			}).stream().flatMap(List::stream).toList();
+
+			assertThat(created(responses)).hasSize(inserts);
+		}
+		assertThat(employeeRepo.findDtoByReportToIdAndDepartmentId(manager,
+				employeeRepo.findById(manager).get().getDepartment().getId())).hasSize(inserts * 4);
+	}
+
+	// ---------------- Helpers ----------------
+
+	// Run the task on the given number of threads, released together
+	private <T> List<T> race(int threads, Callable<T> task) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<T>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					return task.call();
+				}));
+			}
+			start.countDown();
+			List<T> results = new ArrayList<>();
+			for (Future<T> f : futures) {
+				results.add(f.get());
+			}
+			return results;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private ResponseEntity<String> postEmployee(String name, OrgDesignations designation, String department,
+			Long reportTo) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("name", name);
+		body.put("mobileNumber", "9" + MOBILE.incrementAndGet());
+		body.put("designation", Map.of("orgDesignations", designation.name()));
+		if (department != null) {
+			body.put("department", Map.of("departmentName", department));
+		}
+		if (reportTo != null) {
+			body.put("reportTo", Map.of("id", reportTo));
+		}
+		return rest.postForEntity("/api/employee", body, String.class);
+	}
+
+	private void addDepartment(String name) {
+		rest.postForEntity("/api/departments", Map.of("departmentName", name), String.class);
+	}
+
+	private static List<ResponseEntity<String>> created(List<ResponseEntity<String>> responses) {
+		return responses.stream().filter(r -> r.getStatusCode() == HttpStatus.CREATED).toList();
+	}
+
+	private static Long id(ResponseEntity<String> response) {
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		return ((Number) JsonPath.read(response.getBody(), "$.id")).longValue();
+	}
+
+}
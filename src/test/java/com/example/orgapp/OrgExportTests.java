@@ -0,0 +1,99 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.orgapp.dto.ExportDTO;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.service.OrgExporter;
+import com.example.orgapp.service.OrgService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:export;DB_CLOSE_DELAY=-1",
+		"org.export.directory=target/export-tests",
+		"org.export.keep=1" })
+@AutoConfigureMockMvc
+@DirtiesContext
+class OrgExportTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrgService orgService;
+
+	@Autowired
+	private OrgExporter orgExporter;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	void exportWritesEveryEmployeeToOneGzippedCsv() throws Exception {
+		Employee ceo = orgService.addEmployee(employee("ceo", OrgDesignations.CEO, null, null));
+		Employee head = orgService.addEmployee(employee("it-head", OrgDesignations.DEPT_HEAD, "IT", ceo));
+		Employee manager = orgService.addEmployee(employee("Doe, \"JD\" Jane", OrgDesignations.MANAGER, "IT", head));
+		Employee nameless = employee("nameless", OrgDesignations.DEVELOPER, "IT", manager);
+		nameless.setName(null);
+		nameless = orgService.addEmployee(nameless);
+
+		ExportDTO first = orgExporter.export();
+		assertThat(first.getEmployees()).isEqualTo(4);
+		assertThat(first.getBytes()).isPositive();
+
+		mockMvc.perform(post("/api/export"))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.employees").value(4));
+		// Only the newest is kept
+		assertThat(Files.list(Path.of("target/export-tests")).filter(p -> p.toString().endsWith(".csv.gz")))
+				.hasSize(1);
+
+		byte[] body = mockMvc.perform(get("/api/export"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/gzip"))
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+						"attachment; filename=\"" + orgExporter.latest().getFileName() + "\""))
+				.andReturn().getResponse().getContentAsByteArray();
+		assertThat(gunzip(body)).containsExactly(
+				"id,name,mobileNumber,department,designation,reportTo",
+				ceo.getId() + ",ceo,ceo-mobile,,CEO,",
+				head.getId() + ",it-head,it-head-mobile,IT,DEPT_HEAD," + ceo.getId(),
+				manager.getId() + ",\"Doe, \"\"JD\"\" Jane\",\"Doe, \"\"JD\"\" Jane-mobile\",IT,MANAGER," + head.getId(),
+				nameless.getId() + ",,nameless-mobile,IT,DEVELOPER," + manager.getId());
+
+		assertThat(registry.get("org.export.rows").counter().count()).isEqualTo(8);
+		assertThat(registry.get("org.export.size").summary().count()).isEqualTo(2);
+		assertThat(registry.get("org.export.runs").tag("outcome", "success").timer().count()).isEqualTo(2);
+	}
+
+	private static List<String> gunzip(byte[] gzipped) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+		}
+	}
+
+}
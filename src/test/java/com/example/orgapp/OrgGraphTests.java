@@ -0,0 +1,150 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.example.orgapp.dto.EmployeeDTO;
+import com.example.orgapp.dto.ReorgMove;
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.repository.DepartmentRepository;
+import com.example.orgapp.repository.EmployeeRepository;
+import com.example.orgapp.service.OrgGraph;
+import com.example.orgapp.service.OrgService;
+import com.example.orgapp.service.ReorgService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:orggraph;DB_CLOSE_DELAY=-1",
+		"org.graph.enabled=true",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+@DirtiesContext
+class OrgGraphTests {
+
+	@Autowired
+	private OrgService orgService;
+
+	@Autowired
+	private ReorgService reorgService;
+
+	@Autowired
+	private OrgGraph orgGraph;
+
+	@Autowired
+	private EmployeeRepository employeeRepo;
+
+	@Autowired
+	private DepartmentRepository departmentRepo;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void graphAnswersLikeTheDatabaseThroughWritesMergesAndReorgs() throws Exception {
+		Employee ceo = orgService.addEmployee(employee("ceo", OrgDesignations.CEO, null, null));
+		Employee itHead = orgService.addEmployee(employee("it-head", OrgDesignations.DEPT_HEAD, "IT", ceo));
+		Employee hrHead = orgService.addEmployee(employee("hr-head", OrgDesignations.DEPT_HEAD, "HR", ceo));
+		List<Employee> managers = new ArrayList<>();
+		for (String dept : List.of("IT", "IT", "HR")) {
+			managers.add(orgService.addEmployee(employee("mgr" + managers.size(), OrgDesignations.MANAGER, dept,
+					dept.equals("IT") ? itHead : hrHead)));
+		}
+		List<Employee> staff = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			Employee manager = managers.get(i % 3);
+			staff.add(orgService.addEmployee(employee("dev" + i, OrgDesignations.DEVELOPER,
+					manager.getDepartment().getDepartmentName(), manager)));
+		}
+		// Names are optional and must come back as null, not empty, also once folded into the base
+		Employee nameless = employee("nameless", OrgDesignations.TESTER, "HR", managers.get(2));
+		nameless.setName(null);
+		orgService.addEmployee(nameless);
+		assertThat(orgGraph.snapshot()).isNotNull();
+		assertSameAsDatabase();
+
+		// Served from memory: no statement reaches the database
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long statements = stats.getPrepareStatementCount();
+		assertThat(orgService.getEmployeesReportingToManager(managers.get(0).getId())).hasSize(4);
+		assertThat(orgService.getEmployeePageByDepartment("IT", staff.get(0).getId(), 3).getEmployees())
+				.extracting(EmployeeDTO::getId).containsExactly(staff.get(1).getId(), staff.get(3).getId(),
+						staff.get(4).getId());
+		assertThatThrownBy(() -> orgService.getEmployeesReportingToManager(itHead.getId()))
+				.hasMessage("Employee is not a manager");
+		assertThatThrownBy(() -> orgService.getEmployeesByDepartment("NOPE")).hasMessage("Department not found");
+		assertThat(stats.getPrepareStatementCount()).isEqualTo(statements);
+
+		// Moves across managers and departments, and back to where the base has them
+		orgService.moveEmployeeToDepartment(staff.get(0).getId(), "IT", managers.get(1).getId());
+		orgService.moveEmployeeToDepartment(staff.get(1).getId(), "HR", managers.get(2).getId());
+		orgService.moveEmployeeToDepartment(staff.get(2).getId(), "IT", managers.get(0).getId());
+		orgService.moveEmployeeToDepartment(staff.get(1).getId(), "IT", managers.get(1).getId());
+		assertSameAsDatabase();
+		orgService.moveEmployeeToDepartment(staff.get(1).getId(), "IT", managers.get(0).getId());
+		assertSameAsDatabase();
+
+		// New departments and employees on top of the overlay, then folded into a new base
+		orgService.addDepartment(department("OPS"));
+		Employee opsHead = orgService.addEmployee(employee("ops-head", OrgDesignations.DEPT_HEAD, "OPS", ceo));
+		Employee opsManager = orgService.addEmployee(employee("ops-mgr", OrgDesignations.MANAGER, "OPS", opsHead));
+		orgService.moveEmployeeToDepartment(staff.get(3).getId(), "OPS", opsManager.getId());
+		assertSameAsDatabase();
+		orgGraph.merge();
+		assertSameAsDatabase();
+		orgService.moveEmployeeToDepartment(staff.get(3).getId(), "IT", managers.get(0).getId());
+		assertSameAsDatabase();
+
+		// A reorg reloads the graph; until then the database answers
+		ReorgMove move = new ReorgMove();
+		move.setEmployeeId(managers.get(1).getId());
+		move.setDepartment("HR");
+		move.setReportTo(hrHead.getId());
+		move.setWithSubtree(true);
+		assertThat(reorgService.reorg(List.of(move)).isApplied()).isTrue();
+		assertSameAsDatabase();
+		for (int attempt = 0; attempt < 100 && orgGraph.snapshot() == null; attempt++) {
+			Thread.sleep(50);
+		}
+		assertThat(orgGraph.snapshot()).isNotNull();
+		assertSameAsDatabase();
+		assertThat(orgGraph.snapshot().size()).isEqualTo(employeeRepo.count());
+	}
+
+	private void assertSameAsDatabase() {
+		for (Department dept : departmentRepo.findAll()) {
+			String name = dept.getDepartmentName();
+			List<EmployeeDTO> members = employeeRepo.findDtoByDepartmentName(name);
+			assertThat(orgService.getEmployeesByDepartment(name)).as(name)
+					.usingRecursiveFieldByFieldElementComparator()
+					.containsExactlyElementsOf(members);
+			for (EmployeeDTO e : members) {
+				if (e.getDesignation().equals(OrgDesignations.MANAGER.name())) {
+					assertThat(orgService.getEmployeesReportingToManager(e.getId())).as(e.getName())
+							.usingRecursiveFieldByFieldElementComparator()
+							.containsExactlyElementsOf(employeeRepo.findDtoByReportToIdAndDepartmentId(e.getId(),
+									dept.getId()));
+				}
+			}
+		}
+	}
+
+	private static Department department(String name) {
+		Department dept = new Department();
+		dept.setDepartmentName(name);
+		return dept;
+	}
+
+}
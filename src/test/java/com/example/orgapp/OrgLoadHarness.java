@@ -0,0 +1,215 @@
+package com.example.orgapp;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP load generator for comparing configurations of a running app, e.g.
+ * pool sizes or the in-memory org graph (org.graph.enabled) on and off.
+ * It only uses the JDK, so it runs straight from the compiled test classes:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/test-classes com.example.orgapp.OrgLoadHarness http://localhost:8081 64 5000 [ceoId]
+ * </pre>
+ *
+ * Each run seeds its own department, head and manager, then reports
+ * throughput and p50/p99 latency for employee inserts and the listing endpoints.
+ * Without a ceoId argument a CEO is created, which only works on an empty org.
+ * <p>
+ * Inserts are also run through the async ingestion queue ("Prefer: respond-async").
+ * That scenario is timed until every accepted employee has been imported, using
+ * the {@code org.ingest.requests} counters, and a 429 is retried after a pause
+ * as a well-behaved client would.
+ */
+public class OrgLoadHarness {
+
+	private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+	private static final Pattern VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.E]+)");
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+	private final String baseUrl;
+	private final String runId = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong mobile = new AtomicLong();
+
+	OrgLoadHarness(String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	public static void main(String[] args) throws Exception {
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+		int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+		int requests = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+		OrgLoadHarness harness = new OrgLoadHarness(baseUrl);
+
+		long ceo = args.length > 3 ? Long.parseLong(args[3]) : harness.createEmployee("CEO", null, null);
+		String dept = "LOAD" + harness.runId.toUpperCase();
+		harness.send(harness.post("/api/departments", "{\"departmentName\":\"" + dept + "\"}"));
+		long head = harness.createEmployee("DEPT_HEAD", dept, ceo);
+		long manager = harness.createEmployee("MANAGER", dept, head);
+
+		System.out.printf("%s, concurrency %d, %d requests per scenario%n", baseUrl, concurrency, requests);
+		harness.run("POST /api/employee", concurrency, requests,
+				i -> harness.post("/api/employee", harness.employeeJson("DEVELOPER", dept, manager)));
+		harness.runIngest("POST /api/employee async", concurrency, requests,
+				i -> harness.postAsync("/api/employee", harness.employeeJson("DEVELOPER", dept, manager)));
+		harness.run("GET department employees", concurrency, requests,
+				i -> harness.get("/api/department/" + dept + "/employees?size=100"));
+		harness.run("GET manager employees", concurrency, requests,
+				i -> harness.get("/api/manager/" + manager + "/employees"));
+	}
+
+	void run(String name, int concurrency, int requests, IntFunction<HttpRequest> requestFactory)
+			throws InterruptedException {
+		long[] latencies = new long[requests];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(concurrency);
+		ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+
+		long start = System.nanoTime();
+		for (int t = 0; t < concurrency; t++) {
+			pool.execute(() -> {
+				int i;
+				while ((i = next.getAndIncrement()) < requests) {
+					long begin = System.nanoTime();
+					try {
+						int status = send(requestFactory.apply(i)).statusCode();
+						if (status >= 400) {
+							errors.incrementAndGet();
+						}
+					} catch (Exception e) {
+						errors.incrementAndGet();
+					}
+					latencies[i] = System.nanoTime() - begin;
+				}
+				done.countDown();
+			});
+		}
+		done.await();
+		double seconds = (System.nanoTime() - start) / 1e9;
+		pool.shutdown();
+
+		Arrays.sort(latencies);
+		System.out.printf("%-28s %8.0f req/s  p50 %7.2f ms  p99 %7.2f ms  errors %d%n", name, requests / seconds,
+				percentile(latencies, 50), percentile(latencies, 99), errors.get());
+	}
+
+	void runIngest(String name, int concurrency, int requests, IntFunction<HttpRequest> requestFactory)
+			throws Exception {
+		double importedBefore = ingested("imported");
+		double failedBefore = ingested("failed");
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger accepted = new AtomicInteger();
+		AtomicInteger throttled = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(concurrency);
+		ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+
+		long start = System.nanoTime();
+		for (int t = 0; t < concurrency; t++) {
+			pool.execute(() -> {
+				int i;
+				while ((i = next.getAndIncrement()) < requests) {
+					HttpRequest request = requestFactory.apply(i);
+					try {
+						int status;
+						while ((status = send(request).statusCode()) == 429) {
+							throttled.incrementAndGet();
+							Thread.sleep(20);
+						}
+						if (status == 202) {
+							accepted.incrementAndGet();
+						} else {
+							errors.incrementAndGet();
+						}
+					} catch (Exception e) {
+						errors.incrementAndGet();
+					}
+				}
+				done.countDown();
+			});
+		}
+		done.await();
+		double acceptSeconds = (System.nanoTime() - start) / 1e9;
+		pool.shutdown();
+
+		double failed;
+		while (ingested("imported") - importedBefore + (failed = ingested("failed") - failedBefore) < accepted.get()) {
+			Thread.sleep(20);
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%-28s %8.0f req/s  all accepted after %.2f s, imported after %.2f s  429s %d  errors %d%n",
+				name, requests / seconds, acceptSeconds, seconds, throttled.get(), errors.get() + (int) failed);
+	}
+
+	// ---------------- Helpers ----------------
+
+	// Ingestion outcomes counted so far, from the actuator metrics endpoint
+	double ingested(String outcome) throws Exception {
+		HttpResponse<String> response = send(get("/actuator/metrics/org.ingest.requests?tag=outcome:" + outcome));
+		Matcher m = VALUE.matcher(response.body());
+		return response.statusCode() == 200 && m.find() ? Double.parseDouble(m.group(1)) : 0;
+	}
+
+	private static double percentile(long[] sorted, int p) {
+		int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1e6;
+	}
+
+	long createEmployee(String designation, String dept, Long reportTo) throws Exception {
+		HttpResponse<String> response = send(post("/api/employee", employeeJson(designation, dept, reportTo)));
+		Matcher m = ID.matcher(response.body());
+		if (response.statusCode() != 201 || !m.find()) {
+			throw new IllegalStateException("Could not create " + designation + ": " + response.body());
+		}
+		return Long.parseLong(m.group(1));
+	}
+
+	String employeeJson(String designation, String dept, Long reportTo) {
+		List<String> fields = new ArrayList<>();
+		fields.add("\"name\":\"load-" + designation.toLowerCase() + "\"");
+		fields.add("\"mobileNumber\":\"" + runId + "-" + mobile.incrementAndGet() + "\"");
+		fields.add("\"designation\":{\"orgDesignations\":\"" + designation + "\"}");
+		if (dept != null) {
+			fields.add("\"department\":{\"departmentName\":\"" + dept + "\"}");
+		}
+		if (reportTo != null) {
+			fields.add("\"reportTo\":{\"id\":" + reportTo + "}");
+		}
+		return "{" + String.join(",", fields) + "}";
+	}
+
+	HttpRequest post(String path, String json) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json)).build();
+	}
+
+	HttpRequest postAsync(String path, String json) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Content-Type", "application/json")
+				.header("Prefer", "respond-async").POST(HttpRequest.BodyPublishers.ofString(json)).build();
+	}
+
+	HttpRequest get(String path) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+	}
+
+	HttpResponse<String> send(HttpRequest request) throws Exception {
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+}
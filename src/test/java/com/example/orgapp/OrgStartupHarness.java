@@ -0,0 +1,126 @@
+package com.example.orgapp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time-to-first-request of the packaged app in each startup mode:
+ * plain JVM, Spring AOT, a CDS archive, and both. Build the jar with AOT
+ * classes and the CDS archive first, then run from the compiled test classes:
+ *
+ * <pre>
+ * mvn -P aot,cds package -DskipTests -Dcds.training.args="-Dspring.profiles.active=prod -Dspring.aot.enabled=true"
+ * mvn test-compile
+ * java -cp target/test-classes com.example.orgapp.OrgStartupHarness target/cds 5 [jvm,aot,cds,aot+cds]
+ * </pre>
+ *
+ * Every launch uses the "prod" profile against the same file database, so
+ * after one unmeasured warm-up launch the schema is already migrated, as it is
+ * for a restarted pod.
+ */
+public class OrgStartupHarness {
+
+	private static final int PORT = 18081;
+	private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+	private final Path appDir;
+	private final Path dataDir;
+
+	OrgStartupHarness(Path appDir, Path dataDir) {
+		this.appDir = appDir;
+		this.dataDir = dataDir;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Path appDir = Path.of(args.length > 0 ? args[0] : "target/cds").toAbsolutePath();
+		int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		List<String> modes = Arrays.asList((args.length > 2 ? args[2] : "jvm,aot,cds,aot+cds").split(","));
+		OrgStartupHarness harness = new OrgStartupHarness(appDir, Files.createTempDirectory("org-startup"));
+
+		harness.launch("jvm");
+		System.out.printf("%s, %d run(s) per mode, time to first request%n", appDir, runs);
+		for (String mode : modes) {
+			long[] millis = new long[runs];
+			try {
+				for (int i = 0; i < runs; i++) {
+					millis[i] = harness.launch(mode);
+				}
+			} catch (IllegalStateException e) {
+				System.out.printf("%-8s failed: %s%n", mode, e.getMessage());
+				continue;
+			}
+			Arrays.sort(millis);
+			System.out.printf("%-8s min %6d ms  median %6d ms  max %6d ms%n", mode, millis[0], millis[runs / 2],
+					millis[runs - 1]);
+		}
+	}
+
+	// Start the app, wait for the first successful request and stop it again
+	long launch(String mode) throws Exception {
+		Process process = new ProcessBuilder(command(mode)).directory(appDir.toFile())
+				.redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+		long start = System.nanoTime();
+		try {
+			HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/api/designation"))
+					.timeout(Duration.ofSeconds(5)).GET().build();
+			while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+				if (!process.isAlive()) {
+					throw new IllegalStateException("exited with " + process.exitValue());
+				}
+				try {
+					if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+						return (System.nanoTime() - start) / 1_000_000;
+					}
+				} catch (IOException e) {
+					// not listening yet
+				}
+				Thread.sleep(5);
+			}
+			throw new IllegalStateException("no response within " + TIMEOUT.toSeconds() + "s");
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly().waitFor();
+			}
+		}
+	}
+
+	// ---------------- Helpers ----------------
+
+	private List<String> command(String mode) throws Exception {
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		if (mode.contains("cds")) {
+			command.add("-XX:SharedArchiveFile=application.jsa");
+			command.add("-Xlog:cds=off");
+		}
+		if (mode.contains("aot")) {
+			command.add("-Dspring.aot.enabled=true");
+		}
+		command.add("-jar");
+		command.add(jar().getFileName().toString());
+		command.add("--spring.profiles.active=prod");
+		command.add("--server.port=" + PORT);
+		command.add("--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("startup") + ";DB_CLOSE_DELAY=-1");
+		return command;
+	}
+
+	private Path jar() throws Exception {
+		try (var files = Files.list(appDir)) {
+			return files.filter(p -> p.toString().endsWith(".jar")).findFirst()
+					.orElseThrow(() -> new IllegalStateException("No application jar in " + appDir));
+		}
+	}
+
+}
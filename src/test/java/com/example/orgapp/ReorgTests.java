@@ -0,0 +1,175 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.example.orgapp.dto.EmployeeDTO;
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.repository.EmployeeRepository;
+import com.example.orgapp.service.OrgChartPaths;
+import com.example.orgapp.service.OrgService;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reorg;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class ReorgTests {
+
+	private static final int STAFF = 5;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrgService orgService;
+
+	@Autowired
+	private EmployeeRepository employeeRepo;
+
+	private static Employee ceo;
+	private static int run;
+
+	private Employee itHead;
+	private Employee hrHead;
+	private Employee itManager;
+	private final List<Employee> staff = new ArrayList<>();
+
+	// Every test gets its own pair of departments
+	@BeforeEach
+	void seedOrg() {
+		if (ceo == null) {
+			ceo = orgService.addEmployee(employee("ceo", "ceo-" + run, OrgDesignations.CEO, null, null));
+		}
+		run++;
+		String it = department("IT" + run);
+		String hr = department("HR" + run);
+		itHead = orgService.addEmployee(employee("it-head", "it-head-" + run, OrgDesignations.DEPT_HEAD, it, ceo));
+		hrHead = orgService.addEmployee(employee("hr-head", "hr-head-" + run, OrgDesignations.DEPT_HEAD, hr, ceo));
+		itManager = orgService.addEmployee(employee("it-manager", "it-manager-" + run, OrgDesignations.MANAGER, it,
+				itHead));
+		for (int i = 0; i < STAFF; i++) {
+			staff.add(orgService.addEmployee(employee("dev" + i, "dev" + i + "-" + run, OrgDesignations.DEVELOPER, it,
+					itManager)));
+		}
+	}
+
+	@Test
+	void managerMovesWithWholeSubtree() throws Exception {
+		mockMvc.perform(reorg(move(itManager, "HR" + run, hrHead, true)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.applied").value(true))
+				.andExpect(jsonPath("$.rowsTouched").value(STAFF + 1))
+				.andExpect(jsonPath("$.statements").value(2));
+
+		List<EmployeeDTO> subtree = orgService.getSubtree(hrHead.getId(), null);
+		assertThat(subtree).hasSize(STAFF + 1).allMatch(e -> e.getDepartment().equals("HR" + run));
+		assertThat(orgService.getReportingChain(staff.get(0).getId())).extracting(EmployeeDTO::getId)
+				.containsExactly(staff.get(0).getId(), itManager.getId(), hrHead.getId(), ceo.getId());
+		assertThat(orgService.getSubtree(itHead.getId(), null)).isEmpty();
+	}
+
+	@Test
+	void headsSwapDepartmentsInOneBatch() throws Exception {
+		mockMvc.perform(reorg(move(itHead, "HR" + run, ceo, false) + "," + move(hrHead, "IT" + run, ceo, false)
+				+ "," + move(itManager, "HR" + run, itHead, true)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.applied").value(true));
+
+		assertThat(employeeRepo.findDtoByIdIn(List.of(itHead.getId(), hrHead.getId())))
+				.extracting(EmployeeDTO::getDepartment).containsExactlyInAnyOrder("HR" + run, "IT" + run);
+		assertThat(orgService.getEmployeesReportingToManager(itManager.getId())).hasSize(STAFF)
+				.allMatch(e -> e.getDepartment().equals("HR" + run));
+	}
+
+	@Test
+	void invalidBatchReportsEveryErrorAndChangesNothing() throws Exception {
+		mockMvc.perform(reorg(move(itManager, "HR" + run, hrHead, false) + ","
+				+ move(staff.get(0), "NOWHERE", itManager, false) + "," + move(staff.get(1), "IT" + run, hrHead, false)))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.applied").value(false))
+				.andExpect(jsonPath("$.errors.length()").value(3))
+				.andExpect(jsonPath("$.errors[0].move").value(2))
+				.andExpect(jsonPath("$.errors[0].message").value("Department not found"))
+				.andExpect(jsonPath("$.errors[1].message")
+						.value("Employee has reports that are not part of the reorg; move it with its subtree"))
+				.andExpect(jsonPath("$.errors[2].message").value("Employee must report to manager"));
+
+		assertThat(orgService.getSubtree(itHead.getId(), null)).hasSize(STAFF + 1)
+				.allMatch(e -> e.getDepartment().equals("IT" + run));
+	}
+
+	@Test
+	void singleMoveRebasesTheWholeSubtree() throws Exception {
+		mockMvc.perform(put("/api/employee/{id}/move/{dept}/{reportTo}", itManager.getId(), "HR" + run,
+				hrHead.getId()))
+				.andExpect(status().isOk());
+
+		String managerPath = OrgChartPaths.childPath(OrgChartPaths.childPath(OrgChartPaths.ROOT, ceo.getId()),
+				hrHead.getId());
+		Employee moved = employeeRepo.findById(itManager.getId()).orElseThrow();
+		assertThat(moved.getManagerPath()).isEqualTo(managerPath);
+		assertThat(moved.getDepth()).isEqualTo(2);
+		assertThat(employeeRepo.findAllById(staff.stream().map(Employee::getId).toList())).hasSize(STAFF)
+				.allSatisfy(e -> {
+					assertThat(e.getManagerPath()).isEqualTo(OrgChartPaths.childPath(managerPath, itManager.getId()));
+					assertThat(e.getDepth()).isEqualTo(3);
+				});
+		assertThat(orgService.getSubtree(hrHead.getId(), null)).extracting(EmployeeDTO::getId)
+				.hasSize(STAFF + 1).contains(itManager.getId(), staff.get(0).getId());
+		assertThat(orgService.getSubtree(itHead.getId(), null)).isEmpty();
+	}
+
+	@Test
+	void chainRunsFromTheEmployeeUpToTheCeo() throws Exception {
+		Employee dev = staff.get(STAFF - 1);
+		mockMvc.perform(get("/api/employee/{id}/chain", dev.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(4))
+				.andExpect(jsonPath("$[0].id").value(dev.getId()))
+				.andExpect(jsonPath("$[1].id").value(itManager.getId()))
+				.andExpect(jsonPath("$[2].id").value(itHead.getId()))
+				.andExpect(jsonPath("$[3].id").value(ceo.getId()));
+		mockMvc.perform(get("/api/employee/{id}/chain", ceo.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].id").value(ceo.getId()));
+		mockMvc.perform(get("/api/employee/{id}/chain", Long.MAX_VALUE))
+				.andExpect(status().isBadRequest());
+	}
+
+	private RequestBuilder reorg(String moves) {
+		return post("/api/reorg").contentType(MediaType.APPLICATION_JSON).content("[" + moves + "]");
+	}
+
+	private static String move(Employee emp, String department, Employee reportTo, boolean withSubtree) {
+		return String.format("{\"employeeId\":%d,\"department\":\"%s\",\"reportTo\":%d,\"withSubtree\":%b}",
+				emp.getId(), department, reportTo.getId(), withSubtree);
+	}
+
+	private String department(String name) {
+		Department dept = new Department();
+		dept.setDepartmentName(name);
+		orgService.addDepartment(dept);
+		return name;
+	}
+
+}
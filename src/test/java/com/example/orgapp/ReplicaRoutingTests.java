@@ -0,0 +1,184 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.ceo;
+import static com.example.orgapp.TestEmployees.create;
+import static com.example.orgapp.TestEmployees.employeeJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.orgapp.config.ReplicaDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// The "replica" is a second pool on the same in-memory database, so it is always caught up
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:replicas;DB_CLOSE_DELAY=-1",
+		"org.datasource.replica.jdbc-url=jdbc:h2:mem:replicas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureMockMvc
+@DirtiesContext
+class ReplicaRoutingTests {
+
+	private static final String CONNECTIONS = "org.datasource.replica.connections";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ReplicaDataSource replicaDataSource;
+
+	@Autowired
+	private HikariDataSource replicaPool;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void readOnlyQueriesUseTheReplicaWithoutFlushingAndFallBackWhenItIsDown() throws Exception {
+		replicaDataSource.check();
+		assertThat(replicaDataSource.isAvailable()).isTrue();
+
+		double replicaBefore = connections("replica");
+		long head = create(mockMvc, employeeJson("it-head", "DEPT_HEAD", "IT", ceo(mockMvc)));
+		long manager = create(mockMvc, employeeJson("it-mgr", "MANAGER", "IT", head));
+		create(mockMvc, employeeJson("it-dev", "DEVELOPER", "IT", manager));
+		// Inserts validate against the primary in their own transaction
+		assertThat(connections("replica")).isEqualTo(replicaBefore);
+
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long flushes = stats.getFlushCount();
+		// Both load the employee entity, which a read-write transaction would dirty-check and flush at commit
+		mockMvc.perform(get("/api/employee/{id}/subtree", head))
+				.andExpect(jsonPath("$.length()").value(2));
+		mockMvc.perform(get("/api/employee/{id}/chain", manager))
+				.andExpect(jsonPath("$.length()").value(3));
+		mockMvc.perform(get("/api/designation"))
+				.andExpect(status().isOk());
+		assertThat(connections("replica")).isEqualTo(replicaBefore + 2);
+		assertThat(stats.getFlushCount()).isEqualTo(flushes);
+
+		// The ETag-tagged listings stay on the primary
+		double primaryBefore = connections("primary");
+		mockMvc.perform(get("/api/department/IT/employees"))
+				.andExpect(jsonPath("$.length()").value(3));
+		mockMvc.perform(get("/api/manager/{id}/employees", manager))
+				.andExpect(jsonPath("$.length()").value(1));
+		assertThat(connections("replica")).isEqualTo(replicaBefore + 2);
+
+		// A replica that cannot hand out connections is skipped until a check finds it again
+		replicaPool.close();
+		primaryBefore = connections("primary");
+		mockMvc.perform(get("/api/employee/{id}/subtree", head))
+				.andExpect(jsonPath("$.length()").value(2));
+		mockMvc.perform(get("/api/employee/{id}/chain", manager))
+				.andExpect(jsonPath("$.length()").value(3));
+		assertThat(replicaDataSource.isAvailable()).isFalse();
+		assertThat(connections("primary")).isEqualTo(primaryBefore + 2);
+		replicaDataSource.check();
+		assertThat(replicaDataSource.isAvailable()).isFalse();
+	}
+
+	@Test
+	void aReplicaBehindThePrimaryIsNotUsed() throws Exception {
+		// A separate database standing in for a replica that applies the change feed late
+		DriverManagerDataSource lagging = new DriverManagerDataSource("jdbc:h2:mem:lagging;DB_CLOSE_DELAY=-1");
+		JdbcTemplate laggingJdbc = new JdbcTemplate(lagging);
+		laggingJdbc.execute("CREATE TABLE org_change (change_offset BIGINT PRIMARY KEY)");
+		ReplicaDataSource replica = new ReplicaDataSource(lagging, dataSource, new SimpleMeterRegistry());
+
+		long head = create(mockMvc, employeeJson("hr-head", "DEPT_HEAD", "HR", ceo(mockMvc)));
+		long offset = new JdbcTemplate(dataSource)
+				.queryForObject("SELECT MAX(change_offset) FROM org_change", Long.class);
+		replica.check();
+		assertThat(replica.isAvailable()).isFalse();
+
+		laggingJdbc.update("INSERT INTO org_change VALUES (?)", offset);
+		replica.check();
+		assertThat(replica.isAvailable()).isTrue();
+
+		// Up to one check interval behind is tolerated, more is not
+		create(mockMvc, employeeJson("hr-mgr", "MANAGER", "HR", head));
+		replica.check();
+		assertThat(replica.isAvailable()).isTrue();
+		replica.check();
+		assertThat(replica.isAvailable()).isFalse();
+	}
+
+	@Test
+	void taggedListingsNeverPairANewTagWithRowsTheReplicaHasNotApplied() throws Exception {
+		mockMvc.perform(post("/api/departments").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"departmentName\":\"OPS\"}")).andExpect(status().isCreated());
+		long head = create(mockMvc, employeeJson("ops-head", "DEPT_HEAD", "OPS", ceo(mockMvc)));
+
+		// A copy of the primary as it is now, standing in for a replica that stops applying changes here
+		DriverManagerDataSource lagging = new DriverManagerDataSource("jdbc:h2:mem:stale;DB_CLOSE_DELAY=-1");
+		JdbcTemplate laggingJdbc = new JdbcTemplate(lagging);
+		for (String statement : new JdbcTemplate(dataSource).queryForList("SCRIPT", String.class)) {
+			laggingJdbc.execute(statement);
+		}
+		replicaDataSource.setTargetDataSource(lagging);
+		try {
+			replicaDataSource.check();
+			assertThat(replicaDataSource.isAvailable()).isTrue();
+
+			long manager = create(mockMvc, employeeJson("ops-mgr", "MANAGER", "OPS", head));
+			create(mockMvc, employeeJson("ops-dev", "DEVELOPER", "OPS", manager));
+			MvcResult listing = mockMvc.perform(get("/api/department/OPS/employees"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.length()").value(3))
+					.andReturn();
+			String etag = listing.getResponse().getHeader(HttpHeaders.ETAG);
+			mockMvc.perform(get("/api/department/OPS/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isNotModified());
+
+			MvcResult reports = mockMvc.perform(get("/api/manager/{id}/employees", manager))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.length()").value(1))
+					.andReturn();
+			mockMvc.perform(get("/api/manager/{id}/employees", manager)
+					.header(HttpHeaders.IF_NONE_MATCH, reports.getResponse().getHeader(HttpHeaders.ETAG)))
+					.andExpect(status().isNotModified());
+
+			// The replica still has only the head, and is still in rotation for untagged reads
+			assertThat(laggingJdbc.queryForObject("SELECT COUNT(*) FROM employee e JOIN department d "
+					+ "ON e.department_id = d.id WHERE d.name = 'OPS'", Integer.class)).isEqualTo(1);
+			assertThat(replicaDataSource.isAvailable()).isTrue();
+		} finally {
+			replicaDataSource.setTargetDataSource(replicaPool);
+			replicaDataSource.check();
+		}
+	}
+
+	private double connections(String target) {
+		return registry.counter(CONNECTIONS, "target", target).count();
+	}
+
+}
@@ -0,0 +1,283 @@
+package com.example.orgapp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.orgapp.controller.ExportController;
+import com.example.orgapp.controller.RequestLimiter;
+import com.example.orgapp.controller.RequestLimiter.EndpointClass;
+import com.example.orgapp.controller.RequestLimiter.Limit;
+import com.example.orgapp.enums.OrgDesignations;
+import com.jayway.jsonpath.JsonPath;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * One client floods a department listing from twice as many threads as
+ * Tomcat has, while another keeps adding employees. With the limits the
+ * flood is turned away at the door, so the writes still find a free thread
+ * and connection and their latency stays close to what it is without the
+ * flood. (Without them, on one core, the writes' p90 goes from ~50 ms to
+ * ~500 ms.)
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:limits;DB_CLOSE_DELAY=-1",
+		"spring.jpa.show-sql=false",
+		"logging.level.org.hibernate.SQL=info",
+		"server.tomcat.threads.max=8",
+		"org.limits.enabled=true",
+		"org.limits.read.rate=5",
+		"org.limits.read.burst=5",
+		"org.limits.read.client-concurrency=2" })
+@DirtiesContext
+class RequestLimitTests {
+
+	private static final int FLOOD_THREADS = 16;
+	private static final int WRITES = 40;
+
+	private static final AtomicInteger MOBILE = new AtomicInteger();
+
+	@Autowired
+	private TestRestTemplate rest;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	void writeLatencyStaysFlatWhileReadsAreFlooded() throws Exception {
+		Long ceo = id(postEmployee("hr", "ceo", OrgDesignations.CEO, null, null));
+		Long head = id(postEmployee("hr", "head", OrgDesignations.DEPT_HEAD, "IT", ceo));
+		Long manager = id(postEmployee("hr", "manager", OrgDesignations.MANAGER, "IT", head));
+		StringBuilder csv = new StringBuilder("name,mobileNumber,designation,department,reportTo\n");
+		for (int i = 0; i < 1000; i++) {
+			csv.append("dev").append(i).append(",8").append(MOBILE.incrementAndGet()).append(",DEVELOPER,IT,")
+					.append(manager).append('\n');
+		}
+		HttpHeaders csvHeaders = client("hr");
+		csvHeaders.setContentType(MediaType.parseMediaType("text/csv"));
+		assertThat(rest.postForEntity("/api/employees/bulk", new HttpEntity<>(csv.toString(), csvHeaders),
+				String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		writeLatencies(manager); // warm-up
+		long[] quiet = writeLatencies(manager);
+
+		AtomicBoolean flooding = new AtomicBoolean(true);
+		Map<HttpStatus, AtomicInteger> floodStatuses = new ConcurrentHashMap<>();
+		AtomicInteger missingRetryAfter = new AtomicInteger();
+		// Asks again right after every answer, and only waits when told to with Retry-After
+		ExecutorService flood = Executors.newFixedThreadPool(FLOOD_THREADS);
+		for (int i = 0; i < FLOOD_THREADS; i++) {
+			flood.submit(() -> {
+				while (flooding.get()) {
+					ResponseEntity<String> r = rest.exchange("/api/department/IT/employees", HttpMethod.GET,
+							new HttpEntity<>(client("sync")), String.class);
+					HttpStatus status = HttpStatus.valueOf(r.getStatusCode().value());
+					floodStatuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+					if (!status.is2xxSuccessful()) {
+						String retryAfter = r.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+						if (retryAfter == null) {
+							missingRetryAfter.incrementAndGet();
+						} else {
+							Thread.sleep(TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter)));
+						}
+					}
+				}
+				return null;
+			});
+		}
+		long[] flooded;
+		try {
+			Thread.sleep(500);
+			flooded = writeLatencies(manager);
+		} finally {
+			flooding.set(false);
+			flood.shutdown();
+			assertThat(flood.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+		}
+
+		assertThat(floodStatuses.get(HttpStatus.OK)).isNotNull();
+		assertThat(floodStatuses.get(HttpStatus.TOO_MANY_REQUESTS)).isNotNull();
+		assertThat(missingRetryAfter).hasValue(0);
+		assertThat(registry.find("org.limits.rejections").tag("class", "read").counters())
+				.anySatisfy(c -> assertThat(c.count()).isPositive());
+		// Flat: within a small margin of the quiet latency, not queued behind the flood
+		assertThat(flooded[WRITES * 9 / 10]).isLessThan(2 * quiet[WRITES * 9 / 10] + TimeUnit.MILLISECONDS.toNanos(50));
+		// Every permit was handed back
+		assertThat(registry.get("org.limits.in.flight").tag("class", "read").gauge().value()).isZero();
+	}
+
+	@Test
+	void bulkRequestsBeyondTheBurstAreRefusedWithRetryAfter() {
+		HttpHeaders headers = client("importer");
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		List<ResponseEntity<String>> responses = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			responses.add(rest.postForEntity("/api/reorg", new HttpEntity<>("[]", headers), String.class));
+		}
+		assertThat(responses.subList(0, 5)).allSatisfy(
+				r -> assertThat(r.getStatusCode()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+		ResponseEntity<String> refused = responses.get(5);
+		assertThat(refused.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(Long.parseLong(refused.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isBetween(1L, 2L);
+
+		// Buckets are per client: another importer is not affected
+		HttpHeaders other = client("other-importer");
+		other.setContentType(MediaType.APPLICATION_JSON);
+		assertThat(rest.postForEntity("/api/reorg", new HttpEntity<>("[]", other), String.class).getStatusCode())
+				.isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(registry.get("org.limits.rejections").tag("class", "bulk").tag("reason", "rate").counter()
+				.count()).isEqualTo(1);
+	}
+
+	@Test
+	void everyApiControllerIsLimitedAndExportsAreBulk() throws Exception {
+		RequestLimiter limiter = limiter(new Limit(1000, 1000, 1, 100), 100, Duration.ofMinutes(10));
+		MockHttpServletRequest export = request("POST", "/api/export", "ops");
+		assertThat(limiter.preHandle(export, new MockHttpServletResponse(), handler())).isTrue();
+		// The bulk limit allows one at a time; reads by the same client are counted apart
+		MockHttpServletResponse refused = new MockHttpServletResponse();
+		assertThat(limiter.preHandle(request("POST", "/api/export", "ops"), refused, handler())).isFalse();
+		assertThat(refused.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+		assertThat(limiter.preHandle(request("GET", "/api/changes", "ops"), new MockHttpServletResponse(),
+				handler())).isTrue();
+		MockHttpServletResponse poll = new MockHttpServletResponse();
+		assertThat(limiter.preHandle(request("GET", "/api/changes", "ops"), poll, handler())).isFalse();
+		assertThat(poll.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+
+		limiter.afterCompletion(export, new MockHttpServletResponse(), handler(), null);
+		assertThat(limiter.preHandle(request("POST", "/api/export", "ops"), new MockHttpServletResponse(),
+				handler())).isTrue();
+	}
+
+	@Test
+	void requestsTurnedAwayByABulkheadKeepTheirToken() throws Exception {
+		// Two tokens that are not refilled during the test, one request at a time
+		RequestLimiter limiter = limiter(new Limit(0.001, 2, 1, 100), 100, Duration.ofMinutes(10));
+		MockHttpServletRequest first = request("GET", "/api/employee/{empId}", "reader");
+		assertThat(limiter.preHandle(first, new MockHttpServletResponse(), handler())).isTrue();
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.preHandle(request("GET", "/api/employee/{empId}", "reader"),
+					new MockHttpServletResponse(), handler())).isFalse();
+		}
+		limiter.afterCompletion(first, new MockHttpServletResponse(), handler(), null);
+
+		assertThat(limiter.preHandle(request("GET", "/api/employee/{empId}", "reader"),
+				new MockHttpServletResponse(), handler())).isTrue();
+	}
+
+	@Test
+	void aClientWithARequestInProgressIsNeitherExpiredNorEvicted() throws Exception {
+		RequestLimiter limiter = limiter(new Limit(1000, 1000, 1, 100), 1, Duration.ofNanos(1));
+		MockHttpServletRequest held = request("GET", "/api/changes", "poller");
+		assertThat(limiter.preHandle(held, new MockHttpServletResponse(), handler())).isTrue();
+		// Other clients come and go past the one-client bound, and idle state expires at once
+		for (int i = 0; i < 50; i++) {
+			MockHttpServletRequest other = request("GET", "/api/changes", "client" + i);
+			assertThat(limiter.preHandle(other, new MockHttpServletResponse(), handler())).isTrue();
+			limiter.afterCompletion(other, new MockHttpServletResponse(), handler(), null);
+		}
+		Thread.sleep(5);
+
+		// Still counted: a second long poll is refused until the first completes
+		assertThat(limiter.preHandle(request("GET", "/api/changes", "poller"), new MockHttpServletResponse(),
+				handler())).isFalse();
+		limiter.afterCompletion(held, new MockHttpServletResponse(), handler(), null);
+		assertThat(limiter.preHandle(request("GET", "/api/changes", "poller"), new MockHttpServletResponse(),
+				handler())).isTrue();
+	}
+
+	// ---------------- Helpers ----------------
+
+	// A limiter of its own, with the same limit for every class
+	private static RequestLimiter limiter(Limit limit, long maxClients, Duration clientIdle) {
+		Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+		for (EndpointClass c : EndpointClass.values()) {
+			limits.put(c, c == EndpointClass.BULK ? new Limit(limit.rate(), limit.burst(), 1, 1) : limit);
+		}
+		return new RequestLimiter(limits, new SimpleMeterRegistry(), maxClients, clientIdle);
+	}
+
+	private static MockHttpServletRequest request(String method, String pattern, String client) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+		request.addHeader("X-Client-Id", client);
+		return request;
+	}
+
+	// Any controller method will do, limits do not depend on which controller it is on
+	private static HandlerMethod handler() throws NoSuchMethodException {
+		return new HandlerMethod(new ExportController(null), ExportController.class.getMethod("export"));
+	}
+
+
+	// Sorted latencies of sequential inserts, in nanoseconds
+	private long[] writeLatencies(Long manager) {
+		long[] latencies = new long[WRITES];
+		for (int i = 0; i < WRITES; i++) {
+			long start = System.nanoTime();
+			ResponseEntity<String> r = postEmployee("hr", "dev", OrgDesignations.DEVELOPER, "IT", manager);
+			latencies[i] = System.nanoTime() - start;
+			assertThat(r.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		}
+		Arrays.sort(latencies);
+		return latencies;
+	}
+
+	private ResponseEntity<String> postEmployee(String client, String name, OrgDesignations designation,
+			String department, Long reportTo) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("name", name);
+		body.put("mobileNumber", "9" + MOBILE.incrementAndGet());
+		body.put("designation", Map.of("orgDesignations", designation.name()));
+		if (department != null) {
+			body.put("department", Map.of("departmentName", department));
+		}
+		if (reportTo != null) {
+			body.put("reportTo", Map.of("id", reportTo));
+		}
+		return rest.postForEntity("/api/employee", new HttpEntity<>(body, client(client)), String.class);
+	}
+
+	private static HttpHeaders client(String id) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("X-Client-Id", id);
+		return headers;
+	}
+
+	private static Long id(ResponseEntity<String> response) {
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		return ((Number) JsonPath.read(response.getBody(), "$.id")).longValue();
+	}
+
+}
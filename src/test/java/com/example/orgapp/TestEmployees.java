@@ -0,0 +1,86 @@
+package com.example.orgapp;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.entity.Designation;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Employees to hand to {@code OrgService.addEmployee}, shaped like the
+ * request body: designation, department and manager are only set by
+ * enum, name and id, as a client would send them. The same employee as a
+ * JSON body for {@code POST /api/employee}, for tests that go through HTTP.
+ */
+final class TestEmployees {
+
+	// CEO id per application context, which each test class here has its own of (and its own MockMvc)
+	private static final Map<MockMvc, Long> CEOS = new WeakHashMap<>();
+
+	private TestEmployees() {
+	}
+
+	// Mobile number derived from the name, so names must be unique within a test database
+	static Employee employee(String name, OrgDesignations designation, String department, Employee reportTo) {
+		return employee(name, name + "-mobile", designation, department, reportTo);
+	}
+
+	static Employee employee(String name, String mobile, OrgDesignations designation, String department,
+			Employee reportTo) {
+		Employee emp = new Employee();
+		emp.setName(name);
+		emp.setMobileNumber(mobile);
+		Designation d = new Designation();
+		d.setOrgDesignations(designation);
+		emp.setDesignation(d);
+		if (department != null) {
+			Department dept = new Department();
+			dept.setDepartmentName(department);
+			emp.setDepartment(dept);
+		}
+		if (reportTo != null) {
+			Employee boss = new Employee();
+			boss.setId(reportTo.getId());
+			emp.setReportTo(boss);
+		}
+		return emp;
+	}
+
+	// Request body for POST /api/employee, with the same mobile number as employee(...)
+	static String employeeJson(String name, String designation, String department, Long reportTo) {
+		return "{\"name\":\"" + name + "\",\"mobileNumber\":\"" + name + "-mobile\","
+				+ "\"designation\":{\"orgDesignations\":\"" + designation + "\"}"
+				+ (department == null ? "" : ",\"department\":{\"departmentName\":\"" + department + "\"}")
+				+ (reportTo == null ? "" : ",\"reportTo\":{\"id\":" + reportTo + "}") + "}";
+	}
+
+	// Posts the employee, expects it to be created and returns its id
+	static long create(MockMvc mockMvc, String json) throws Exception {
+		String body = mockMvc.perform(post("/api/employee").contentType(MediaType.APPLICATION_JSON).content(json))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(body, "$.id")).longValue();
+	}
+
+	// The CEO, created by whichever test of the class needs it first
+	static long ceo(MockMvc mockMvc) throws Exception {
+		synchronized (CEOS) {
+			Long id = CEOS.get(mockMvc);
+			if (id == null) {
+				id = create(mockMvc, employeeJson("ceo", "CEO", null, null));
+				CEOS.put(mockMvc, id);
+			}
+			return id;
+		}
+	}
+
+}
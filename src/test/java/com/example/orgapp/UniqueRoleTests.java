@@ -0,0 +1,109 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.employee;
+import static com.example.orgapp.TestEmployees.employeeJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.orgapp.entity.Department;
+import com.example.orgapp.entity.Employee;
+import com.example.orgapp.enums.OrgDesignations;
+import com.example.orgapp.service.OrgService;
+
+/**
+ * A second CEO or department head that gets past validation, because the
+ * first one was not committed yet when it was checked, is stopped by the
+ * unique role key. The request must still get the validator's 400 message,
+ * not a 500 from the constraint.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:uniqueroles;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@AutoConfigureMockMvc
+@DirtiesContext
+class UniqueRoleTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrgService orgService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void duplicatesThatPassValidationGetTheMappedMessage() throws Exception {
+		Employee ceo = insertBehind(employee("ceo", OrgDesignations.CEO, null, null),
+				employeeJson("ceo-2", "CEO", null, null), "CEO already exists");
+		insertBehind(employee("it-head", OrgDesignations.DEPT_HEAD, "IT", ceo),
+				employeeJson("it-head-2", "DEPT_HEAD", "IT", ceo.getId()),
+				"Department head already exists for this department");
+	}
+
+	// ---------------- Helpers ----------------
+
+	// Posts the second employee while the first is inserted but not committed, lets the first
+	// commit only once the post is waiting on its row, and returns the first
+	private Employee insertBehind(Employee first, String second, String rejection) throws Exception {
+		CountDownLatch inserted = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Employee> holder = executor.submit(() -> transactionTemplate.execute(status -> {
+				Employee saved = orgService.addEmployee(first);
+				inserted.countDown();
+				await(commit);
+				return saved;
+			}));
+			assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+			Future<ResultActions> post = executor.submit(() -> mockMvc.perform(post("/api/employee")
+					.contentType(MediaType.APPLICATION_JSON).content(second)));
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			// H2 does not name a blocker for a unique index wait, but the insert stays the executing statement
+			while (jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS"
+					+ " WHERE LOWER(EXECUTING_STATEMENT) LIKE 'insert into employee %'", Integer.class) == 0) {
+				assertThat(System.nanoTime()).isLessThan(deadline);
+				Thread.sleep(10);
+			}
+			commit.countDown();
+			Employee saved = holder.get(10, TimeUnit.SECONDS);
+			post.get(10, TimeUnit.SECONDS)
+					.andExpect(status().isBadRequest())
+					.andExpect(content().string(rejection));
+			return saved;
+		} finally {
+			commit.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
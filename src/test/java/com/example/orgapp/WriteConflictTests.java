@@ -0,0 +1,97 @@
+package com.example.orgapp;
+
+import static com.example.orgapp.TestEmployees.ceo;
+import static com.example.orgapp.TestEmployees.create;
+import static com.example.orgapp.TestEmployees.employeeJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:writeconflicts;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class WriteConflictTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void retriedPostsWithTheSameKeyReplayTheFirstResponse() throws Exception {
+		long ceo = ceo(mockMvc);
+		String head = employeeJson("hr-head", "DEPT_HEAD", "HR", ceo);
+		MvcResult first = mockMvc.perform(post("/api/employee").header("Idempotency-Key", "create-head")
+				.contentType(MediaType.APPLICATION_JSON).content(head))
+				.andExpect(status().isCreated())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+				.andExpect(header().doesNotExist("Idempotent-Replayed"))
+				.andReturn();
+		Integer id = JsonPath.read(first.getResponse().getContentAsString(), "$.id");
+
+		mockMvc.perform(post("/api/employee").header("Idempotency-Key", "create-head")
+				.contentType(MediaType.APPLICATION_JSON).content(head))
+				.andExpect(status().isCreated())
+				.andExpect(header().string("Idempotent-Replayed", "true"))
+				.andExpect(jsonPath("$.id").value(id));
+		// Without the key the retry runs again and trips over the first attempt
+		mockMvc.perform(post("/api/employee").contentType(MediaType.APPLICATION_JSON).content(head))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/employee").header("Idempotency-Key", "create-head")
+				.contentType(MediaType.APPLICATION_JSON).content(employeeJson("other", "DEPT_HEAD", "HR", ceo)))
+				.andExpect(status().isUnprocessableEntity());
+
+		mockMvc.perform(post("/api/departments").header("Idempotency-Key", "create-ops")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"departmentName\":\"OPS\"}"))
+				.andExpect(status().isCreated());
+		mockMvc.perform(post("/api/departments").header("Idempotency-Key", "create-ops")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"departmentName\":\"OPS\"}"))
+				.andExpect(status().isCreated())
+				.andExpect(header().string("Idempotent-Replayed", "true"));
+	}
+
+	@Test
+	void movesHonourIfMatchAndSubtreeMovesBumpVersions() throws Exception {
+		long head = create(mockMvc, employeeJson("it-head", "DEPT_HEAD", "IT", ceo(mockMvc)));
+		long manager = create(mockMvc, employeeJson("it-mgr", "MANAGER", "IT", head));
+		long other = create(mockMvc, employeeJson("it-mgr2", "MANAGER", "IT", head));
+		long dev = create(mockMvc, employeeJson("it-dev", "DEVELOPER", "IT", manager));
+
+		String tag = mockMvc.perform(get("/api/employee/{id}", dev))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		String moved = mockMvc.perform(put("/api/employee/{id}/move/IT/{to}", dev, other).header(HttpHeaders.IF_MATCH, tag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(moved).isNotEqualTo(tag);
+
+		// A stale or weak tag is refused, "*" only requires the employee to exist
+		mockMvc.perform(put("/api/employee/{id}/move/IT/{to}", dev, manager).header(HttpHeaders.IF_MATCH, tag))
+				.andExpect(status().isPreconditionFailed());
+		mockMvc.perform(put("/api/employee/{id}/move/IT/{to}", dev, manager).header(HttpHeaders.IF_MATCH, "W/" + moved))
+				.andExpect(status().isPreconditionFailed());
+
+		// Moving the manager re-roots the developer's manager path, which is a change to the developer too
+		mockMvc.perform(put("/api/employee/{id}/move/IT/{to}", other, head))
+				.andExpect(status().isOk());
+		mockMvc.perform(put("/api/employee/{id}/move/IT/{to}", dev, manager).header(HttpHeaders.IF_MATCH, moved))
+				.andExpect(status().isPreconditionFailed());
+		mockMvc.perform(put("/api/employee/{id}/move/IT/{to}", dev, manager).header(HttpHeaders.IF_MATCH, "*"))
+				.andExpect(status().isOk());
+	}
+
+}